@@ -0,0 +1,490 @@
+package org.sdk6.data.structures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Aggregate engine of the number lists. Lists smaller than the parallel
+ * threshold are processed in the calling thread, bigger lists are split into
+ * chunks and processed on the common ForkJoinPool. Loops work directly on the
+ * primitive arrays so the JIT can unroll and vectorize them.
+ */
+final class Aggregates {
+	static final int DEFAULT_THRESHOLD = 1 << 16;
+
+	private static final int MIN_CHUNK = 1 << 13;
+	private static final int BLOCK = 1 << 12; // elements of each shifted moments block.
+
+	/**
+	 * Computes a partial result of a range of elements.
+	 */
+	interface Range<R> {
+		R apply(int from, int to);
+	}
+
+	/**
+	 * Updates a range of elements.
+	 */
+	interface RangeAction {
+		void apply(int from, int to);
+	}
+
+	private Aggregates() {
+	}
+
+	/**
+	 * Reduce a range of elements, partial results are merged left to right so
+	 * merge functions may prefer the left result on ties.
+	 *
+	 * @param size      Number of elements.
+	 * @param threshold Minimum number of elements to process in parallel.
+	 * @param range     Computes the result of a range.
+	 * @param merge     Merges the results of two adjacent ranges.
+	 * @return The result of all elements.
+	 */
+	static <R> R reduce(int size, int threshold, Range<R> range, BinaryOperator<R> merge) {
+		if (!parallel(size, threshold)) {
+			return range.apply(0, size);
+		}
+
+		return ForkJoinPool.commonPool().invoke(new ReduceTask<>(0, size, chunk(size), range, merge));
+	}
+
+	/**
+	 * Update all elements, ranges may run in parallel so the action must only
+	 * touch elements of it's own range.
+	 *
+	 * @param size      Number of elements.
+	 * @param threshold Minimum number of elements to process in parallel.
+	 * @param action    Updates a range.
+	 */
+	static void forEach(int size, int threshold, RangeAction action) {
+		if (!parallel(size, threshold)) {
+			action.apply(0, size);
+			return;
+		}
+
+		ForkJoinPool.commonPool().invoke(new ForEachTask(0, size, chunk(size), action));
+	}
+
+	static double sum(int[] values, int size, int threshold) {
+		return reduce(size, threshold, (from, to) -> {
+			long sum = 0; // exact, an int range can't overflow a long.
+
+			for (int i = from; i < to; i++) {
+				sum += values[i];
+			}
+
+			return sum;
+		}, Long::sum);
+	}
+
+	static double sum(long[] values, int size, int threshold, boolean compensated) {
+		return reduce(size, threshold, (from, to) -> {
+			Moments sum = new Moments();
+
+			if (compensated) {
+				for (int i = from; i < to; i++) {
+					sum.add(values[i]);
+				}
+			} else {
+				double plain = 0;
+
+				for (int i = from; i < to; i++) {
+					plain += values[i];
+				}
+
+				sum.sum = plain;
+			}
+
+			return sum;
+		}, Moments::mergeSum).total();
+	}
+
+	static double sum(double[] values, int size, int threshold, boolean compensated) {
+		return reduce(size, threshold, (from, to) -> {
+			Moments sum = new Moments();
+
+			if (compensated) {
+				for (int i = from; i < to; i++) {
+					sum.add(values[i]);
+				}
+			} else {
+				double plain = 0;
+
+				for (int i = from; i < to; i++) {
+					plain += values[i];
+				}
+
+				sum.sum = plain;
+			}
+
+			return sum;
+		}, Moments::mergeSum).total();
+	}
+
+	static NumberStatistics statistics(int[] values, int size, int threshold) {
+		return reduce(size, threshold, (from, to) -> {
+			Moments moments = new Moments();
+
+			for (int start = from; start < to; start += BLOCK) {
+				int end = Math.min(start + BLOCK, to);
+				int min = values[start], max = values[start];
+				long sum = 0;
+				double shift = values[start], s1 = 0, s2 = 0;
+
+				for (int i = start; i < end; i++) {
+					int value = values[i];
+					double d = value - shift;
+
+					sum += value;
+					s1 += d;
+					s2 += d * d;
+					min = Math.min(min, value);
+					max = Math.max(max, value);
+				}
+
+				moments.merge(block(end - start, sum, shift, s1, s2, min, max));
+			}
+
+			return moments;
+		}, Moments::merge).toStatistics();
+	}
+
+	static NumberStatistics statistics(long[] values, int size, int threshold, boolean compensated) {
+		return reduce(size, threshold, (from, to) -> {
+			Moments moments = new Moments();
+
+			for (int start = from; start < to; start += BLOCK) {
+				int end = Math.min(start + BLOCK, to);
+				long min = values[start], max = values[start];
+				double sum = 0, shift = values[start], s1 = 0, s2 = 0;
+
+				for (int i = start; i < end; i++) {
+					long value = values[i];
+					double d = value - shift;
+
+					s1 += d;
+					s2 += d * d;
+					min = Math.min(min, value);
+					max = Math.max(max, value);
+				}
+
+				if (compensated) {
+					Moments exact = new Moments();
+					for (int i = start; i < end; i++) {
+						exact.add(values[i]);
+					}
+
+					sum = exact.total();
+				} else {
+					for (int i = start; i < end; i++) {
+						sum += values[i];
+					}
+				}
+
+				moments.merge(block(end - start, sum, shift, s1, s2, min, max));
+			}
+
+			return moments;
+		}, Moments::merge).toStatistics();
+	}
+
+	static NumberStatistics statistics(double[] values, int size, int threshold, boolean compensated) {
+		return reduce(size, threshold, (from, to) -> {
+			Moments moments = new Moments();
+
+			for (int start = from; start < to; start += BLOCK) {
+				int end = Math.min(start + BLOCK, to);
+				double min = values[start], max = values[start];
+				double sum = 0, shift = values[start], s1 = 0, s2 = 0;
+
+				for (int i = start; i < end; i++) {
+					double value = values[i];
+					double d = value - shift;
+
+					s1 += d;
+					s2 += d * d;
+					min = Math.min(min, value);
+					max = Math.max(max, value);
+				}
+
+				if (compensated) {
+					Moments exact = new Moments();
+					for (int i = start; i < end; i++) {
+						exact.add(values[i]);
+					}
+
+					sum = exact.total();
+				} else {
+					for (int i = start; i < end; i++) {
+						sum += values[i];
+					}
+				}
+
+				moments.merge(block(end - start, sum, shift, s1, s2, min, max));
+			}
+
+			return moments;
+		}, Moments::merge).toStatistics();
+	}
+
+	/**
+	 * Get the first position of the biggest element.
+	 */
+	static int biggestIndex(int[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] > values[index]) {
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] > values[left] ? right : left);
+	}
+
+	/**
+	 * Get the first position of the smallest element.
+	 */
+	static int smallestIndex(int[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] < values[index]) {
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] < values[left] ? right : left);
+	}
+
+	/**
+	 * Get the first position of the biggest element.
+	 */
+	static int biggestIndex(long[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] > values[index]) {
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] > values[left] ? right : left);
+	}
+
+	/**
+	 * Get the first position of the smallest element.
+	 */
+	static int smallestIndex(long[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] < values[index]) {
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] < values[left] ? right : left);
+	}
+
+	/**
+	 * Get the first position of the biggest element, NaN is skipped unless
+	 * every element is NaN.
+	 */
+	static int biggestIndex(double[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] > values[index] || Double.isNaN(values[index])) { // NaN is skipped.
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] > values[left] || Double.isNaN(values[left]) ? right : left);
+	}
+
+	/**
+	 * Get the first position of the smallest element, NaN is skipped unless
+	 * every element is NaN.
+	 */
+	static int smallestIndex(double[] values, int size, int threshold) {
+		// ranges are merged left to right, so the first position wins on ties.
+		return reduce(size, threshold, (from, to) -> {
+			int index = from;
+
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] < values[index] || Double.isNaN(values[index])) { // NaN is skipped.
+					index = i;
+				}
+			}
+
+			return index;
+		}, (left, right) -> values[right] < values[left] || Double.isNaN(values[left]) ? right : left);
+	}
+
+	private static Moments block(int count, double sum, double shift, double s1, double s2, double min, double max) {
+		Moments block = new Moments();
+
+		block.count = count;
+		block.sum = sum;
+		block.mean = shift + s1 / count;
+		block.m2 = Math.max(0, s2 - s1 * s1 / count); // deviations from a close shift keep this stable.
+		block.min = min;
+		block.max = max;
+
+		return block;
+	}
+
+	private static boolean parallel(int size, int threshold) {
+		return size >= threshold && size >= 2 * MIN_CHUNK && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+	private static int chunk(int size) {
+		return Math.max(MIN_CHUNK, size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+	}
+
+	/**
+	 * Partial count, sum, mean, sum of squared deviations, min and max of a
+	 * range, merged with the pairwise formula of Chan et al.
+	 */
+	static final class Moments {
+		long count;
+		double sum;
+		double compensation; // lost low order bits of sum.
+		double mean;
+		double m2;
+		double min = Double.NaN;
+		double max = Double.NaN;
+
+		/**
+		 * Add a value to the sum with Neumaier's compensated summation.
+		 */
+		void add(double value) {
+			double total = sum + value;
+
+			if (Math.abs(sum) >= Math.abs(value)) {
+				compensation += (sum - total) + value;
+			} else {
+				compensation += (value - total) + sum;
+			}
+
+			sum = total;
+		}
+
+		double total() {
+			return sum + compensation;
+		}
+
+		Moments mergeSum(Moments other) {
+			add(other.sum);
+			compensation += other.compensation;
+			return this;
+		}
+
+		Moments merge(Moments other) {
+			if (other.count == 0) {
+				return this;
+			} else if (count == 0) {
+				count = other.count;
+				mean = other.mean;
+				m2 = other.m2;
+				min = other.min;
+				max = other.max;
+				return mergeSum(other);
+			}
+
+			long total = count + other.count;
+			double delta = other.mean - mean;
+
+			mean += delta * other.count / total;
+			m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+			count = total;
+
+			return mergeSum(other);
+		}
+
+		NumberStatistics toStatistics() {
+			return new NumberStatistics(count, total(), min, max, count == 0 ? Double.NaN : mean, m2);
+		}
+	}
+
+	private static final class ReduceTask<R> extends RecursiveTask<R> {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final Range<R> range;
+		private final BinaryOperator<R> merge;
+
+		ReduceTask(int from, int to, int chunk, Range<R> range, BinaryOperator<R> merge) {
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.range = range;
+			this.merge = merge;
+		}
+
+		@Override
+		protected R compute() {
+			if (to - from <= chunk) {
+				return range.apply(from, to);
+			}
+
+			int middle = (from + to) >>> 1;
+			ReduceTask<R> right = new ReduceTask<>(middle, to, chunk, range, merge);
+			right.fork();
+
+			R left = new ReduceTask<>(from, middle, chunk, range, merge).compute();
+			return merge.apply(left, right.join());
+		}
+	}
+
+	private static final class ForEachTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final RangeAction action;
+
+		ForEachTask(int from, int to, int chunk, RangeAction action) {
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunk) {
+				action.apply(from, to);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new ForEachTask(from, middle, chunk, action), new ForEachTask(middle, to, chunk, action));
+		}
+	}
+}
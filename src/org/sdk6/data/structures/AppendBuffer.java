@@ -0,0 +1,194 @@
+package org.sdk6.data.structures;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Multi producer append buffer of the concurrent lists. Elements are stored in
+ * a chain of growing chunks, producers reserve slots with an atomic increment
+ * on the tail chunk so appends never lock. Consumers drain from the head under
+ * a lock which producers never take.
+ */
+final class AppendBuffer<T> {
+	private static final int FIRST_CHUNK = 256;
+	private static final int MAX_CHUNK = 1 << 16;
+
+	private final AtomicReference<Chunk<T>> tail;
+	private final LongAdder added = new LongAdder();
+	private final Object drainLock = new Object();
+	private volatile Cursor<T> head; // first element not drained yet.
+	private volatile long drained;
+
+	AppendBuffer() {
+		Chunk<T> first = new Chunk<>(FIRST_CHUNK);
+		tail = new AtomicReference<>(first);
+		head = new Cursor<>(first, 0);
+	}
+
+	/**
+	 * Append an element.
+	 *
+	 * @param item The element, not null.
+	 */
+	void add(T item) {
+		Objects.requireNonNull(item);
+
+		for (Chunk<T> chunk = tail.get();; chunk = next(chunk)) {
+			int slot = chunk.reserved.getAndIncrement();
+
+			if (slot < chunk.capacity()) {
+				chunk.items.set(slot, item);
+				added.increment();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Append elements, a single reservation is made in each chunk they span.
+	 *
+	 * @param items The elements, none of them null.
+	 */
+	void add(T[] items) {
+		for (T item : items) {
+			Objects.requireNonNull(item);
+		}
+
+		Chunk<T> chunk = tail.get();
+
+		for (int offset = 0; offset < items.length;) {
+			int wanted = Math.min(items.length - offset, chunk.capacity());
+			int slot = chunk.reserved.getAndAdd(wanted);
+			int count = Math.min(chunk.capacity() - slot, wanted);
+
+			for (int i = 0; i < count; i++) {
+				chunk.items.set(slot + i, items[offset + i]);
+			}
+
+			if (count < wanted) {
+				chunk = next(chunk); // chunk is full.
+			}
+
+			offset += Math.max(count, 0);
+		}
+
+		added.add(items.length);
+	}
+
+	/**
+	 * Get the number of elements added and not drained, exact when no other
+	 * thread is changing the buffer.
+	 *
+	 * @return The number of elements.
+	 */
+	int size() {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(0, added.sum() - drained));
+	}
+
+	/**
+	 * Visit the elements in the buffer, every element added before the call and
+	 * not drained before the call is visited. Slots reserved by an add which is
+	 * still writing are waited for.
+	 *
+	 * @param action Receives each element.
+	 */
+	void forEach(Consumer<? super T> action) {
+		Cursor<T> start = head;
+		int from = start.offset;
+
+		for (Chunk<T> chunk = start.chunk; chunk != null; chunk = chunk.next.get(), from = 0) {
+			int end = Math.min(chunk.reserved.get(), chunk.capacity());
+
+			for (int i = from; i < end; i++) {
+				T item;
+
+				while ((item = chunk.items.get(i)) == null) {
+					Thread.onSpinWait(); // producer reserved the slot but didn't write it yet.
+				}
+
+				action.accept(item);
+			}
+		}
+	}
+
+	/**
+	 * Remove elements from the head of the buffer in the order they were added.
+	 * Draining stops early at a slot which is still being written.
+	 *
+	 * @param target Receives each removed element.
+	 * @param max    Maximum number of elements to remove.
+	 * @return The number of removed elements.
+	 */
+	int drain(Consumer<? super T> target, int max) {
+		synchronized (drainLock) {
+			Chunk<T> chunk = head.chunk;
+			int offset = head.offset;
+			int count = 0;
+
+			try {
+				while (count < max) {
+					if (offset < Math.min(chunk.reserved.get(), chunk.capacity())) {
+						T item = chunk.items.get(offset);
+						if (item == null) {
+							break;
+						}
+
+						target.accept(item);
+						offset++;
+						count++;
+					} else if (offset == chunk.capacity() && chunk.next.get() != null) {
+						chunk = chunk.next.get(); // drained chunks become garbage.
+						offset = 0;
+					} else {
+						break;
+					}
+				}
+			} finally {
+				head = new Cursor<>(chunk, offset);
+				drained += count;
+			}
+
+			return count;
+		}
+	}
+
+	private Chunk<T> next(Chunk<T> chunk) {
+		Chunk<T> next = chunk.next.get();
+
+		if (next == null) {
+			Chunk<T> created = new Chunk<>(Math.min(chunk.capacity() << 1, MAX_CHUNK));
+			next = chunk.next.compareAndSet(null, created) ? created : chunk.next.get();
+		}
+
+		tail.compareAndSet(chunk, next);
+		return next;
+	}
+
+	private static final class Chunk<T> {
+		final AtomicReferenceArray<T> items;
+		final AtomicInteger reserved = new AtomicInteger(); // may pass the capacity when the chunk is full.
+		final AtomicReference<Chunk<T>> next = new AtomicReference<>();
+
+		Chunk(int capacity) {
+			items = new AtomicReferenceArray<>(capacity);
+		}
+
+		int capacity() {
+			return items.length();
+		}
+	}
+
+	private static final class Cursor<T> {
+		final Chunk<T> chunk;
+		final int offset;
+
+		Cursor(Chunk<T> chunk, int offset) {
+			this.chunk = chunk;
+			this.offset = offset;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package org.sdk6.data.structures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Number list for many producer threads, adds never lock and reads work on a
+ * snapshot of the elements. Consumers take elements out in the order they
+ * were added with {@link #drainTo(NumberList)}.
+ */
+public class ConcurrentNumberList<E extends Number> implements Iterable<E> {
+	private final AppendBuffer<E> buffer = new AppendBuffer<>();
+
+	/**
+	 * Add new item to the list.
+	 * 
+	 * @param value New number value to add, not null.
+	 * @return The current list object.
+	 */
+	public ConcurrentNumberList<E> add(E value) {
+		buffer.add(value);
+		return this;
+	}
+
+	/**
+	 * Add new number array to the list, elements of the array are stored next
+	 * to each other unless the array spans more than one buffer chunk.
+	 * 
+	 * @param numbers The array want to add to the list, no number may be null.
+	 * @return The current list object.
+	 */
+	public ConcurrentNumberList<E> add(E[] numbers) {
+		buffer.add(numbers.clone()); // the caller may change the array while it is copied.
+		return this;
+	}
+
+	/**
+	 * Get the number of list elements, exact when no other thread is adding or
+	 * draining.
+	 * 
+	 * @return The list size.
+	 */
+	public int size() {
+		return buffer.size();
+	}
+
+	/**
+	 * Check the list if is empty or not.
+	 * 
+	 * @return True if is empty and false if not.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Copy current elements to a new list, the copy has every element added
+	 * before the call and not drained before the call.
+	 * 
+	 * @return The copied list.
+	 */
+	public NumberList<E> snapshot() {
+		NumberList<E> copy = new NumberList<>();
+		buffer.forEach(copy::add);
+		return copy;
+	}
+
+	/**
+	 * Converts current elements to a numbers array.
+	 * 
+	 * @return The converted list to array.
+	 */
+	public Number[] toArray() {
+		ArrayList<Number> numbers = new ArrayList<>(size());
+		buffer.forEach(numbers::add);
+		return numbers.toArray(new Number[0]);
+	}
+
+	/**
+	 * Move all available elements to another list.
+	 * 
+	 * @param target The list which receives the elements.
+	 * @return Number of moved elements.
+	 */
+	public int drainTo(NumberList<?> target) {
+		return buffer.drain(target::add, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Move available elements to a collection.
+	 * 
+	 * @param target The collection which receives the elements.
+	 * @param max    Maximum number of elements to move.
+	 * @return Number of moved elements.
+	 */
+	public int drainTo(Collection<? super E> target, int max) {
+		return buffer.drain(target::add, max);
+	}
+
+	/**
+	 * Enable iteration through a snapshot of the elements, changes after the
+	 * call are not visible.
+	 * 
+	 * @return The iterator access to move from each element to next.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return snapshot().iterator();
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+}
@@ -0,0 +1,655 @@
+package org.sdk6.data.structures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+import org.sdk6.data.types.ParsedNumber;
+import org.sdk6.data.types.Strings;
+
+/**
+ * Number list which keeps elements in a growable double array instead of boxed
+ * Double objects.
+ */
+public class DoubleList extends PrimitiveList<Double> {
+
+	private double[] values;
+	private transient LongHashSet unique; // index of elements when duplicates are not allowed.
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor of double list, default duplicates are allowed.
+	 */
+	public DoubleList() {
+		this(true);
+	}
+
+	/**
+	 * Constructor of double list.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	public DoubleList(boolean duplicates) {
+		super(duplicates);
+		values = new double[10];
+	}
+
+	/**
+	 * Get an element by it's position in list.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	/**
+	 * Get an element by it's position in list without boxing.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	public double getDouble(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/**
+	 * Change element value in the specified position.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	@Override
+	public void set(Number value, int index) {
+		set(value.doubleValue(), index);
+	}
+
+	/**
+	 * Change element value in the specified position.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	public void set(double value, int index) {
+		checkIndex(index);
+
+		if (!isDuplicates() && Double.doubleToLongBits(values[index]) != Double.doubleToLongBits(value)) {
+			if (!unique().add(Double.doubleToLongBits(value))) {
+				return; // value already exists in the list.
+			}
+
+			unique.remove(Double.doubleToLongBits(values[index]));
+		}
+
+		values[index] = value;
+		modCount++;
+	}
+
+	/**
+	 * Converts the list to a double array.
+	 *
+	 * @return The converted list to array.
+	 */
+	public double[] toDoubleArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Check the list for specific value.
+	 *
+	 * @param value The element want to search in list.
+	 * @return True if exists and false if not.
+	 */
+	public boolean contains(double value) {
+		if (!isDuplicates()) {
+			return unique().contains(Double.doubleToLongBits(value));
+		}
+
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Count duplicate elements in the list by key.
+	 *
+	 * @param key The key want to search in the list.
+	 * @return Number of duplicate elements.
+	 */
+	@Override
+	public int countDuplicates(String key) {
+		ParsedNumber parsed = new ParsedNumber();
+		if (!new Strings().tryParseDouble(key, parsed)) {
+			return 0;
+		}
+
+		double number = parsed.getDouble();
+		int count = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] == number) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
+	 *
+	 * @return True if clear was successful and false if not.
+	 */
+	@Override
+	public boolean eraseDuplicates() {
+		LongHashSet seen = new LongHashSet(size);
+		int length = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (seen.add(Double.doubleToLongBits(values[i]))) {
+				values[length++] = values[i];
+			}
+		}
+
+		size = length;
+		unique = isDuplicates() ? null : seen;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Add new number to the list.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	@Override
+	public DoubleList add(Number value) {
+		return add(value.doubleValue());
+	}
+
+	/**
+	 * Add new number to the list.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	public DoubleList add(double value) {
+		ensureCapacity(size + 1);
+		append(value);
+
+		return this;
+	}
+
+	/**
+	 * Add new number array to the list.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	@Override
+	public DoubleList add(Number[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		for (Number number : numbers) {
+			append(number.doubleValue());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add new int array to the list.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	public DoubleList add(double[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		if (isDuplicates()) {
+			System.arraycopy(numbers, 0, values, size, numbers.length);
+			size += numbers.length;
+			modCount++;
+		} else {
+			for (double number : numbers) {
+				append(number);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add another list to current list with all it's elements.
+	 *
+	 * @param list The second list want to add to this list.
+	 * @return The current list object.
+	 */
+	@Override
+	public DoubleList addAll(NumberList<Double> list) {
+		if (list instanceof DoubleList) {
+			DoubleList other = (DoubleList) list;
+			return add(Arrays.copyOf(other.values, other.size));
+		}
+
+		return add(list.toArray());
+	}
+
+	/**
+	 * Sort list in ascending order, with a radix sort or in parallel for lists
+	 * bigger than the parallel threshold.
+	 */
+	@Override
+	public void sort() {
+		Sorting.sort(values, size, getParallelThreshold());
+		modCount++;
+	}
+
+	/**
+	 * Sort list with a comparator, equal elements keep their order.
+	 *
+	 * @param comparator The order of elements.
+	 */
+	@Override
+	public void sort(Comparator<? super Double> comparator) {
+		Double[] boxed = new Double[size];
+		for (int i = 0; i < size; i++) {
+			boxed[i] = values[i];
+		}
+
+		Sorting.sort(boxed, comparator, getParallelThreshold());
+
+		for (int i = 0; i < size; i++) {
+			values[i] = boxed[i];
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	@Override
+	public int indexOf(Number value) {
+		if (value == null) {
+			return -1;
+		}
+
+		return indexOf(value.doubleValue());
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	public int indexOf(double value) {
+		long bits = Double.doubleToLongBits(value); // same equality as Double.equals
+
+		if (!isDuplicates() && !unique().contains(bits)) {
+			return -1;
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (Double.doubleToLongBits(values[i]) == bits) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Sum all elements in the list.
+	 *
+	 * @return Sum of all elements calculated from list.
+	 */
+	@Override
+	public double sum() {
+		return Aggregates.sum(values, size, getParallelThreshold(), isCompensated());
+	}
+
+	/**
+	 * Get count, sum, smallest, biggest, mean and variance of the list elements
+	 * in a single pass.
+	 *
+	 * @return Statistics of the list elements.
+	 */
+	@Override
+	public NumberStatistics statistics() {
+		return Aggregates.statistics(values, size, getParallelThreshold(), isCompensated());
+	}
+
+	/**
+	 * Get only even numbers from the list.
+	 *
+	 * @return Even numbers in the list.
+	 */
+	@Override
+	public Number[] getEvens() {
+		List<Number> evens = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if ((long) values[i] % 2 == 0) {
+				evens.add(values[i]);
+			}
+		}
+
+		return evens.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only odd numbers from the list.
+	 *
+	 * @return Odd numbers in the list.
+	 */
+	@Override
+	public Number[] getOdds() {
+		List<Number> odds = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if ((long) values[i] % 2 != 0) {
+				odds.add(values[i]);
+			}
+		}
+
+		return odds.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only prime numbers from the list.
+	 *
+	 * @return Prime numbers in the list.
+	 */
+	@Override
+	public Number[] getPrimes() {
+		List<Number> primes = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPrime(values[i])) {
+				primes.add(values[i]);
+			}
+		}
+
+		return primes.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only perfect numbers from the list.
+	 *
+	 * @return Perfect numbers in the list.
+	 */
+	@Override
+	public Number[] getPerfects() {
+		List<Number> perfects = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPerfect(values[i])) {
+				perfects.add(values[i]);
+			}
+		}
+
+		return perfects.toArray(new Number[0]);
+	}
+
+	/**
+	 * Power all list numbers to specific number.
+	 *
+	 * @param value The specific value to power all list elements.
+	 */
+	@Override
+	public void pow(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = Math.pow(values[i], value);
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Sum all list numbers to specific number.
+	 *
+	 * @param value The specific value to sum all list elements.
+	 */
+	@Override
+	public void sum(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] += value;
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Reverse all list elements.
+	 */
+	@Override
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			double temp = values[i];
+			values[i] = values[j];
+			values[j] = temp;
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get biggest element from the list.
+	 *
+	 * @return The biggest element in the list.
+	 */
+	@Override
+	public Double getBiggest() {
+		return values[getBiggestIndex()];
+	}
+
+	/**
+	 * Get smallest element from the list.
+	 *
+	 * @return The smallest element in the list.
+	 */
+	@Override
+	public Double getSmallest() {
+		return values[getSmallestIndex()];
+	}
+
+	/**
+	 * Enable list iteration through each element without boxing, each iterator
+	 * has it's own position and fails with ConcurrentModificationException if
+	 * the list is changed during iteration.
+	 *
+	 * @return The iterator access to move from each element to next.
+	 */
+	@Override
+	public PrimitiveIterator.OfDouble iterator() {
+		return new Elements();
+	}
+
+	/**
+	 * Create a sized spliterator over list elements without boxing, it splits
+	 * in halves so parallel streams divide the work evenly.
+	 *
+	 * @return The spliterator of list elements.
+	 */
+	@Override
+	public Spliterator.OfDouble spliterator() {
+		return new Values(0, -1, 0);
+	}
+
+	/**
+	 * Get a sequential stream of list elements without boxing.
+	 *
+	 * @return The stream of list elements.
+	 */
+	public DoubleStream doubleStream() {
+		return StreamSupport.doubleStream(spliterator(), false);
+	}
+
+	@Override
+	double doubleAt(int index) {
+		return values[index];
+	}
+
+	@Override
+	void appendTo(int index, StringBuilder out) {
+		out.append(values[index]);
+	}
+
+	@Override
+	void appendParsed(double value) {
+		add(value);
+	}
+
+	@Override
+	int binaryKind() {
+		return ListBinary.DOUBLES;
+	}
+
+	@Override
+	void writeElements(ListBinary.Output out) throws IOException {
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(values[i]);
+		}
+	}
+
+	@Override
+	DoubleList emptyList() {
+		return new DoubleList();
+	}
+
+	@Override
+	void readValues(ListBinary.Input in) throws IOException {
+		for (int i = 0; i < in.count(); i++) {
+			ensureCapacity(size + 1);
+			append(in.readDouble());
+		}
+	}
+
+	@Override
+	int capacity() {
+		return values.length;
+	}
+
+	@Override
+	void resize(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+	@Override
+	void forgetUnique() {
+		unique = null;
+	}
+
+	@Override
+	void removeAt(int index) {
+		if (unique != null) {
+			unique.remove(Double.doubleToLongBits(values[index]));
+		}
+
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+	}
+
+	@Override
+	int biggestIndex() {
+		return Aggregates.biggestIndex(values, size, getParallelThreshold());
+	}
+
+	@Override
+	int smallestIndex() {
+		return Aggregates.smallestIndex(values, size, getParallelThreshold());
+	}
+
+	/**
+	 * Store a value at the end of the list, skipping values already in the list
+	 * when duplicates are not allowed. Capacity must be ensured by the caller.
+	 */
+	private void append(double value) {
+		if (!isDuplicates() && !unique().add(Double.doubleToLongBits(value))) {
+			return;
+		}
+
+		values[size++] = value;
+		modCount++;
+	}
+
+	private LongHashSet unique() {
+		if (unique == null) {
+			unique = new LongHashSet(size);
+
+			for (int i = 0; i < size; i++) {
+				unique.add(Double.doubleToLongBits(values[i]));
+			}
+		}
+
+		return unique;
+	}
+
+	/**
+	 * Iterator of list elements without boxing.
+	 */
+	private final class Elements extends Cursor implements PrimitiveIterator.OfDouble {
+		@Override
+		public double nextDouble() {
+			return values[nextIndex()];
+		}
+	}
+
+	/**
+	 * Spliterator of list elements without boxing.
+	 */
+	private final class Values extends Positions implements Spliterator.OfDouble {
+		Values(int index, int fence, int expectedModCount) {
+			super(index, fence, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+
+			if (index >= fence()) {
+				return false;
+			}
+
+			action.accept(values[index++]);
+			checkModCount();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(DoubleConsumer action) {
+			Objects.requireNonNull(action);
+
+			double[] elements = values;
+			for (int end = fence(); index < end; index++) {
+				action.accept(elements[index]);
+			}
+
+			checkModCount();
+		}
+
+		@Override
+		public Spliterator.OfDouble trySplit() {
+			int low = index, middle = (low + fence()) >>> 1;
+			return low >= middle ? null : new Values(low, index = middle, expectedModCount);
+		}
+	}
+}
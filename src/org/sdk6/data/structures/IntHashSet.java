@@ -0,0 +1,166 @@
+package org.sdk6.data.structures;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of int values, used as a companion index by
+ * {@link IntList} so membership checks don't box elements.
+ */
+class IntHashSet {
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private int[] keys;
+	private boolean[] used;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+	/**
+	 * Constructor of int hash set.
+	 *
+	 * @param expected Number of elements expected to be added.
+	 */
+	IntHashSet(int expected) {
+		allocate(capacityFor(expected));
+	}
+
+	/**
+	 * Add a value to the set.
+	 *
+	 * @param value The value to add.
+	 * @return True if the value was added and false if it already exists.
+	 */
+	boolean add(int value) {
+		int slot = mix(value) & mask;
+
+		while (used[slot]) {
+			if (keys[slot] == value) {
+				return false;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = value;
+		used[slot] = true;
+
+		if (++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Check the set for specific value.
+	 *
+	 * @param value The value want to search.
+	 * @return True if exists and false if not.
+	 */
+	boolean contains(int value) {
+		int slot = mix(value) & mask;
+
+		while (used[slot]) {
+			if (keys[slot] == value) {
+				return true;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Remove a value from the set.
+	 *
+	 * @param value The value want to remove.
+	 * @return True if remove was successful and false if not found.
+	 */
+	boolean remove(int value) {
+		int slot = mix(value) & mask;
+
+		while (used[slot]) {
+			if (keys[slot] == value) {
+				shiftBack(slot);
+				size--;
+				return true;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Clears entire set.
+	 */
+	void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Close the gap left by a removed slot so probe chains stay intact, no
+	 * tombstones are needed.
+	 */
+	private void shiftBack(int gap) {
+		int slot = gap;
+
+		while (true) {
+			slot = (slot + 1) & mask;
+			if (!used[slot]) {
+				break;
+			}
+
+			int home = mix(keys[slot]) & mask;
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) { // entry may move into the gap.
+				keys[gap] = keys[slot];
+				gap = slot;
+			}
+		}
+
+		used[gap] = false;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		boolean[] oldUsed = used;
+
+		allocate(capacity);
+		size = 0;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				add(oldKeys[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int capacityFor(int expected) {
+		int capacity = 16;
+
+		while (capacity * LOAD_FACTOR <= expected) {
+			capacity <<= 1;
+		}
+
+		return capacity;
+	}
+
+	private static int mix(int value) {
+		int h = value * 0x9E3779B9; // fibonacci hashing spreads sequential values.
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,678 @@
+package org.sdk6.data.structures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.sdk6.data.types.ParsedNumber;
+import org.sdk6.data.types.Strings;
+
+/**
+ * Number list which keeps elements in a growable int array instead of boxed
+ * Integer objects. Every value is narrowed to int like a cast, so fractions are
+ * truncated and values out of the int range wrap: add(2.5) stores 2, pow(0.5)
+ * truncates every root and sum(0.4) changes nothing. Use a DoubleList or a
+ * boxed NumberList for fractional values.
+ */
+public class IntList extends PrimitiveList<Integer> {
+
+	private int[] values;
+	private transient IntHashSet unique; // index of elements when duplicates are not allowed.
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor of int list, default duplicates are allowed.
+	 */
+	public IntList() {
+		this(true);
+	}
+
+	/**
+	 * Constructor of int list.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	public IntList(boolean duplicates) {
+		super(duplicates);
+		values = new int[10];
+	}
+
+	/**
+	 * Get an element by it's position in list.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	@Override
+	public Integer get(int index) {
+		return getInt(index);
+	}
+
+	/**
+	 * Get an element by it's position in list without boxing.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	public int getInt(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/**
+	 * Change element value in the specified position, the value is narrowed to
+	 * int like a cast.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	@Override
+	public void set(Number value, int index) {
+		set(value.intValue(), index);
+	}
+
+	/**
+	 * Change element value in the specified position.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	public void set(int value, int index) {
+		checkIndex(index);
+
+		if (!isDuplicates() && values[index] != value) {
+			if (!unique().add(value)) {
+				return; // value already exists in the list.
+			}
+
+			unique.remove(values[index]);
+		}
+
+		values[index] = value;
+		modCount++;
+	}
+
+	/**
+	 * Converts the list to an int array.
+	 *
+	 * @return The converted list to array.
+	 */
+	public int[] toIntArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Check the list for specific value.
+	 *
+	 * @param value The element want to search in list.
+	 * @return True if exists and false if not.
+	 */
+	public boolean contains(int value) {
+		if (!isDuplicates()) {
+			return unique().contains(value);
+		}
+
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Count duplicate elements in the list by key.
+	 *
+	 * @param key The key want to search in the list.
+	 * @return Number of duplicate elements.
+	 */
+	@Override
+	public int countDuplicates(String key) {
+		ParsedNumber parsed = new ParsedNumber();
+		if (!new Strings().tryParseDouble(key, parsed)) {
+			return 0;
+		}
+
+		double number = parsed.getDouble();
+		int count = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] == number) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
+	 *
+	 * @return True if clear was successful and false if not.
+	 */
+	@Override
+	public boolean eraseDuplicates() {
+		IntHashSet seen = new IntHashSet(size);
+		int length = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (seen.add(values[i])) {
+				values[length++] = values[i];
+			}
+		}
+
+		size = length;
+		unique = isDuplicates() ? null : seen;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Add new number to the list, the value is narrowed to int like a cast.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	@Override
+	public IntList add(Number value) {
+		return add(value.intValue());
+	}
+
+	/**
+	 * Add new number to the list.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	public IntList add(int value) {
+		ensureCapacity(size + 1);
+		append(value);
+
+		return this;
+	}
+
+	/**
+	 * Add new number array to the list, the values are narrowed to int like a
+	 * cast.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	@Override
+	public IntList add(Number[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		for (Number number : numbers) {
+			append(number.intValue());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add new int array to the list.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	public IntList add(int[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		if (isDuplicates()) {
+			System.arraycopy(numbers, 0, values, size, numbers.length);
+			size += numbers.length;
+			modCount++;
+		} else {
+			for (int number : numbers) {
+				append(number);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add another list to current list with all it's elements.
+	 *
+	 * @param list The second list want to add to this list.
+	 * @return The current list object.
+	 */
+	@Override
+	public IntList addAll(NumberList<Integer> list) {
+		if (list instanceof IntList) {
+			IntList other = (IntList) list;
+			return add(Arrays.copyOf(other.values, other.size));
+		}
+
+		return add(list.toArray());
+	}
+
+	/**
+	 * Sort list in ascending order, with a radix sort or in parallel for lists
+	 * bigger than the parallel threshold.
+	 */
+	@Override
+	public void sort() {
+		Sorting.sort(values, size, getParallelThreshold());
+		modCount++;
+	}
+
+	/**
+	 * Sort list with a comparator, equal elements keep their order.
+	 *
+	 * @param comparator The order of elements.
+	 */
+	@Override
+	public void sort(Comparator<? super Integer> comparator) {
+		Integer[] boxed = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			boxed[i] = values[i];
+		}
+
+		Sorting.sort(boxed, comparator, getParallelThreshold());
+
+		for (int i = 0; i < size; i++) {
+			values[i] = boxed[i];
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	@Override
+	public int indexOf(Number value) {
+		if (value == null) {
+			return -1;
+		}
+
+		double number = value.doubleValue();
+		if ((int) number != number) { // not representable as int, can't be in the list.
+			return -1;
+		}
+
+		return indexOf((int) number);
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	public int indexOf(int value) {
+		if (!isDuplicates() && !unique().contains(value)) {
+			return -1;
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Sum all elements in the list.
+	 *
+	 * @return Sum of all elements calculated from list.
+	 */
+	@Override
+	public double sum() {
+		return Aggregates.sum(values, size, getParallelThreshold());
+	}
+
+	/**
+	 * Get count, sum, smallest, biggest, mean and variance of the list elements
+	 * in a single pass.
+	 *
+	 * @return Statistics of the list elements.
+	 */
+	@Override
+	public NumberStatistics statistics() {
+		return Aggregates.statistics(values, size, getParallelThreshold());
+	}
+
+	/**
+	 * Get only even numbers from the list.
+	 *
+	 * @return Even numbers in the list.
+	 */
+	@Override
+	public Number[] getEvens() {
+		List<Number> evens = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] % 2 == 0) {
+				evens.add(values[i]);
+			}
+		}
+
+		return evens.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only odd numbers from the list.
+	 *
+	 * @return Odd numbers in the list.
+	 */
+	@Override
+	public Number[] getOdds() {
+		List<Number> odds = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] % 2 != 0) {
+				odds.add(values[i]);
+			}
+		}
+
+		return odds.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only prime numbers from the list.
+	 *
+	 * @return Prime numbers in the list.
+	 */
+	@Override
+	public Number[] getPrimes() {
+		List<Number> primes = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPrime(values[i])) {
+				primes.add(values[i]);
+			}
+		}
+
+		return primes.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only perfect numbers from the list.
+	 *
+	 * @return Perfect numbers in the list.
+	 */
+	@Override
+	public Number[] getPerfects() {
+		List<Number> perfects = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPerfect(values[i])) {
+				perfects.add(values[i]);
+			}
+		}
+
+		return perfects.toArray(new Number[0]);
+	}
+
+	/**
+	 * Power all list numbers to specific number, the results are truncated to
+	 * int.
+	 *
+	 * @param value The specific value to power all list elements.
+	 */
+	@Override
+	public void pow(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = (int) Math.pow(values[i], value);
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Sum all list numbers to specific number, the results are truncated to
+	 * int.
+	 *
+	 * @param value The specific value to sum all list elements.
+	 */
+	@Override
+	public void sum(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = (int) (values[i] + value);
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Reverse all list elements.
+	 */
+	@Override
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			int temp = values[i];
+			values[i] = values[j];
+			values[j] = temp;
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get biggest element from the list.
+	 *
+	 * @return The biggest element in the list.
+	 */
+	@Override
+	public Integer getBiggest() {
+		return values[getBiggestIndex()];
+	}
+
+	/**
+	 * Get smallest element from the list.
+	 *
+	 * @return The smallest element in the list.
+	 */
+	@Override
+	public Integer getSmallest() {
+		return values[getSmallestIndex()];
+	}
+
+	/**
+	 * Enable list iteration through each element without boxing, each iterator
+	 * has it's own position and fails with ConcurrentModificationException if
+	 * the list is changed during iteration.
+	 *
+	 * @return The iterator access to move from each element to next.
+	 */
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new Elements();
+	}
+
+	/**
+	 * Create a sized spliterator over list elements without boxing, it splits
+	 * in halves so parallel streams divide the work evenly.
+	 *
+	 * @return The spliterator of list elements.
+	 */
+	@Override
+	public Spliterator.OfInt spliterator() {
+		return new Values(0, -1, 0);
+	}
+
+	/**
+	 * Get a sequential stream of list elements without boxing.
+	 *
+	 * @return The stream of list elements.
+	 */
+	public IntStream intStream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	@Override
+	double doubleAt(int index) {
+		return values[index];
+	}
+
+	@Override
+	void appendTo(int index, StringBuilder out) {
+		out.append(values[index]);
+	}
+
+	@Override
+	LongConsumer wholeNumbers() {
+		return value -> add((int) value); // values out of the int range wrap like every other value.
+	}
+
+	@Override
+	void appendParsed(double value) {
+		add((int) value); // fractional values in a file are truncated like every other value.
+	}
+
+	@Override
+	int binaryKind() {
+		return ListBinary.INTS;
+	}
+
+	@Override
+	void writeElements(ListBinary.Output out) throws IOException {
+		long previous = 0;
+
+		for (int i = 0; i < size; i++) {
+			out.writeZigZag(values[i] - previous); // sorted or clustered values take one or two bytes.
+			previous = values[i];
+		}
+	}
+
+	@Override
+	IntList emptyList() {
+		return new IntList();
+	}
+
+	@Override
+	void readValues(ListBinary.Input in) throws IOException {
+		long previous = 0;
+
+		for (int i = 0; i < in.count(); i++) {
+			previous += in.readZigZag();
+
+			ensureCapacity(size + 1);
+			append((int) previous);
+		}
+	}
+
+	@Override
+	int capacity() {
+		return values.length;
+	}
+
+	@Override
+	void resize(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+	@Override
+	void forgetUnique() {
+		unique = null;
+	}
+
+	@Override
+	void removeAt(int index) {
+		if (unique != null) {
+			unique.remove(values[index]);
+		}
+
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+	}
+
+	@Override
+	int biggestIndex() {
+		return Aggregates.biggestIndex(values, size, getParallelThreshold());
+	}
+
+	@Override
+	int smallestIndex() {
+		return Aggregates.smallestIndex(values, size, getParallelThreshold());
+	}
+
+	/**
+	 * Store a value at the end of the list, skipping values already in the list
+	 * when duplicates are not allowed. Capacity must be ensured by the caller.
+	 */
+	private void append(int value) {
+		if (!isDuplicates() && !unique().add(value)) {
+			return;
+		}
+
+		values[size++] = value;
+		modCount++;
+	}
+
+	private IntHashSet unique() {
+		if (unique == null) {
+			unique = new IntHashSet(size);
+
+			for (int i = 0; i < size; i++) {
+				unique.add(values[i]);
+			}
+		}
+
+		return unique;
+	}
+
+	/**
+	 * Iterator of list elements without boxing.
+	 */
+	private final class Elements extends Cursor implements PrimitiveIterator.OfInt {
+		@Override
+		public int nextInt() {
+			return values[nextIndex()];
+		}
+	}
+
+	/**
+	 * Spliterator of list elements without boxing.
+	 */
+	private final class Values extends Positions implements Spliterator.OfInt {
+		Values(int index, int fence, int expectedModCount) {
+			super(index, fence, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			Objects.requireNonNull(action);
+
+			if (index >= fence()) {
+				return false;
+			}
+
+			action.accept(values[index++]);
+			checkModCount();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer action) {
+			Objects.requireNonNull(action);
+
+			int[] elements = values;
+			for (int end = fence(); index < end; index++) {
+				action.accept(elements[index]);
+			}
+
+			checkModCount();
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			int low = index, middle = (low + fence()) >>> 1;
+			return low >= middle ? null : new Values(low, index = middle, expectedModCount);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+package org.sdk6.data.structures;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary file format of the lists, files are read and written through
+ * a FileChannel with a direct buffer.
+ *
+ * <pre>
+ * magic "SDKL" | version | kind | flags | count (varint) | elements | CRC32 (optional)
+ * </pre>
+ *
+ * Int and long lists are stored as zigzag varint deltas, double lists as raw
+ * IEEE 754 values, boxed number lists as tagged values and string lists as
+ * length prefixed UTF-8, with a dictionary when most values repeat.
+ */
+final class ListBinary {
+	static final int MAGIC = 0x53444B4C; // "SDKL"
+	static final int VERSION = 1;
+
+	static final int NUMBERS = 0;
+	static final int INTS = 1;
+	static final int LONGS = 2;
+	static final int DOUBLES = 3;
+	static final int STRINGS = 4;
+	static final int STRINGS_DICTIONARY = 5;
+
+	// element tags of boxed number lists.
+	static final int TAG_INTEGER = 'I';
+	static final int TAG_LONG = 'L';
+	static final int TAG_DOUBLE = 'D';
+	static final int TAG_FLOAT = 'F';
+	static final int TAG_SHORT = 'S';
+	static final int TAG_BYTE = 'B';
+	static final int TAG_BIG_INTEGER = 'G';
+	static final int TAG_BIG_DECIMAL = 'M';
+	static final int TAG_NULL = 'N';
+
+	private static final int FLAG_CHECKSUM = 1;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private ListBinary() {
+	}
+
+	/**
+	 * Writes a list file, the header is written on creation and the checksum on
+	 * close.
+	 */
+	static final class Output implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CRC32 crc;
+
+		Output(Path path, int kind, int count, boolean checksum) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.WRITE);
+			crc = checksum ? new CRC32() : null;
+
+			buffer.putInt(MAGIC).put((byte) VERSION).put((byte) kind).put((byte) (checksum ? FLAG_CHECKSUM : 0));
+			writeVarLong(count);
+		}
+
+		void writeByte(int value) throws IOException {
+			ensure(1);
+			buffer.put((byte) value);
+		}
+
+		void writeVarLong(long value) throws IOException {
+			ensure(10);
+
+			while ((value & ~0x7FL) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+
+			buffer.put((byte) value);
+		}
+
+		void writeZigZag(long value) throws IOException {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		void writeDouble(double value) throws IOException {
+			ensure(8);
+			buffer.putDouble(value);
+		}
+
+		void writeFloat(float value) throws IOException {
+			ensure(4);
+			buffer.putFloat(value);
+		}
+
+		/**
+		 * Write a length prefixed byte array, null is written as length 0.
+		 */
+		void writeBytes(byte[] bytes) throws IOException {
+			if (bytes == null) {
+				writeVarLong(0);
+				return;
+			}
+
+			writeVarLong(bytes.length + 1L);
+
+			for (int offset = 0; offset < bytes.length;) {
+				ensure(1);
+
+				int count = Math.min(buffer.remaining(), bytes.length - offset);
+				buffer.put(bytes, offset, count);
+				offset += count;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+
+				if (crc != null) {
+					buffer.putInt((int) crc.getValue());
+					buffer.flip();
+
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+				}
+			} finally {
+				channel.close();
+			}
+		}
+
+		private void ensure(int count) throws IOException {
+			if (buffer.remaining() < count) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+
+			if (crc != null) {
+				crc.update(buffer.duplicate());
+			}
+
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Reads a list file, the header is validated on creation and the checksum by
+	 * {@link #verify()}.
+	 */
+	static final class Input implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CRC32 crc = new CRC32();
+		private final boolean checksum;
+		private final int kind;
+		private final int count;
+		private int checked; // buffer position up to which bytes are added to the checksum.
+		private byte[] scratch = new byte[256];
+
+		Input(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			buffer.flip(); // start empty.
+
+			try {
+				ensure(7);
+
+				if (buffer.getInt() != MAGIC) {
+					throw new IOException("File is not a list binary file");
+				}
+
+				int version = buffer.get();
+				if (version != VERSION) {
+					throw new IOException("Unsupported list binary version " + version);
+				}
+
+				kind = buffer.get();
+				checksum = (buffer.get() & FLAG_CHECKSUM) != 0;
+
+				long elements = readVarLong();
+				if (elements < 0 || elements > Integer.MAX_VALUE) {
+					throw new IOException("Invalid element count " + elements);
+				}
+
+				count = (int) elements;
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		int kind() {
+			return kind;
+		}
+
+		int count() {
+			return count;
+		}
+
+		int readByte() throws IOException {
+			ensure(1);
+			return buffer.get() & 0xFF;
+		}
+
+		long readVarLong() throws IOException {
+			long value = 0;
+
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+
+			throw new IOException("Malformed varint");
+		}
+
+		long readZigZag() throws IOException {
+			long value = readVarLong();
+			return (value >>> 1) ^ -(value & 1);
+		}
+
+		double readDouble() throws IOException {
+			ensure(8);
+			return buffer.getDouble();
+		}
+
+		float readFloat() throws IOException {
+			ensure(4);
+			return buffer.getFloat();
+		}
+
+		/**
+		 * Read a length prefixed byte array into a shared scratch array.
+		 *
+		 * @return The number of bytes read or -1 for null.
+		 */
+		int readBytes() throws IOException {
+			long length = readVarLong() - 1;
+
+			if (length < 0) {
+				return -1;
+			} else if (length > Integer.MAX_VALUE - 8) {
+				throw new IOException("Invalid length " + length);
+			}
+
+			for (int offset = 0; offset < length;) {
+				ensure(1);
+
+				int part = Math.min(buffer.remaining(), (int) length - offset);
+
+				// length is not trusted for allocation, grow with the bytes actually read.
+				if (scratch.length < offset + part) {
+					scratch = Arrays.copyOf(scratch, (int) Math.min(length, Math.max(2L * scratch.length, offset + part)));
+				}
+
+				buffer.get(scratch, offset, part);
+				offset += part;
+			}
+
+			return (int) length;
+		}
+
+		byte[] scratch() {
+			return scratch;
+		}
+
+		/**
+		 * Read a length prefixed byte array into a new array.
+		 *
+		 * @return The bytes or null.
+		 */
+		byte[] readByteArray() throws IOException {
+			int length = readBytes();
+			return length < 0 ? null : Arrays.copyOf(scratch, length);
+		}
+
+		/**
+		 * Check the checksum at the end of the file, if the file has one.
+		 *
+		 * @throws IOException If the content doesn't match the checksum.
+		 */
+		void verify() throws IOException {
+			if (!checksum) {
+				return;
+			}
+
+			updateChecksum();
+			long expected = crc.getValue();
+
+			ensure(4);
+			if (buffer.getInt() != (int) expected) {
+				throw new IOException("List binary file checksum mismatch");
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+		private void ensure(int count) throws IOException {
+			if (buffer.remaining() >= count) {
+				return;
+			}
+
+			updateChecksum();
+			buffer.compact();
+			checked = 0;
+
+			while (buffer.position() < count) {
+				if (channel.read(buffer) < 0) {
+					throw new EOFException("Unexpected end of list binary file");
+				}
+			}
+
+			buffer.flip();
+		}
+
+		private void updateChecksum() {
+			if (checked < buffer.position()) {
+				ByteBuffer consumed = buffer.duplicate();
+				consumed.limit(buffer.position()).position(checked);
+
+				crc.update(consumed);
+				checked = buffer.position();
+			}
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package org.sdk6.data.structures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+import org.sdk6.data.types.ParsedNumber;
+import org.sdk6.data.types.Strings;
+
+/**
+ * Streaming file reader and writer used by the lists, files are read through
+ * memory mapped windows and written through a reusable encoder so memory stays
+ * bounded regardless of the file size.
+ */
+final class ListFiles {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private static final OpenOption[] WRITE = { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+			StandardOpenOption.WRITE };
+	private static final OpenOption[] APPEND = { StandardOpenOption.WRITE, StandardOpenOption.APPEND };
+
+	/**
+	 * Writes one list element to the output.
+	 */
+	interface ItemWriter {
+		void append(int index, StringBuilder out);
+	}
+
+	private ListFiles() {
+	}
+
+	/**
+	 * Write list elements to a file.
+	 *
+	 * @param path      The file path.
+	 * @param size      Number of elements to write.
+	 * @param separator The separator to separate elements in the file, may be
+	 *                  null.
+	 * @param append    Append to the end of an existing file or replace it.
+	 * @param items     Writes each element.
+	 * @throws IOException If the file can't be written.
+	 */
+	static void write(Path path, int size, String separator, boolean append, ItemWriter items) throws IOException {
+		CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+		CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+		ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		try (FileChannel channel = FileChannel.open(path, append ? APPEND : WRITE)) {
+			for (int i = 0; i < size; i++) {
+				items.append(i, sb);
+
+				if (separator != null && (i + 1) < size) {
+					sb.append(separator);
+				}
+
+				if (sb.length() >= BUFFER_SIZE) {
+					encode(sb, chars, bytes, encoder, channel);
+				}
+			}
+
+			encode(sb, chars, bytes, encoder, channel);
+
+			chars.flip();
+			encode(chars, bytes, encoder, channel, true);
+			while (encoder.flush(bytes).isOverflow()) {
+				drain(bytes, channel);
+			}
+
+			drain(bytes, channel);
+		}
+	}
+
+	/**
+	 * Read numbers from a file, one number in each line. Numbers are parsed
+	 * directly from the mapped bytes without creating strings, whole numbers in
+	 * the long range are passed exactly since a double loses precision above
+	 * 2^53.
+	 *
+	 * @param path         The file path.
+	 * @param validNumber  Skip invalid lines, false throws NumberFormatException.
+	 * @param wholeNumbers Receives each whole number in the long range, null
+	 *                     passes them to numbers.
+	 * @param numbers      Receives every other number.
+	 * @throws IOException If the file can't be read.
+	 */
+	static void readNumbers(Path path, boolean validNumber, LongConsumer wholeNumbers, DoubleConsumer numbers)
+			throws IOException {
+		NumberScanner scanner = new NumberScanner();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			long window = WINDOW_SIZE;
+			boolean skipLineFeed = false; // previous line ended with \r.
+
+			while (position < size) {
+				int length = (int) Math.min(window, size - position);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				int start = 0;
+
+				for (int i = 0; i < length; i++) {
+					byte b = buffer.get(i);
+
+					if (skipLineFeed) {
+						skipLineFeed = false;
+
+						if (b == '\n') {
+							start = i + 1;
+							continue;
+						}
+					}
+
+					if (b == '\n' || b == '\r') {
+						scanner.accept(buffer, start, i, validNumber, wholeNumbers, numbers);
+
+						start = i + 1;
+						skipLineFeed = b == '\r';
+					}
+				}
+
+				if (position + length == size) {
+					if (start < length) {
+						scanner.accept(buffer, start, length, validNumber, wholeNumbers, numbers); // last line without separator.
+					}
+
+					break;
+				}
+
+				if (start == 0) {
+					window = Math.min(window * 2, Integer.MAX_VALUE); // line is longer than the window.
+				} else {
+					position += start;
+				}
+			}
+		}
+	}
+
+	private static void encode(StringBuilder sb, CharBuffer chars, ByteBuffer bytes, CharsetEncoder encoder,
+			FileChannel channel) throws IOException {
+		int offset = 0;
+
+		while (offset < sb.length()) {
+			int count = Math.min(chars.remaining(), sb.length() - offset);
+
+			sb.getChars(offset, offset + count, chars.array(), chars.arrayOffset() + chars.position());
+			chars.position(chars.position() + count);
+			offset += count;
+
+			chars.flip();
+			encode(chars, bytes, encoder, channel, false);
+			chars.compact(); // keeps a split surrogate pair for the next round.
+		}
+
+		sb.setLength(0);
+	}
+
+	private static void encode(CharBuffer chars, ByteBuffer bytes, CharsetEncoder encoder, FileChannel channel,
+			boolean endOfInput) throws IOException {
+		while (true) {
+			CoderResult result = encoder.encode(chars, bytes, endOfInput);
+
+			if (result.isOverflow()) {
+				drain(bytes, channel);
+			} else if (result.isError()) {
+				result.throwException();
+			} else {
+				return;
+			}
+		}
+	}
+
+	private static void drain(ByteBuffer bytes, FileChannel channel) throws IOException {
+		bytes.flip();
+
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+
+		bytes.clear();
+	}
+
+	/**
+	 * Parses numbers from bytes with the lexer of Strings.tryParseLong and
+	 * Strings.tryParseDouble, whole numbers with the rules of Long.parseLong and
+	 * the rest with the rules of Double.parseDouble. Lines are read through a
+	 * reused view of the mapped bytes, so simple values are converted without
+	 * allocation.
+	 */
+	private static final class NumberScanner {
+		private final Strings strings = new Strings();
+		private final ParsedNumber parsed = new ParsedNumber();
+		private final Line line = new Line();
+
+		void accept(ByteBuffer buffer, int from, int to, boolean validNumber, LongConsumer wholeNumbers,
+				DoubleConsumer numbers) {
+			int start = from, end = to;
+
+			while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+				start++;
+			}
+
+			while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+				end--;
+			}
+
+			line.wrap(buffer, start, end);
+
+			if (wholeNumbers != null && strings.tryParseLong(line, parsed)) {
+				wholeNumbers.accept(parsed.getLong());
+			} else if (strings.tryParseDouble(line, parsed)) {
+				numbers.accept(parsed.getDouble());
+			} else if (!validNumber) {
+				throw new NumberFormatException("For input string: \"" + line.wrap(buffer, from, to) + "\"");
+			}
+		}
+	}
+
+	/**
+	 * Characters of a line in the mapped bytes, each byte is one character.
+	 */
+	private static final class Line implements CharSequence {
+		private ByteBuffer buffer;
+		private int from;
+		private int to;
+
+		Line wrap(ByteBuffer buffer, int from, int to) {
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return to - from;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (buffer.get(from + index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[length()];
+
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(from + i);
+			}
+
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
@@ -0,0 +1,688 @@
+package org.sdk6.data.structures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import org.sdk6.data.types.ParsedNumber;
+import org.sdk6.data.types.Strings;
+
+/**
+ * Number list which keeps elements in a growable long array instead of boxed
+ * Long objects. Every value is narrowed to long like a cast, so fractions are
+ * truncated and values out of the long range wrap: add(2.5) stores 2, pow(0.5)
+ * truncates every root and sum(0.4) changes nothing. Use a DoubleList or a
+ * boxed NumberList for fractional values.
+ */
+public class LongList extends PrimitiveList<Long> {
+
+	private long[] values;
+	private transient LongHashSet unique; // index of elements when duplicates are not allowed.
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor of long list, default duplicates are allowed.
+	 */
+	public LongList() {
+		this(true);
+	}
+
+	/**
+	 * Constructor of long list.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	public LongList(boolean duplicates) {
+		super(duplicates);
+		values = new long[10];
+	}
+
+	/**
+	 * Get an element by it's position in list.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	/**
+	 * Get an element by it's position in list without boxing.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	public long getLong(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/**
+	 * Change element value in the specified position, the value is narrowed to
+	 * long like a cast.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	@Override
+	public void set(Number value, int index) {
+		set(value.longValue(), index);
+	}
+
+	/**
+	 * Change element value in the specified position.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 */
+	public void set(long value, int index) {
+		checkIndex(index);
+
+		if (!isDuplicates() && values[index] != value) {
+			if (!unique().add(value)) {
+				return; // value already exists in the list.
+			}
+
+			unique.remove(values[index]);
+		}
+
+		values[index] = value;
+		modCount++;
+	}
+
+	/**
+	 * Converts the list to a long array.
+	 *
+	 * @return The converted list to array.
+	 */
+	public long[] toLongArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Check the list for specific value.
+	 *
+	 * @param value The element want to search in list.
+	 * @return True if exists and false if not.
+	 */
+	public boolean contains(long value) {
+		if (!isDuplicates()) {
+			return unique().contains(value);
+		}
+
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Count duplicate elements in the list by key.
+	 *
+	 * @param key The key want to search in the list.
+	 * @return Number of duplicate elements.
+	 */
+	@Override
+	public int countDuplicates(String key) {
+		ParsedNumber parsed = new ParsedNumber();
+		Strings strings = new Strings();
+		long number;
+
+		if (strings.tryParseLong(key, parsed)) {
+			number = parsed.getLong(); // compared as long, a double is not exact above 2^53.
+		} else if (strings.tryParseDouble(key, parsed) && parsed.getDouble() == (long) parsed.getDouble()
+				&& parsed.getDouble() != 0x1p63) {
+			number = (long) parsed.getDouble(); // whole number like 1e3 or 12.0.
+		} else {
+			return 0; // fractional or out of the long range, can't be in the list.
+		}
+
+		int count = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] == number) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
+	 *
+	 * @return True if clear was successful and false if not.
+	 */
+	@Override
+	public boolean eraseDuplicates() {
+		LongHashSet seen = new LongHashSet(size);
+		int length = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (seen.add(values[i])) {
+				values[length++] = values[i];
+			}
+		}
+
+		size = length;
+		unique = isDuplicates() ? null : seen;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Add new number to the list, the value is narrowed to long like a cast.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	@Override
+	public LongList add(Number value) {
+		return add(value.longValue());
+	}
+
+	/**
+	 * Add new number to the list.
+	 *
+	 * @param value New number value to add.
+	 * @return The current list object.
+	 */
+	public LongList add(long value) {
+		ensureCapacity(size + 1);
+		append(value);
+
+		return this;
+	}
+
+	/**
+	 * Add new number array to the list, the values are narrowed to long like a
+	 * cast.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	@Override
+	public LongList add(Number[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		for (Number number : numbers) {
+			append(number.longValue());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add new int array to the list.
+	 *
+	 * @param numbers The array want to add to the list.
+	 * @return The current list object.
+	 */
+	public LongList add(long[] numbers) {
+		ensureCapacity(size + numbers.length);
+
+		if (isDuplicates()) {
+			System.arraycopy(numbers, 0, values, size, numbers.length);
+			size += numbers.length;
+			modCount++;
+		} else {
+			for (long number : numbers) {
+				append(number);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add another list to current list with all it's elements.
+	 *
+	 * @param list The second list want to add to this list.
+	 * @return The current list object.
+	 */
+	@Override
+	public LongList addAll(NumberList<Long> list) {
+		if (list instanceof LongList) {
+			LongList other = (LongList) list;
+			return add(Arrays.copyOf(other.values, other.size));
+		}
+
+		return add(list.toArray());
+	}
+
+	/**
+	 * Sort list in ascending order, with a radix sort or in parallel for lists
+	 * bigger than the parallel threshold.
+	 */
+	@Override
+	public void sort() {
+		Sorting.sort(values, size, getParallelThreshold());
+		modCount++;
+	}
+
+	/**
+	 * Sort list with a comparator, equal elements keep their order.
+	 *
+	 * @param comparator The order of elements.
+	 */
+	@Override
+	public void sort(Comparator<? super Long> comparator) {
+		Long[] boxed = new Long[size];
+		for (int i = 0; i < size; i++) {
+			boxed[i] = values[i];
+		}
+
+		Sorting.sort(boxed, comparator, getParallelThreshold());
+
+		for (int i = 0; i < size; i++) {
+			values[i] = boxed[i];
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	@Override
+	public int indexOf(Number value) {
+		if (value == null) {
+			return -1;
+		}
+
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return indexOf(value.longValue());
+		}
+
+		double number = value.doubleValue();
+		if ((long) number != number) { // not representable as long, can't be in the list.
+			return -1;
+		}
+
+		return indexOf((long) number);
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param value The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	public int indexOf(long value) {
+		if (!isDuplicates() && !unique().contains(value)) {
+			return -1;
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Sum all elements in the list.
+	 *
+	 * @return Sum of all elements calculated from list.
+	 */
+	@Override
+	public double sum() {
+		return Aggregates.sum(values, size, getParallelThreshold(), isCompensated());
+	}
+
+	/**
+	 * Get count, sum, smallest, biggest, mean and variance of the list elements
+	 * in a single pass.
+	 *
+	 * @return Statistics of the list elements.
+	 */
+	@Override
+	public NumberStatistics statistics() {
+		return Aggregates.statistics(values, size, getParallelThreshold(), isCompensated());
+	}
+
+	/**
+	 * Get only even numbers from the list.
+	 *
+	 * @return Even numbers in the list.
+	 */
+	@Override
+	public Number[] getEvens() {
+		List<Number> evens = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] % 2 == 0) {
+				evens.add(values[i]);
+			}
+		}
+
+		return evens.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only odd numbers from the list.
+	 *
+	 * @return Odd numbers in the list.
+	 */
+	@Override
+	public Number[] getOdds() {
+		List<Number> odds = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (values[i] % 2 != 0) {
+				odds.add(values[i]);
+			}
+		}
+
+		return odds.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only prime numbers from the list.
+	 *
+	 * @return Prime numbers in the list.
+	 */
+	@Override
+	public Number[] getPrimes() {
+		List<Number> primes = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPrime(values[i])) {
+				primes.add(values[i]);
+			}
+		}
+
+		return primes.toArray(new Number[0]);
+	}
+
+	/**
+	 * Get only perfect numbers from the list.
+	 *
+	 * @return Perfect numbers in the list.
+	 */
+	@Override
+	public Number[] getPerfects() {
+		List<Number> perfects = new ArrayList<>();
+
+		for (int i = 0; i < size; i++) {
+			if (PrimeSieve.isPerfect(values[i])) {
+				perfects.add(values[i]);
+			}
+		}
+
+		return perfects.toArray(new Number[0]);
+	}
+
+	/**
+	 * Power all list numbers to specific number, the results are truncated to
+	 * long.
+	 *
+	 * @param value The specific value to power all list elements.
+	 */
+	@Override
+	public void pow(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = (long) Math.pow(values[i], value);
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Sum all list numbers to specific number, the results are truncated to
+	 * long.
+	 *
+	 * @param value The specific value to sum all list elements.
+	 */
+	@Override
+	public void sum(double value) {
+		Aggregates.forEach(size, getParallelThreshold(), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = (long) (values[i] + value);
+			}
+		});
+		valuesChanged();
+	}
+
+	/**
+	 * Reverse all list elements.
+	 */
+	@Override
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			long temp = values[i];
+			values[i] = values[j];
+			values[j] = temp;
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Get biggest element from the list.
+	 *
+	 * @return The biggest element in the list.
+	 */
+	@Override
+	public Long getBiggest() {
+		return values[getBiggestIndex()];
+	}
+
+	/**
+	 * Get smallest element from the list.
+	 *
+	 * @return The smallest element in the list.
+	 */
+	@Override
+	public Long getSmallest() {
+		return values[getSmallestIndex()];
+	}
+
+	/**
+	 * Enable list iteration through each element without boxing, each iterator
+	 * has it's own position and fails with ConcurrentModificationException if
+	 * the list is changed during iteration.
+	 *
+	 * @return The iterator access to move from each element to next.
+	 */
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return new Elements();
+	}
+
+	/**
+	 * Create a sized spliterator over list elements without boxing, it splits
+	 * in halves so parallel streams divide the work evenly.
+	 *
+	 * @return The spliterator of list elements.
+	 */
+	@Override
+	public Spliterator.OfLong spliterator() {
+		return new Values(0, -1, 0);
+	}
+
+	/**
+	 * Get a sequential stream of list elements without boxing.
+	 *
+	 * @return The stream of list elements.
+	 */
+	public LongStream longStream() {
+		return StreamSupport.longStream(spliterator(), false);
+	}
+
+	@Override
+	double doubleAt(int index) {
+		return values[index];
+	}
+
+	@Override
+	void appendTo(int index, StringBuilder out) {
+		out.append(values[index]);
+	}
+
+	@Override
+	LongConsumer wholeNumbers() {
+		return value -> add(value);
+	}
+
+	@Override
+	void appendParsed(double value) {
+		add((long) value); // fractional values in a file are truncated like every other value.
+	}
+
+	@Override
+	int binaryKind() {
+		return ListBinary.LONGS;
+	}
+
+	@Override
+	void writeElements(ListBinary.Output out) throws IOException {
+		long previous = 0;
+
+		for (int i = 0; i < size; i++) {
+			out.writeZigZag(values[i] - previous); // sorted or clustered values take one or two bytes.
+			previous = values[i];
+		}
+	}
+
+	@Override
+	LongList emptyList() {
+		return new LongList();
+	}
+
+	@Override
+	void readValues(ListBinary.Input in) throws IOException {
+		long previous = 0;
+
+		for (int i = 0; i < in.count(); i++) {
+			previous += in.readZigZag();
+
+			ensureCapacity(size + 1);
+			append(previous);
+		}
+	}
+
+	@Override
+	int capacity() {
+		return values.length;
+	}
+
+	@Override
+	void resize(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+	@Override
+	void forgetUnique() {
+		unique = null;
+	}
+
+	@Override
+	void removeAt(int index) {
+		if (unique != null) {
+			unique.remove(values[index]);
+		}
+
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+	}
+
+	@Override
+	int biggestIndex() {
+		return Aggregates.biggestIndex(values, size, getParallelThreshold());
+	}
+
+	@Override
+	int smallestIndex() {
+		return Aggregates.smallestIndex(values, size, getParallelThreshold());
+	}
+
+	/**
+	 * Store a value at the end of the list, skipping values already in the list
+	 * when duplicates are not allowed. Capacity must be ensured by the caller.
+	 */
+	private void append(long value) {
+		if (!isDuplicates() && !unique().add(value)) {
+			return;
+		}
+
+		values[size++] = value;
+		modCount++;
+	}
+
+	private LongHashSet unique() {
+		if (unique == null) {
+			unique = new LongHashSet(size);
+
+			for (int i = 0; i < size; i++) {
+				unique.add(values[i]);
+			}
+		}
+
+		return unique;
+	}
+
+	/**
+	 * Iterator of list elements without boxing.
+	 */
+	private final class Elements extends Cursor implements PrimitiveIterator.OfLong {
+		@Override
+		public long nextLong() {
+			return values[nextIndex()];
+		}
+	}
+
+	/**
+	 * Spliterator of list elements without boxing.
+	 */
+	private final class Values extends Positions implements Spliterator.OfLong {
+		Values(int index, int fence, int expectedModCount) {
+			super(index, fence, expectedModCount);
+		}
+
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			Objects.requireNonNull(action);
+
+			if (index >= fence()) {
+				return false;
+			}
+
+			action.accept(values[index++]);
+			checkModCount();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(LongConsumer action) {
+			Objects.requireNonNull(action);
+
+			long[] elements = values;
+			for (int end = fence(); index < end; index++) {
+				action.accept(elements[index]);
+			}
+
+			checkModCount();
+		}
+
+		@Override
+		public Spliterator.OfLong trySplit() {
+			int low = index, middle = (low + fence()) >>> 1;
+			return low >= middle ? null : new Values(low, index = middle, expectedModCount);
+		}
+	}
+}
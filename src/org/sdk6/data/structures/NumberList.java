@@ -1,36 +1,47 @@
 package org.sdk6.data.structures;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.sdk6.data.types.Numbers;
 import org.sdk6.data.types.Strings;
 
 public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 
 	private ArrayList<Number> list;
 	private boolean duplicates;
+	private transient HashSet<Number> unique; // index of elements when duplicates are not allowed.
+	private int parallelThreshold = Aggregates.DEFAULT_THRESHOLD;
+	private boolean compensated;
+	private transient RangeIndex rangeIndex; // sorted positions for range queries, built on demand.
+	transient int modCount; // changes of elements, checked by indexes and iterators.
 
 	private static final long serialVersionUID = 1L;
-	private int index; // to iterate over list.
 
 	/**
 	 * Constructor of number list, default duplicates are allowed.
 	 */
 	public NumberList() {
-		duplicates = true;
-		list = new ArrayList<>();
-		index = 0;
+		this(true);
 	}
 
 	/**
@@ -39,8 +50,54 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @param duplicates Allow or not duplicate items to save in the list.
 	 */
 	public NumberList(boolean duplicates) {
+		this(duplicates, new ArrayList<>());
+	}
+
+	/**
+	 * Constructor of number list with it's boxed elements.
+	 * 
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 * @param list       The boxed elements, null for subclasses which keep their
+	 *                   own elements.
+	 */
+	NumberList(boolean duplicates, ArrayList<Number> list) {
 		this.duplicates = duplicates;
-		list = new ArrayList<>();
+		this.list = list;
+	}
+
+	/**
+	 * Create a number list for the element type, Integer, Long and Double lists
+	 * are stored in primitive arrays and other types in a boxed list. Integer and
+	 * Long lists narrow every value to their type like a cast, unlike a boxed
+	 * list which keeps a Double added to it, see IntList and LongList.
+	 * 
+	 * @param type The element type class.
+	 * @return The new empty list, duplicates are allowed.
+	 */
+	public static <E extends Number> NumberList<E> of(Class<E> type) {
+		return of(type, true);
+	}
+
+	/**
+	 * Create a number list for the element type, Integer, Long and Double lists
+	 * are stored in primitive arrays and other types in a boxed list. Integer and
+	 * Long lists narrow every value to their type like a cast.
+	 * 
+	 * @param type       The element type class.
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 * @return The new empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Number> NumberList<E> of(Class<E> type, boolean duplicates) {
+		if (type == Integer.class) {
+			return (NumberList<E>) new IntList(duplicates);
+		} else if (type == Long.class) {
+			return (NumberList<E>) new LongList(duplicates);
+		} else if (type == Double.class) {
+			return (NumberList<E>) new DoubleList(duplicates);
+		}
+
+		return new NumberList<>(duplicates);
 	}
 
 	/**
@@ -60,7 +117,16 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @param index Index of element in the list.
 	 */
 	public void set(Number value, int index) {
+		if (!duplicates && !Objects.equals(list.get(index), value)) {
+			if (!unique().add(value)) {
+				return; // value already exists in the list.
+			}
+
+			unique.remove(list.get(index));
+		}
+
 		list.set(index, value);
+		modCount++;
 	}
 
 	/**
@@ -78,7 +144,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return True if is empty and false if not.
 	 */
 	public boolean isEmpty() {
-		return list.isEmpty();
+		return size() == 0;
 	}
 
 	/**
@@ -86,6 +152,8 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public void clear() {
 		list.clear();
+		unique = null;
+		modCount++;
 	}
 
 	/**
@@ -104,6 +172,10 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return True if exists and false if not.
 	 */
 	public boolean contains(Number value) {
+		if (!duplicates) {
+			return unique().contains(value);
+		}
+
 		return list.contains(value);
 	}
 
@@ -114,22 +186,38 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return Number of duplicate elements.
 	 */
 	public int countDuplicates(String key) {
-		return Collections.frequency(list, key);
+		int count = 0;
+
+		for (Number number : list) {
+			if (String.valueOf(number).equals(key)) {
+				count++;
+			}
+		}
+
+		return count;
 	}
 
 	/**
-	 * Erase duplicate items in the list.
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
 	 * 
 	 * @return True if clear was successful and false if not.
 	 */
 	public boolean eraseDuplicates() {
-		try {
-			list = new ArrayList<>(new HashSet<>(list)); // hash set object will remove duplicates
-			return true;
-		} catch (Exception e) {
-			e.printStackTrace();
-			return false;
+		HashSet<Number> seen = new HashSet<>();
+		int length = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+			Number item = list.get(i);
+			if (seen.add(item)) {
+				list.set(length++, item);
+			}
 		}
+
+		list.subList(length, list.size()).clear();
+		unique = duplicates ? null : seen;
+		modCount++;
+		return true;
 	}
 
 	/**
@@ -139,9 +227,9 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return The current list object.
 	 */
 	public NumberList<E> add(Number value) {
-		list.add(value);
-		if (!duplicates) {
-			eraseDuplicates();
+		if (duplicates || unique().add(value)) {
+			list.add(value);
+			modCount++;
 		}
 
 		return this;
@@ -154,11 +242,20 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return The current list object.
 	 */
 	public NumberList<E> add(Number[] numbers) {
-		list.addAll(Arrays.asList(numbers));
-		if (!duplicates) {
-			eraseDuplicates();
+		if (duplicates) {
+			list.addAll(Arrays.asList(numbers));
+		} else {
+			list.ensureCapacity(list.size() + numbers.length);
+
+			for (Number number : numbers) {
+				if (unique().add(number)) { // dedupe in a single pass.
+					list.add(number);
+				}
+			}
 		}
 
+		modCount++;
+
 		return this;
 	}
 
@@ -169,12 +266,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return The current list object.
 	 */
 	public NumberList<E> addAll(NumberList<E> list) {
-		this.list.addAll(Arrays.asList(list.toArray()));
-		if (!duplicates) {
-			eraseDuplicates();
-		}
-
-		return this;
+		return add(list.toArray());
 	}
 
 	/**
@@ -185,7 +277,13 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public boolean remove(int index) {
 		try {
-			list.remove(index);
+			Number removed = list.remove(index);
+
+			if (unique != null) {
+				unique.remove(removed);
+			}
+
+			modCount++;
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -200,15 +298,42 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return True if remove was successful and false if not.
 	 */
 	public boolean remove(Number value) {
-		return list.remove(value);
+		if (!duplicates && !unique().remove(value)) {
+			return false;
+		}
+
+		if (!list.remove(value)) {
+			return false;
+		}
+
+		modCount++;
+		return true;
 	}
 
 	/**
-	 * Sort list in ascending order.
+	 * Sort list in ascending order, in parallel for lists bigger than the
+	 * parallel threshold.
 	 */
+	@SuppressWarnings("unchecked")
 	public void sort() {
-		list.sort(Collections.reverseOrder());
-		Collections.reverse(list);
+		sort((Comparator<? super E>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Sort list with a comparator, equal elements keep their order.
+	 *
+	 * @param comparator The order of elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> comparator) {
+		E[] array = (E[]) list.toArray(new Number[0]);
+		Sorting.sort(array, comparator, parallelThreshold);
+
+		for (int i = 0; i < array.length; i++) {
+			list.set(i, array[i]);
+		}
+
+		modCount++;
 	}
 
 	/**
@@ -218,6 +343,10 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return The element position.
 	 */
 	public int indexOf(Number value) {
+		if (!duplicates && !unique().contains(value)) {
+			return -1;
+		}
+
 		return list.indexOf(value);
 	}
 
@@ -227,13 +356,17 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return Sum of all elements calculated from list.
 	 */
 	public double sum() {
-		double sum = 0;
-
-		for (Number number : list) {
-			sum += Double.parseDouble(String.valueOf(number));
-		}
+		return Aggregates.sum(doubles(), list.size(), parallelThreshold, compensated);
+	}
 
-		return sum;
+	/**
+	 * Get count, sum, smallest, biggest, mean and variance of the list elements
+	 * in a single pass.
+	 * 
+	 * @return Statistics of the list elements.
+	 */
+	public NumberStatistics statistics() {
+		return Aggregates.statistics(doubles(), list.size(), parallelThreshold, compensated);
 	}
 
 	/**
@@ -243,11 +376,12 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public Number[] getEvens() {
 		List<Number> evens = new ArrayList<>();
-		list.forEach(number -> {
+		for (int i = 0; i < size(); i++) {
+			Number number = get(i);
 			if (number.longValue() % 2 == 0) { // check if element is even % 2
 				evens.add(number);
 			}
-		});
+		}
 
 		return evens.toArray(new Number[0]);
 	}
@@ -259,11 +393,12 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public Number[] getOdds() {
 		List<Number> odds = new ArrayList<>();
-		list.forEach(number -> {
+		for (int i = 0; i < size(); i++) {
+			Number number = get(i);
 			if (number.longValue() % 2 != 0) { // check if element is even % 2
 				odds.add(number);
 			}
-		});
+		}
 
 		return odds.toArray(new Number[0]);
 	}
@@ -276,8 +411,9 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	public Number[] getPrimes() {
 		List<Number> primes = new ArrayList<>();
 
-		for (Number number : list) {
-			if (new Numbers().isPrime(number.doubleValue())) {
+		for (int i = 0; i < size(); i++) {
+			Number number = get(i);
+			if (isWhole(number) ? PrimeSieve.isPrime(number.longValue()) : PrimeSieve.isPrime(number.doubleValue())) {
 				primes.add(number);
 			}
 		}
@@ -293,8 +429,9 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	public Number[] getPerfects() {
 		List<Number> perfects = new ArrayList<>();
 
-		for (Number number : list) {
-			if (new Numbers().isPerfect(number.doubleValue())) {
+		for (int i = 0; i < size(); i++) {
+			Number number = get(i);
+			if (isWhole(number) ? PrimeSieve.isPerfect(number.longValue()) : PrimeSieve.isPerfect(number.doubleValue())) {
 				perfects.add(number);
 			}
 		}
@@ -308,8 +445,15 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @param value The specific value to power all list elements.
 	 */
 	public void pow(double value) {
-		for (int i = 0; i < list.size(); i++) {
-			list.set(i, Math.pow(list.get(i).doubleValue(), value));
+		Aggregates.forEach(list.size(), parallelThreshold, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				list.set(i, Math.pow(list.get(i).doubleValue(), value));
+			}
+		});
+		modCount++;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
 		}
 	}
 
@@ -319,8 +463,15 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @param value The specific value to sum all list elements.
 	 */
 	public void sum(double value) {
-		for (int i = 0; i < list.size(); i++) {
-			list.set(i, list.get(i).doubleValue() + 1);
+		Aggregates.forEach(list.size(), parallelThreshold, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				list.set(i, list.get(i).doubleValue() + value);
+			}
+		});
+		modCount++;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
 		}
 	}
 
@@ -329,6 +480,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public void reverse() {
 		Collections.reverse(list);
+		modCount++;
 	}
 
 	/**
@@ -340,19 +492,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public boolean writeToFile(String path, String separator) {
 		try {
-			StringBuilder sb = new StringBuilder();
-
-			for (int i = 0; i < list.size(); i++) {
-				sb.append(list.get(i)); // append all list elements to string builder to write.
-
-				if (!Objects.isNull(separator)) {
-					if ((i + 1) < list.size()) {
-						sb.append(separator); // add separator to each element.
-					}
-				}
-			}
-
-			Files.write(Paths.get(path), sb.toString().getBytes());
+			ListFiles.write(Paths.get(path), size(), separator, false, this::appendTo);
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -371,24 +511,13 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public boolean readFromFile(String path, boolean erase, boolean validNumber) {
 		try {
-			List<String> lines = Files.readAllLines(Paths.get(path));
+			Path file = Paths.get(path);
 
-			if (!lines.isEmpty()) {
-				if (erase) {
-					list.clear();
-				}
+			if (erase && Files.size(file) > 0) {
+				clear();
 			}
 
-			lines.forEach(line -> {
-				if (validNumber) {
-					if (new Strings().isNumber(line)) {
-						add(Double.parseDouble(line));
-					}
-				} else {
-					add(Double.parseDouble(line));
-				}
-			});
-
+			ListFiles.readNumbers(file, validNumber, wholeNumbers(), this::appendParsed);
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -405,19 +534,50 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 */
 	public boolean appendToFile(String path, String separator) {
 		try {
-			StringBuilder sb = new StringBuilder();
+			ListFiles.write(Paths.get(path), size(), separator, true, this::appendTo);
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
 
-			for (int i = 0; i < list.size(); i++) {
-				sb.append(list.get(i)); // append all list elements to string builder to write.
+	/**
+	 * Write all list elements to a file in the compact binary format.
+	 * 
+	 * @param path     The file path.
+	 * @param checksum Add a checksum to the file to detect corruption on read.
+	 * @return True if write was successful and false if not.
+	 */
+	public boolean writeBinary(String path, boolean checksum) {
+		try (ListBinary.Output out = new ListBinary.Output(Paths.get(path), binaryKind(), size(), checksum)) {
+			writeElements(out);
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
 
-				if (!Objects.isNull(separator)) {
-					if ((i + 1) < list.size()) {
-						sb.append(separator); // add separator to each element.
-					}
-				}
+	/**
+	 * Read a file written by writeBinary and add elements to the list.
+	 * 
+	 * @param path  The file path.
+	 * @param erase Erase current list elements before adding or not.
+	 * @return True if read was successful and false if not.
+	 */
+	public boolean readBinary(String path, boolean erase) {
+		try (ListBinary.Input in = new ListBinary.Input(Paths.get(path))) {
+			NumberList<E> decoded = emptyList();
+
+			decoded.readElements(in);
+			in.verify(); // the list is only changed after the checksum matched.
+
+			if (erase) {
+				clear();
 			}
 
-			Files.write(Paths.get(path), sb.toString().getBytes(), StandardOpenOption.APPEND);
+			addAll(decoded);
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -426,39 +586,49 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	}
 
 	/**
-	 * Get biggest element from the list.
+	 * Get biggest element from the list, NaN is skipped unless every element is
+	 * NaN.
 	 * 
 	 * @return The biggest element in the list.
 	 */
 	public Number getBiggest() {
-		return list.stream().max(Comparator.comparingDouble(Number::doubleValue)).get();
+		return list.get(getBiggestIndex());
 	}
 
 	/**
-	 * Get smallest element from the list.
+	 * Get smallest element from the list, NaN is skipped unless every element
+	 * is NaN.
 	 * 
 	 * @return The smallest element in the list.
 	 */
 	public Number getSmallest() {
-		return list.stream().min(Comparator.comparingDouble(Number::doubleValue)).get();
+		return list.get(getSmallestIndex());
 	}
 
 	/**
-	 * Get biggest element position from the list.
+	 * Get biggest element position from the list, the first one on ties.
 	 * 
 	 * @return The biggest element position in the list.
 	 */
 	public int getBiggestIndex() {
-		return list.indexOf(list.stream().max(Comparator.comparingDouble(Number::doubleValue)).get());
+		if (list.isEmpty()) {
+			throw new NoSuchElementException("List is empty");
+		}
+
+		return Aggregates.biggestIndex(doubles(), list.size(), parallelThreshold);
 	}
 
 	/**
-	 * Get smallest element position from the list.
+	 * Get smallest element position from the list, the first one on ties.
 	 * 
 	 * @return The smallest element position in the list.
 	 */
 	public int getSmallestIndex() {
-		return list.indexOf(list.stream().min(Comparator.comparingDouble(Number::doubleValue)).get());
+		if (list.isEmpty()) {
+			throw new NoSuchElementException("List is empty");
+		}
+
+		return Aggregates.smallestIndex(doubles(), list.size(), parallelThreshold);
 	}
 
 	/**
@@ -470,20 +640,44 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 * @return The list of items in specific range.
 	 */
 	public Number[] inRangeOf(Number start, Number end, boolean sort) {
-		List<Number> numbers = new ArrayList<>();
+		return select(rangeIndex().find(start.doubleValue(), end.doubleValue(), sort));
+	}
 
-		for (Number number : list) {
-			if (number.doubleValue() >= start.doubleValue() && number.doubleValue() <= end.doubleValue()) {
-				numbers.add(number); // check the numbers range.
-			}
+	/**
+	 * Get specific numbers in several ranges of numbers, the sorted index is
+	 * shared by all ranges.
+	 * 
+	 * @param starts From these numbers.
+	 * @param ends   To these numbers, one for each start.
+	 * @param sort   Sort list of items.
+	 * @return The list of items of each range.
+	 */
+	public Number[][] inRangesOf(Number[] starts, Number[] ends, boolean sort) {
+		if (starts.length != ends.length) {
+			throw new IllegalArgumentException("Starts and ends have different lengths");
 		}
 
-		if (sort) {
-			numbers.sort(Collections.reverseOrder());
-			Collections.reverse(numbers);
+		RangeIndex index = rangeIndex();
+		Number[][] ranges = new Number[starts.length][];
+
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = select(index.find(starts[i].doubleValue(), ends[i].doubleValue(), sort));
 		}
 
-		return numbers.toArray(new Number[0]); // convert list to array.
+		return ranges;
+	}
+
+	/**
+	 * Get a read only view of numbers in range of numbers sorted by value,
+	 * elements are read from the list on access instead of being copied. The
+	 * view fails with ConcurrentModificationException once the list changes.
+	 * 
+	 * @param start From this number.
+	 * @param end   To this number.
+	 * @return The view of items in specific range.
+	 */
+	public List<Number> inRangeView(Number start, Number end) {
+		return rangeIndex().view(this, start.doubleValue(), end.doubleValue());
 	}
 
 	/**
@@ -494,7 +688,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	 *               element.
 	 */
 	public void printList(String start, boolean number) {
-		for (int i = 0; i < list.size(); i++) {
+		for (int i = 0; i < size(); i++) {
 			if (!new Strings().isNullOrEmpty(start)) {
 				System.out.print(start);
 			}
@@ -503,7 +697,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 				System.out.print("[" + (i + 1) + "] ");
 			}
 
-			System.out.println(list.get(i));
+			System.out.println(get(i));
 		}
 	}
 
@@ -549,10 +743,10 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	public String toString() {
 		StringBuilder sb = new StringBuilder("[");
 
-		for (int i = 0; i < list.size(); i++) {
-			sb.append(list.get(i));
+		for (int i = 0; i < size(); i++) {
+			sb.append(get(i));
 
-			if ((i + 1) < list.size()) {
+			if ((i + 1) < size()) {
 				sb.append(",");
 			}
 		}
@@ -571,13 +765,18 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 	}
 
 	/**
-	 * Enable list iteration through each element.
+	 * Enable list iteration through each element, each iterator has it's own
+	 * position and fails with ConcurrentModificationException if the list is
+	 * changed during iteration.
 	 * 
 	 * @return The iterator access to move from each element to next.
 	 */
 	@Override
 	public Iterator<E> iterator() {
 		return new Iterator<E>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
 			/**
 			 * Check to see if this iterator has next element or not.
 			 * 
@@ -585,7 +784,7 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 			 */
 			@Override
 			public boolean hasNext() {
-				return index < list.size();
+				return cursor < size();
 			}
 
 			/**
@@ -596,8 +795,359 @@ public class NumberList<E extends Number> implements Iterable<E>, Serializable {
 			@SuppressWarnings("unchecked")
 			@Override
 			public E next() {
-				return (E) list.get(index++);
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				} else if (cursor >= size()) {
+					throw new NoSuchElementException();
+				}
+
+				return (E) get(cursor++);
 			}
 		};
 	}
+
+	/**
+	 * Create a sized spliterator over list elements which splits in halves, so
+	 * parallel streams divide the work evenly.
+	 * 
+	 * @return The spliterator of list elements.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new Elements(0, -1, 0);
+	}
+
+	/**
+	 * Get a sequential stream of list elements.
+	 * 
+	 * @return The stream of list elements.
+	 */
+	public Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Get a parallel stream of list elements.
+	 * 
+	 * @return The parallel stream of list elements.
+	 */
+	public Stream<E> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Append an element to the output of writeToFile and appendToFile.
+	 */
+	void appendTo(int index, StringBuilder out) {
+		out.append(get(index));
+	}
+
+	/**
+	 * Get the receiver of whole numbers parsed by readFromFile, null parses
+	 * every number as double.
+	 */
+	LongConsumer wholeNumbers() {
+		return null;
+	}
+
+	/**
+	 * Add a number parsed by readFromFile.
+	 */
+	void appendParsed(double value) {
+		add(value);
+	}
+
+	/**
+	 * Get the element layout of this list in binary files.
+	 */
+	int binaryKind() {
+		return ListBinary.NUMBERS;
+	}
+
+	/**
+	 * Write elements of writeBinary, each number with it's type tag.
+	 */
+	void writeElements(ListBinary.Output out) throws IOException {
+		for (int i = 0; i < size(); i++) {
+			Number number = get(i);
+
+			if (number == null) {
+				out.writeByte(ListBinary.TAG_NULL);
+			} else if (number instanceof Integer) {
+				out.writeByte(ListBinary.TAG_INTEGER);
+				out.writeZigZag(number.intValue());
+			} else if (number instanceof Long) {
+				out.writeByte(ListBinary.TAG_LONG);
+				out.writeZigZag(number.longValue());
+			} else if (number instanceof Float) {
+				out.writeByte(ListBinary.TAG_FLOAT);
+				out.writeFloat(number.floatValue());
+			} else if (number instanceof Short) {
+				out.writeByte(ListBinary.TAG_SHORT);
+				out.writeZigZag(number.shortValue());
+			} else if (number instanceof Byte) {
+				out.writeByte(ListBinary.TAG_BYTE);
+				out.writeZigZag(number.byteValue());
+			} else if (number instanceof BigInteger) {
+				out.writeByte(ListBinary.TAG_BIG_INTEGER);
+				out.writeBytes(((BigInteger) number).toByteArray());
+			} else if (number instanceof BigDecimal) {
+				out.writeByte(ListBinary.TAG_BIG_DECIMAL);
+				out.writeZigZag(((BigDecimal) number).scale());
+				out.writeBytes(((BigDecimal) number).unscaledValue().toByteArray());
+			} else { // Double and other number types.
+				out.writeByte(ListBinary.TAG_DOUBLE);
+				out.writeDouble(number.doubleValue());
+			}
+		}
+	}
+
+	/**
+	 * Create an empty list of the same type, readBinary decodes into it.
+	 */
+	NumberList<E> emptyList() {
+		return new NumberList<>();
+	}
+
+	/**
+	 * Read elements of readBinary, any number list layout can be read.
+	 */
+	void readElements(ListBinary.Input in) throws IOException {
+		int count = in.count();
+		long previous = 0;
+
+		switch (in.kind()) {
+		case ListBinary.NUMBERS:
+			for (int i = 0; i < count; i++) {
+				add(readNumber(in));
+			}
+			break;
+
+		case ListBinary.INTS:
+			for (int i = 0; i < count; i++) {
+				previous += in.readZigZag();
+				add((int) previous);
+			}
+			break;
+
+		case ListBinary.LONGS:
+			for (int i = 0; i < count; i++) {
+				previous += in.readZigZag();
+				add(previous);
+			}
+			break;
+
+		case ListBinary.DOUBLES:
+			for (int i = 0; i < count; i++) {
+				add(in.readDouble());
+			}
+			break;
+
+		default:
+			throw new IOException("File does not contain a number list");
+		}
+	}
+
+	private static Number readNumber(ListBinary.Input in) throws IOException {
+		int tag = in.readByte();
+
+		switch (tag) {
+		case ListBinary.TAG_NULL:
+			return null;
+		case ListBinary.TAG_INTEGER:
+			return (int) in.readZigZag();
+		case ListBinary.TAG_LONG:
+			return in.readZigZag();
+		case ListBinary.TAG_FLOAT:
+			return in.readFloat();
+		case ListBinary.TAG_SHORT:
+			return (short) in.readZigZag();
+		case ListBinary.TAG_BYTE:
+			return (byte) in.readZigZag();
+		case ListBinary.TAG_BIG_INTEGER:
+			return new BigInteger(in.readByteArray());
+		case ListBinary.TAG_BIG_DECIMAL:
+			int scale = (int) in.readZigZag();
+			return new BigDecimal(new BigInteger(in.readByteArray()), scale);
+		case ListBinary.TAG_DOUBLE:
+			return in.readDouble();
+		default:
+			throw new IOException("Unknown number tag " + tag);
+		}
+	}
+
+	public boolean isDuplicates() {
+		return duplicates;
+	}
+
+	public void setDuplicates(boolean duplicates) {
+		this.duplicates = duplicates;
+		unique = null;
+
+		if (!duplicates) {
+			eraseDuplicates();
+		}
+	}
+
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Set minimum list size to run aggregates (sum, statistics, pow, biggest
+	 * and smallest,...) and sort in parallel on the common ForkJoinPool, smaller
+	 * lists are processed in the calling thread.
+	 * 
+	 * @param parallelThreshold Minimum size, Integer.MAX_VALUE disables parallel
+	 *                          processing.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 1) {
+			throw new IllegalArgumentException("Parallel threshold must be positive");
+		}
+
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	public boolean isCompensated() {
+		return compensated;
+	}
+
+	/**
+	 * Use compensated (Kahan-Neumaier) summation in sum and statistics, slower
+	 * but the rounding error doesn't grow with the list size.
+	 * 
+	 * @param compensated Enable or disable compensated summation.
+	 */
+	public void setCompensated(boolean compensated) {
+		this.compensated = compensated;
+	}
+
+	/**
+	 * Convert elements to doubles for the aggregates, floats are converted by
+	 * their decimal value (0.1f is 0.1).
+	 */
+	private double[] doubles() {
+		double[] values = new double[list.size()];
+
+		for (int i = 0; i < values.length; i++) {
+			Number number = list.get(i);
+			values[i] = number instanceof Float ? Double.parseDouble(number.toString()) : number.doubleValue();
+		}
+
+		return values;
+	}
+
+	/**
+	 * Check for integral types which convert to long exactly.
+	 */
+	private static boolean isWhole(Number number) {
+		return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+	}
+
+	/**
+	 * Get an element as double for range queries.
+	 */
+	double doubleAt(int index) {
+		return list.get(index).doubleValue();
+	}
+
+	private RangeIndex rangeIndex() {
+		if (rangeIndex == null || rangeIndex.modCount != modCount) {
+			rangeIndex = new RangeIndex(this);
+		}
+
+		return rangeIndex;
+	}
+
+	private Number[] select(int[] positions) {
+		Number[] numbers = new Number[positions.length];
+
+		for (int i = 0; i < positions.length; i++) {
+			numbers[i] = get(positions[i]);
+		}
+
+		return numbers;
+	}
+
+	private HashSet<Number> unique() {
+		if (unique == null) {
+			unique = new HashSet<>(list);
+		}
+
+		return unique;
+	}
+
+	/**
+	 * Spliterator of list elements by position, the end is bound on first use
+	 * so elements added before the traversal starts are included.
+	 */
+	private final class Elements implements Spliterator<E> {
+		private int index;
+		private int fence; // -1 until first use.
+		private int expectedModCount;
+
+		Elements(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+
+			if (index >= fence()) {
+				return false;
+			}
+
+			action.accept((E) get(index++));
+
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			return true;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+
+			for (int end = fence(); index < end; index++) {
+				action.accept((E) get(index));
+			}
+
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int low = index, middle = (low + fence()) >>> 1;
+			return low >= middle ? null : new Elements(low, index = middle, expectedModCount);
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence() - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private int fence() {
+			if (fence < 0) {
+				fence = size();
+				expectedModCount = modCount;
+			}
+
+			return fence;
+		}
+	}
 }
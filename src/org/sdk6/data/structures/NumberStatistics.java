@@ -0,0 +1,101 @@
+package org.sdk6.data.structures;
+
+/**
+ * Count, sum, min, max, mean and variance of a number list, computed in a
+ * single pass by {@link NumberList#statistics()}.
+ */
+public final class NumberStatistics {
+	private final long count;
+	private final double sum;
+	private final double min;
+	private final double max;
+	private final double mean;
+	private final double m2; // sum of squared deviations from the mean.
+
+	NumberStatistics(long count, double sum, double min, double max, double mean, double m2) {
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+		this.mean = mean;
+		this.m2 = m2;
+	}
+
+	/**
+	 * Get number of elements.
+	 *
+	 * @return Number of elements.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get sum of all elements.
+	 *
+	 * @return Sum of elements, 0 if there are no elements.
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Get smallest element.
+	 *
+	 * @return The smallest element, NaN if there are no elements.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * Get biggest element.
+	 *
+	 * @return The biggest element, NaN if there are no elements.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Get arithmetic mean of elements.
+	 *
+	 * @return The mean, NaN if there are no elements.
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Get population variance of elements.
+	 *
+	 * @return The variance, NaN if there are no elements.
+	 */
+	public double getVariance() {
+		return count == 0 ? Double.NaN : m2 / count;
+	}
+
+	/**
+	 * Get sample variance of elements (divided by count - 1).
+	 *
+	 * @return The sample variance, NaN if there are less than two elements.
+	 */
+	public double getSampleVariance() {
+		return count < 2 ? Double.NaN : m2 / (count - 1);
+	}
+
+	/**
+	 * Get population standard deviation of elements.
+	 *
+	 * @return The standard deviation, NaN if there are no elements.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", mean=" + mean + ", variance="
+				+ getVariance();
+	}
+}
@@ -0,0 +1,838 @@
+package org.sdk6.data.structures;
+
+import java.io.BufferedReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * String list which keeps elements as UTF-8 bytes in direct memory chunks
+ * instead of String objects, the heap only holds an offset and a length for
+ * each element. Strings are created on {@link #get(int)}, while sort, contains
+ * and duplicate checks work directly on the bytes. Strings with an unpaired
+ * surrogate have no UTF-8 form and are rejected.
+ * <p>
+ * The list is not thread safe, not even for concurrent reads: get, contains
+ * and the other lookups move the position of the shared chunk buffers and
+ * decode through one shared scratch array, so every access from more than one
+ * thread needs external synchronization.
+ */
+public class OffHeapStringList implements Iterable<String> {
+	private static final int CHUNK_SIZE = 1 << 20;
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private final ArrayList<ByteBuffer> chunks = new ArrayList<>();
+	private ByteBuffer current; // chunk being filled.
+	private int currentIndex;
+	private int currentOffset; // reads move the buffer position, so writes keep their own.
+	private long[] refs = new long[16]; // chunk index << 32 | offset in chunk.
+	private int[] lengths = new int[16];
+	private int size;
+	private long garbage; // bytes of removed or replaced elements.
+	private boolean duplicates;
+	private int modCount;
+
+	// hash index of distinct elements, built on demand.
+	private int[] table; // position of first occurrence + 1, 0 is empty.
+	private int[] tableHashes;
+	private int[] tableCounts;
+	private int distinct;
+
+	private byte[] scratch = new byte[64];
+	private ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+
+	/**
+	 * Constructor of off-heap String list, default duplicates are allowed.
+	 */
+	public OffHeapStringList() {
+		this(true);
+	}
+
+	/**
+	 * Constructor of off-heap String list.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	public OffHeapStringList(boolean duplicates) {
+		this.duplicates = duplicates;
+	}
+
+	/**
+	 * Count duplicate elements in the list by key.
+	 *
+	 * @param key The key want to search in the list.
+	 * @return Number of duplicate elements.
+	 */
+	public int countDuplicates(String key) {
+		int slot = find(key);
+		return slot < 0 ? 0 : tableCounts[slot];
+	}
+
+	/**
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
+	 *
+	 * @return True if clear was successful and false if not.
+	 */
+	public boolean eraseDuplicates() {
+		int length = 0;
+		createIndex(size);
+
+		for (int i = 0; i < size; i++) {
+			long ref = refs[i];
+			int bytes = lengths[i];
+
+			ByteBuffer chunk = chunks.get((int) (ref >>> 32));
+			int hash = hash(chunk, (int) ref, bytes);
+			int slot = lookup(chunk, (int) ref, bytes, hash);
+
+			if (slot < 0) {
+				refs[length] = ref;
+				lengths[length] = bytes;
+				insert(-slot - 1, hash, length++);
+			} else {
+				garbage += bytes;
+			}
+		}
+
+		size = length;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Get an element by it's position in list, a new String is created from the
+	 * stored bytes.
+	 *
+	 * @param index Index of element in the list.
+	 * @return The element in the position.
+	 */
+	public String get(int index) {
+		checkIndex(index);
+
+		int length = lengths[index];
+		ByteBuffer chunk = chunks.get((int) (refs[index] >>> 32));
+
+		ensureScratch(length);
+		chunk.position((int) refs[index]);
+		chunk.get(scratch, 0, length);
+
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Change element value in the specified position, the old bytes stay in
+	 * memory until {@link #compact()}.
+	 *
+	 * @param value New value for the element.
+	 * @param index Index of element in the list.
+	 * @throws IllegalArgumentException If the value has an unpaired surrogate.
+	 */
+	public void set(String value, int index) {
+		checkIndex(index);
+
+		if (!duplicates && countDuplicates(value) > 0) {
+			return; // value already exists in the list.
+		}
+
+		int length = encodeElement(value);
+		garbage += lengths[index];
+		refs[index] = store(length);
+		lengths[index] = length;
+
+		table = null;
+		modCount++;
+	}
+
+	/**
+	 * Converts the list to a String array.
+	 *
+	 * @return The converted list to array.
+	 */
+	public String[] toArray() {
+		String[] array = new String[size];
+
+		for (int i = 0; i < size; i++) {
+			array[i] = get(i);
+		}
+
+		return array;
+	}
+
+	/**
+	 * Check the list if is empty or not.
+	 *
+	 * @return True if is empty and false if not.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears entire list, direct memory is released when the chunks are garbage
+	 * collected.
+	 */
+	public void clear() {
+		chunks.clear();
+		current = null;
+		size = 0;
+		garbage = 0;
+		table = null;
+		modCount++;
+	}
+
+	/**
+	 * Get the number of list elements.
+	 *
+	 * @return The list size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Check the list for specific value.
+	 *
+	 * @param value The element want to search in list.
+	 * @return True if exists and false if not.
+	 */
+	public boolean contains(String value) {
+		return find(value) >= 0;
+	}
+
+	/**
+	 * Add new value to the list.
+	 *
+	 * @param value New String value to add.
+	 * @return The current list object.
+	 * @throws IllegalArgumentException If the value has an unpaired surrogate.
+	 */
+	public OffHeapStringList add(Object value) {
+		append(value.toString());
+		return this;
+	}
+
+	/**
+	 * Add new String array to the list.
+	 *
+	 * @param input The array want to add to the list.
+	 * @return The current list object.
+	 * @throws IllegalArgumentException If an element has an unpaired surrogate,
+	 *                                  the elements before it stay added.
+	 */
+	public OffHeapStringList add(String[] input) {
+		ensureCapacity(size + input.length);
+
+		for (String item : input) {
+			append(item);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Add another list to current list with all it's elements.
+	 *
+	 * @param list The second list want to add to this list.
+	 * @return The current list object.
+	 */
+	public OffHeapStringList addAll(StringList list) {
+		return add(list.toArray());
+	}
+
+	/**
+	 * Remove an element from list by it's position.
+	 *
+	 * @param index The element position.
+	 * @return True if remove was successful and false if not.
+	 */
+	public boolean remove(int index) {
+		if (index < 0 || index >= size) {
+			return false;
+		}
+
+		garbage += lengths[index];
+		System.arraycopy(refs, index + 1, refs, index, size - index - 1);
+		System.arraycopy(lengths, index + 1, lengths, index, size - index - 1);
+		size--;
+
+		table = null; // following positions shift.
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Remove an element from list by element value.
+	 *
+	 * @param key The element value want to remove.
+	 * @return True if remove was successful and false if not.
+	 */
+	public boolean remove(String key) {
+		return remove(indexOf(key));
+	}
+
+	/**
+	 * Sort list in ascending order, the order is the same as String.compareTo
+	 * but elements are compared on their bytes.
+	 */
+	public void sort() {
+		long[] refBuffer = new long[size];
+		int[] lengthBuffer = new int[size];
+
+		for (int width = 1; width < size; width <<= 1) { // stable bottom up merge sort.
+			for (int left = 0; left < size; left += width << 1) {
+				int middle = Math.min(left + width, size), right = Math.min(left + (width << 1), size);
+				int i = left, j = middle, k = left;
+
+				while (i < middle && j < right) {
+					if (compare(j, i) < 0) {
+						refBuffer[k] = refs[j];
+						lengthBuffer[k++] = lengths[j++];
+					} else {
+						refBuffer[k] = refs[i];
+						lengthBuffer[k++] = lengths[i++];
+					}
+				}
+
+				for (; i < middle; i++, k++) {
+					refBuffer[k] = refs[i];
+					lengthBuffer[k] = lengths[i];
+				}
+
+				for (; j < right; j++, k++) {
+					refBuffer[k] = refs[j];
+					lengthBuffer[k] = lengths[j];
+				}
+			}
+
+			System.arraycopy(refBuffer, 0, refs, 0, size);
+			System.arraycopy(lengthBuffer, 0, lengths, 0, size);
+		}
+
+		table = null;
+		modCount++;
+	}
+
+	/**
+	 * Get the element position by value.
+	 *
+	 * @param key The element want to search in list and get it's position.
+	 * @return The element position.
+	 */
+	public int indexOf(String key) {
+		int slot = find(key);
+		return slot < 0 ? -1 : table[slot] - 1;
+	}
+
+	/**
+	 * Reverse all list elements.
+	 */
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			long ref = refs[i];
+			refs[i] = refs[j];
+			refs[j] = ref;
+
+			int length = lengths[i];
+			lengths[i] = lengths[j];
+			lengths[j] = length;
+		}
+
+		table = null;
+		modCount++;
+	}
+
+	/**
+	 * Write all list elements to a file in hard disk.
+	 *
+	 * @param path      The file path.
+	 * @param separator The separator to separate elements in the file.
+	 * @return True if write was successful and false if not.
+	 */
+	public boolean writeToFile(String path, String separator) {
+		try {
+			ListFiles.write(Paths.get(path), size, separator, false, (i, out) -> out.append(get(i)));
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Read from file in hard disk and add elements to the list.
+	 *
+	 * @param path  The file path.
+	 * @param erase Erase current list elements before adding or not.
+	 * @return True if read was successful and false if not.
+	 */
+	public boolean readFromFile(String path, boolean erase) {
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(path))) {
+			String line = reader.readLine();
+
+			if (line != null && erase) {
+				clear();
+			}
+
+			for (; line != null; line = reader.readLine()) {
+				append(line);
+			}
+
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Append all list elements to a file in hard disk.
+	 *
+	 * @param path      The file path.
+	 * @param separator The separator to separate elements in the file.
+	 * @return True if append was successful and false if not.
+	 */
+	public boolean appendToFile(String path, String separator) {
+		try {
+			ListFiles.write(Paths.get(path), size, separator, true, (i, out) -> out.append(get(i)));
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Get the length of specific element.
+	 *
+	 * @param index The specific position of element.
+	 * @return The element length in characters.
+	 */
+	public int getLength(int index) {
+		return get(index).length();
+	}
+
+	/**
+	 * Get the number of bytes in direct memory, including bytes of removed
+	 * elements.
+	 *
+	 * @return The allocated bytes.
+	 */
+	public long getMemorySize() {
+		long bytes = 0;
+
+		for (ByteBuffer chunk : chunks) {
+			bytes += chunk.capacity();
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Copy live elements to new chunks, releasing the bytes of removed and
+	 * replaced elements.
+	 */
+	public void compact() {
+		ArrayList<ByteBuffer> old = new ArrayList<>(chunks);
+		chunks.clear();
+		current = null;
+
+		for (int i = 0; i < size; i++) {
+			ByteBuffer chunk = old.get((int) (refs[i] >>> 32));
+			int length = lengths[i];
+
+			ensureScratch(length);
+			chunk.position((int) refs[i]);
+			chunk.get(scratch, 0, length);
+
+			refs[i] = store(length);
+		}
+
+		garbage = 0;
+		refs = Arrays.copyOf(refs, Math.max(size, 16));
+		lengths = Arrays.copyOf(lengths, Math.max(size, 16));
+	}
+
+	/**
+	 * Copy all elements to a heap StringList.
+	 *
+	 * @return The copied list.
+	 */
+	public StringList toStringList() {
+		return new StringList(duplicates).add(toArray());
+	}
+
+	public boolean isDuplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * Allow or not duplicate items, disallowing erases current duplicates.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	public void setDuplicates(boolean duplicates) {
+		this.duplicates = duplicates;
+
+		if (!duplicates) {
+			eraseDuplicates();
+		}
+	}
+
+	/**
+	 * Convert all list elements to single string separated by "," at the end of
+	 * each element.
+	 *
+	 * @return The converted String object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+
+		for (int i = 0; i < size; i++) {
+			sb.append(get(i));
+
+			if ((i + 1) < size) {
+				sb.append(",");
+			}
+		}
+
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * Enable list iteration through each element, each iterator has it's own
+	 * position and fails with ConcurrentModificationException if the list is
+	 * changed during iteration.
+	 *
+	 * @return The iterator access to move from each element to next.
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public String next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				} else if (cursor >= size) {
+					throw new NoSuchElementException();
+				}
+
+				return get(cursor++);
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<String> spliterator() {
+		return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Get a sequential stream of list elements.
+	 *
+	 * @return The stream of list elements.
+	 */
+	public Stream<String> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Store an item at the end of the list, skipping items already in the list
+	 * when duplicates are not allowed.
+	 */
+	private void append(String item) {
+		int length = encodeElement(item);
+
+		if (!duplicates || table != null) {
+			int hash = hash(scratchBuffer, 0, length);
+			int slot = lookup(scratchBuffer, 0, length, hash);
+
+			if (slot >= 0) {
+				if (!duplicates) {
+					return;
+				}
+
+				tableCounts[slot]++;
+			} else {
+				insert(-slot - 1, hash, size);
+			}
+		}
+
+		ensureCapacity(size + 1);
+		refs[size] = store(length);
+		lengths[size++] = length;
+		modCount++;
+	}
+
+	/**
+	 * Find the index slot of a value.
+	 *
+	 * @return The slot or -1 if the value is not in the list.
+	 */
+	private int find(String value) {
+		int length = encode(value);
+		if (length < 0) {
+			return -1; // can't be stored, so it's not in the list.
+		}
+
+		index();
+
+		int slot = lookup(scratchBuffer, 0, length, hash(scratchBuffer, 0, length));
+		return slot < 0 ? -1 : slot;
+	}
+
+	/**
+	 * Build the hash index of distinct elements if needed.
+	 */
+	private void index() {
+		if (table != null) {
+			return;
+		}
+
+		createIndex(size);
+
+		for (int i = 0; i < size; i++) {
+			ByteBuffer chunk = chunks.get((int) (refs[i] >>> 32));
+			int hash = hash(chunk, (int) refs[i], lengths[i]);
+			int slot = lookup(chunk, (int) refs[i], lengths[i], hash);
+
+			if (slot >= 0) {
+				tableCounts[slot]++;
+			} else {
+				insert(-slot - 1, hash, i);
+			}
+		}
+	}
+
+	private void createIndex(int expected) {
+		int capacity = 16;
+		while (capacity * LOAD_FACTOR <= expected) {
+			capacity <<= 1;
+		}
+
+		table = new int[capacity];
+		tableHashes = new int[capacity];
+		tableCounts = new int[capacity];
+		distinct = 0;
+	}
+
+	/**
+	 * Probe the index for bytes.
+	 *
+	 * @return The slot of the bytes, or -(empty slot) - 1 if not found.
+	 */
+	private int lookup(ByteBuffer buffer, int offset, int length, int hash) {
+		if (table == null) {
+			index();
+		}
+
+		int mask = table.length - 1;
+
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int position = table[slot] - 1;
+
+			if (position < 0) {
+				return -slot - 1;
+			} else if (tableHashes[slot] == hash && lengths[position] == length
+					&& equal(position, buffer, offset, length)) {
+				return slot;
+			}
+		}
+	}
+
+	private void insert(int slot, int hash, int position) {
+		table[slot] = position + 1;
+		tableHashes[slot] = hash;
+		tableCounts[slot] = 1;
+
+		if (++distinct >= table.length * LOAD_FACTOR) {
+			int[] oldTable = table, oldHashes = tableHashes, oldCounts = tableCounts;
+			int mask = (oldTable.length << 1) - 1;
+
+			table = new int[oldTable.length << 1];
+			tableHashes = new int[table.length];
+			tableCounts = new int[table.length];
+
+			for (int i = 0; i < oldTable.length; i++) {
+				if (oldTable[i] != 0) {
+					int s = oldHashes[i] & mask;
+					while (table[s] != 0) {
+						s = (s + 1) & mask;
+					}
+
+					table[s] = oldTable[i];
+					tableHashes[s] = oldHashes[i];
+					tableCounts[s] = oldCounts[i];
+				}
+			}
+		}
+	}
+
+	private boolean equal(int position, ByteBuffer buffer, int offset, int length) {
+		ByteBuffer chunk = chunks.get((int) (refs[position] >>> 32));
+		int start = (int) refs[position];
+
+		for (int i = 0; i < length; i++) {
+			if (chunk.get(start + i) != buffer.get(offset + i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compare two elements in String.compareTo order. Unsigned UTF-8 bytes are
+	 * in code point order, which only differs from the UTF-16 order of Strings
+	 * between U+E000..U+FFFF and supplementary characters.
+	 */
+	private int compare(int first, int second) {
+		ByteBuffer a = chunks.get((int) (refs[first] >>> 32)), b = chunks.get((int) (refs[second] >>> 32));
+		int aStart = (int) refs[first], bStart = (int) refs[second];
+		int length = Math.min(lengths[first], lengths[second]);
+
+		for (int i = 0; i < length; i++) {
+			int x = a.get(aStart + i) & 0xFF, y = b.get(bStart + i) & 0xFF;
+
+			if (x != y) {
+				if (x >= 0xEE && y >= 0xEE && (x >= 0xF0) != (y >= 0xF0)) {
+					return x >= 0xF0 ? -1 : 1; // surrogates sort before U+E000..U+FFFF in UTF-16.
+				}
+
+				return x - y;
+			}
+		}
+
+		return lengths[first] - lengths[second];
+	}
+
+	private static int hash(ByteBuffer buffer, int offset, int length) {
+		int hash = 0x811C9DC5; // FNV-1a.
+
+		for (int i = 0; i < length; i++) {
+			hash = (hash ^ buffer.get(offset + i)) * 0x01000193;
+		}
+
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Encode a new element to UTF-8 in the scratch buffer.
+	 *
+	 * @return The number of bytes.
+	 */
+	private int encodeElement(String value) {
+		int length = encode(value);
+
+		if (length < 0) {
+			throw new IllegalArgumentException("Unpaired surrogate in element at index " + (-length - 1));
+		}
+
+		return length;
+	}
+
+	/**
+	 * Encode a String to UTF-8 in the scratch buffer. Unpaired surrogates are
+	 * reported instead of being replaced with '?' like String.getBytes does,
+	 * which would store a different String.
+	 *
+	 * @return The number of bytes or -(index of the unpaired surrogate) - 1.
+	 */
+	private int encode(String value) {
+		ensureScratch(value.length() * 3);
+		int length = 0;
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c < 0x80) {
+				scratch[length++] = (byte) c;
+			} else if (c < 0x800) {
+				scratch[length++] = (byte) (0xC0 | (c >> 6));
+				scratch[length++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < value.length()
+						&& Character.isLowSurrogate(value.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, value.charAt(++i));
+
+					scratch[length++] = (byte) (0xF0 | (cp >> 18));
+					scratch[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+					scratch[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+					scratch[length++] = (byte) (0x80 | (cp & 0x3F));
+				} else {
+					return -i - 1;
+				}
+			} else {
+				scratch[length++] = (byte) (0xE0 | (c >> 12));
+				scratch[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				scratch[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Copy the scratch bytes to direct memory.
+	 *
+	 * @return The reference of the stored bytes.
+	 */
+	private long store(int length) {
+		if (length > CHUNK_SIZE / 2) { // big elements get their own chunk and keep the current one.
+			ByteBuffer chunk = ByteBuffer.allocateDirect(length);
+			chunks.add(chunk.put(scratch, 0, length));
+			return (long) (chunks.size() - 1) << 32;
+		} else if (current == null || CHUNK_SIZE - currentOffset < length) {
+			current = ByteBuffer.allocateDirect(CHUNK_SIZE);
+			currentIndex = chunks.size();
+			currentOffset = 0;
+			chunks.add(current);
+		}
+
+		long ref = (long) currentIndex << 32 | currentOffset;
+		current.position(currentOffset);
+		current.put(scratch, 0, length);
+		currentOffset += length;
+		return ref;
+	}
+
+	private void ensureScratch(int length) {
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length << 1)];
+			scratchBuffer = ByteBuffer.wrap(scratch);
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > refs.length) {
+			int length = Math.max(capacity, refs.length + (refs.length >> 1) + 1);
+			refs = Arrays.copyOf(refs, length);
+			lengths = Arrays.copyOf(lengths, length);
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
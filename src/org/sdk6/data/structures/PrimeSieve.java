@@ -0,0 +1,275 @@
+package org.sdk6.data.structures;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.sdk6.data.types.Numbers;
+
+/**
+ * Prime and perfect number classification for bulk list queries. Values below
+ * {@link #SIEVE_LIMIT} are looked up in a segmented sieve of odd numbers, each
+ * segment is sieved on first use and cached for later calls. Bigger values
+ * are checked with a deterministic Miller-Rabin test which is exact for all
+ * 64-bit values.
+ */
+final class PrimeSieve {
+	static final long SIEVE_LIMIT = 1L << 26;
+
+	private static final int SEGMENT_SIZE = 1 << 21; // numbers of each segment, half of them are odd.
+	private static final AtomicReferenceArray<long[]> SEGMENTS = new AtomicReferenceArray<>(
+			(int) (SIEVE_LIMIT / SEGMENT_SIZE));
+	private static final int[] BASE_PRIMES = basePrimes((int) Math.sqrt(SIEVE_LIMIT) + 1);
+
+	// bases proven to be enough for all values below 2^32 and 2^64.
+	private static final long[] INT_BASES = { 2, 7, 61 };
+	private static final long[] LONG_BASES = { 2, 325, 9375, 28178, 450775, 9780504, 1795265022 };
+
+	// every perfect number that fits in a long, all known perfect numbers are
+	// even and no odd one exists below 10^1500.
+	private static final long[] PERFECTS = { 6L, 28L, 496L, 8128L, 33550336L, 8589869056L, 137438691328L,
+			2305843008139952128L };
+
+	private PrimeSieve() {
+	}
+
+	/**
+	 * Check if the number is prime.
+	 *
+	 * @param number The input number.
+	 * @return True if prime and false if not.
+	 */
+	static boolean isPrime(long number) {
+		if (number < 2) {
+			return false;
+		} else if ((number & 1) == 0) {
+			return number == 2;
+		} else if (number < SIEVE_LIMIT) {
+			long[] segment = segment((int) (number / SEGMENT_SIZE));
+			int bit = (int) (number % SEGMENT_SIZE) >>> 1;
+
+			return (segment[bit >>> 6] & (1L << bit)) == 0;
+		}
+
+		for (int i = 1; i < 64; i++) { // cheap rejection of most composites.
+			if (number % BASE_PRIMES[i] == 0) {
+				return false;
+			}
+		}
+
+		return number < Integer.MAX_VALUE ? millerRabin(number) : montgomeryMillerRabin(number);
+	}
+
+	/**
+	 * Check if the number is prime, whole numbers are classified as longs and
+	 * fractions keep the result of {@link Numbers#isPrime(double)}.
+	 *
+	 * @param number The input number.
+	 * @return True if prime and false if not.
+	 */
+	static boolean isPrime(double number) {
+		if (number == Math.rint(number) && Math.abs(number) < 0x1p63) {
+			return isPrime((long) number);
+		} else if (Double.isInfinite(number)) {
+			return false;
+		}
+
+		return new Numbers().isPrime(number);
+	}
+
+	/**
+	 * Check if the number is perfect.
+	 *
+	 * @param number The input number.
+	 * @return True if perfect and false if not.
+	 */
+	static boolean isPerfect(long number) {
+		for (long perfect : PERFECTS) {
+			if (perfect == number) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if the number is perfect, fractions are never perfect.
+	 *
+	 * @param number The input number.
+	 * @return True if perfect and false if not.
+	 */
+	static boolean isPerfect(double number) {
+		return number == Math.rint(number) && Math.abs(number) < 0x1p63 && isPerfect((long) number);
+	}
+
+	/**
+	 * Get a sieved segment, set bits mark odd composites.
+	 */
+	private static long[] segment(int index) {
+		long[] segment = SEGMENTS.get(index);
+
+		if (segment == null) {
+			segment = sieve(index);
+			SEGMENTS.compareAndSet(index, null, segment); // racing threads build the same segment.
+		}
+
+		return segment;
+	}
+
+	private static long[] sieve(int index) {
+		long start = (long) index * SEGMENT_SIZE;
+		long end = start + SEGMENT_SIZE;
+		long[] composites = new long[SEGMENT_SIZE >>> 7];
+
+		for (int i = 1; i < BASE_PRIMES.length; i++) {
+			long prime = BASE_PRIMES[i];
+			if (prime * prime >= end) {
+				break;
+			}
+
+			long first = Math.max(prime * prime, (start + prime - 1) / prime * prime);
+			if ((first & 1) == 0) {
+				first += prime; // even multiples are not stored.
+			}
+
+			for (long multiple = first; multiple < end; multiple += prime << 1) {
+				int bit = (int) (multiple - start) >>> 1;
+				composites[bit >>> 6] |= 1L << bit;
+			}
+		}
+
+		if (index == 0) {
+			composites[0] |= 1L; // 1 is not prime.
+		}
+
+		return composites;
+	}
+
+	private static int[] basePrimes(int limit) {
+		boolean[] composite = new boolean[limit + 1];
+		int count = 0;
+
+		for (int i = 2; i <= limit; i++) {
+			if (!composite[i]) {
+				count++;
+
+				for (long j = (long) i * i; j <= limit; j += i) {
+					composite[(int) j] = true;
+				}
+			}
+		}
+
+		int[] primes = new int[count];
+		for (int i = 2, j = 0; i <= limit; i++) {
+			if (!composite[i]) {
+				primes[j++] = i;
+			}
+		}
+
+		return primes;
+	}
+
+	/**
+	 * Miller-Rabin for values below 2^31, products fit in a long.
+	 */
+	private static boolean millerRabin(long number) {
+		long d = number - 1;
+		int shift = Long.numberOfTrailingZeros(d);
+		d >>= shift;
+
+		next: for (long base : INT_BASES) {
+			long x = 1, b = base % number, e = d;
+
+			for (; e > 0; e >>= 1, b = b * b % number) {
+				if ((e & 1) != 0) {
+					x = x * b % number;
+				}
+			}
+
+			if (x == 1 || x == number - 1) {
+				continue;
+			}
+
+			for (int i = 1; i < shift; i++) {
+				x = x * x % number;
+
+				if (x == number - 1) {
+					continue next;
+				}
+			}
+
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Miller-Rabin for values of 2^31 and above, multiplications are done in
+	 * Montgomery form so no 128-bit division is needed.
+	 */
+	private static boolean montgomeryMillerRabin(long number) {
+		long inverse = number; // number^-1 mod 2^64 by Newton's iteration.
+		for (int i = 0; i < 5; i++) {
+			inverse *= 2 - number * inverse;
+		}
+
+		long one = Long.remainderUnsigned(-number, number); // 2^64 mod number.
+		long minusOne = number - one;
+		long r2 = one; // 2^128 mod number.
+
+		for (int i = 0; i < 64; i++) {
+			r2 <<= 1;
+			if (r2 < 0 || r2 >= number) {
+				r2 -= number;
+			}
+		}
+
+		long d = number - 1;
+		int shift = Long.numberOfTrailingZeros(d);
+		d >>= shift;
+
+		next: for (long base : LONG_BASES) {
+			long b = base % number;
+			if (b == 0) {
+				continue;
+			}
+
+			long x = one;
+			b = multiply(b, r2, number, inverse);
+
+			for (long e = d; e > 0; e >>= 1, b = multiply(b, b, number, inverse)) {
+				if ((e & 1) != 0) {
+					x = multiply(x, b, number, inverse);
+				}
+			}
+
+			if (x == one || x == minusOne) {
+				continue;
+			}
+
+			for (int i = 1; i < shift; i++) {
+				x = multiply(x, x, number, inverse);
+
+				if (x == minusOne) {
+					continue next;
+				}
+			}
+
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Montgomery product a * b / 2^64 mod number of values below number.
+	 */
+	private static long multiply(long a, long b, long number, long inverse) {
+		long high = Math.multiplyHigh(a, b);
+		long m = a * b * inverse;
+		long mHigh = Math.multiplyHigh(m, number) + ((m >> 63) & number); // unsigned high word of m * number.
+		long result = high - mHigh;
+
+		return result < 0 ? result + number : result;
+	}
+}
@@ -0,0 +1,291 @@
+package org.sdk6.data.structures;
+
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * Base of the number lists which keep elements in a growable primitive array
+ * instead of boxed objects. It holds the size, positions, duplicate policy,
+ * iterator and binary file logic, subclasses keep the typed array, the unique
+ * index and the loops over elements.
+ */
+abstract class PrimitiveList<E extends Number> extends NumberList<E> {
+
+	int size;
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor of primitive list, the boxed list of NumberList is not
+	 * allocated.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	PrimitiveList(boolean duplicates) {
+		super(duplicates, null);
+	}
+
+	/**
+	 * Converts the list to a numbers array.
+	 *
+	 * @return The converted list to array.
+	 */
+	@Override
+	public Number[] toArray() {
+		Number[] array = new Number[size];
+
+		for (int i = 0; i < size; i++) {
+			array[i] = get(i);
+		}
+
+		return array;
+	}
+
+	/**
+	 * Clears entire list.
+	 */
+	@Override
+	public void clear() {
+		size = 0;
+		forgetUnique();
+		modCount++;
+	}
+
+	/**
+	 * Get the number of list elements.
+	 *
+	 * @return The list size.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Release unused capacity of the backing array.
+	 */
+	public void trimToSize() {
+		if (capacity() > size) {
+			resize(size);
+		}
+	}
+
+	/**
+	 * Check the list for specific value.
+	 *
+	 * @param value The element want to search in list.
+	 * @return True if exists and false if not.
+	 */
+	@Override
+	public boolean contains(Number value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Allow or not duplicate items, disallowing erases current duplicates.
+	 *
+	 * @param duplicates Allow or not duplicate items to save in the list.
+	 */
+	@Override
+	public void setDuplicates(boolean duplicates) {
+		forgetUnique();
+		super.setDuplicates(duplicates);
+	}
+
+	/**
+	 * Remove an element from list by it's position.
+	 *
+	 * @param index The element position.
+	 * @return True if remove was successful and false if not.
+	 */
+	@Override
+	public boolean remove(int index) {
+		if (index < 0 || index >= size) {
+			return false;
+		}
+
+		removeAt(index);
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Remove an element from list by element value.
+	 *
+	 * @param value The element value want to remove.
+	 * @return True if remove was successful and false if not.
+	 */
+	@Override
+	public boolean remove(Number value) {
+		return remove(indexOf(value));
+	}
+
+	/**
+	 * Get biggest element position from the list.
+	 *
+	 * @return The biggest element position in the list.
+	 */
+	@Override
+	public int getBiggestIndex() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+
+		return biggestIndex();
+	}
+
+	/**
+	 * Get smallest element position from the list.
+	 *
+	 * @return The smallest element position in the list.
+	 */
+	@Override
+	public int getSmallestIndex() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+
+		return smallestIndex();
+	}
+
+	@Override
+	void readElements(ListBinary.Input in) throws IOException {
+		if (in.kind() != binaryKind()) {
+			super.readElements(in);
+			return;
+		}
+
+		ensureCapacity(size + Math.min(in.count(), 1 << 20)); // count is not trusted for allocation.
+		readValues(in);
+	}
+
+	/**
+	 * Finish an update of every element by pow or sum.
+	 */
+	void valuesChanged() {
+		modCount++;
+
+		if (!isDuplicates()) {
+			eraseDuplicates(); // new values may collide.
+		}
+	}
+
+	void ensureCapacity(int capacity) {
+		int length = capacity();
+
+		if (capacity > length) {
+			resize(Math.max(capacity, length + (length >> 1) + 1));
+		}
+	}
+
+	void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Get the length of the backing array.
+	 */
+	abstract int capacity();
+
+	/**
+	 * Copy the elements to a backing array of the length.
+	 */
+	abstract void resize(int capacity);
+
+	/**
+	 * Drop the index of elements, it's built again on next use.
+	 */
+	abstract void forgetUnique();
+
+	/**
+	 * Drop an element from the index of elements and shift the following
+	 * elements left, size and modCount are updated by the caller.
+	 */
+	abstract void removeAt(int index);
+
+	/**
+	 * Get the first position of the biggest element of a non empty list.
+	 */
+	abstract int biggestIndex();
+
+	/**
+	 * Get the first position of the smallest element of a non empty list.
+	 */
+	abstract int smallestIndex();
+
+	/**
+	 * Read elements of readBinary in the layout of binaryKind.
+	 */
+	abstract void readValues(ListBinary.Input in) throws IOException;
+
+	/**
+	 * Position of an iterator, each iterator has it's own position and fails
+	 * with ConcurrentModificationException if the list is changed during
+	 * iteration.
+	 */
+	abstract class Cursor {
+		private int cursor;
+		private final int expectedModCount = modCount;
+
+		public boolean hasNext() {
+			return cursor < size;
+		}
+
+		/**
+		 * Get the position of the next element and move after it.
+		 */
+		int nextIndex() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			} else if (cursor >= size) {
+				throw new NoSuchElementException();
+			}
+
+			return cursor++;
+		}
+	}
+
+	/**
+	 * Positions of a spliterator, the end is bound on first use so elements
+	 * added before the traversal starts are included.
+	 */
+	abstract class Positions {
+		int index;
+		private int fence; // -1 until first use.
+		int expectedModCount;
+
+		Positions(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		public long estimateSize() {
+			return fence() - index;
+		}
+
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		int fence() {
+			if (fence < 0) {
+				fence = size;
+				expectedModCount = modCount;
+			}
+
+			return fence;
+		}
+
+		void checkModCount() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package org.sdk6.data.structures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+
+/**
+ * Sorted index of a number list for range queries, list positions are sorted
+ * by element value (ties keep the list order) so a range is found by two
+ * binary searches. The index is a snapshot, the list rebuilds it when
+ * {@link NumberList#modCount} changes.
+ */
+final class RangeIndex {
+	private static final int INSERTION_SORT = 32;
+
+	final int modCount;
+	private final double[] keys; // sorted values, NaN is left out because it is never in range.
+	private final int[] positions; // list position of each key.
+
+	RangeIndex(NumberList<?> list) {
+		modCount = list.modCount;
+
+		int size = list.size(), count = 0;
+		double[] keys = new double[size];
+		int[] positions = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			double key = list.doubleAt(i);
+
+			if (key == key) {
+				keys[count] = key;
+				positions[count++] = i;
+			}
+		}
+
+		this.keys = Arrays.copyOf(keys, count);
+		this.positions = Arrays.copyOf(positions, count);
+		sort(this.keys, this.positions);
+	}
+
+	/**
+	 * Get list positions of elements in range.
+	 *
+	 * @param start From this value.
+	 * @param end   To this value.
+	 * @param sort  Order positions by element value or keep the list order.
+	 * @return The list positions.
+	 */
+	int[] find(double start, double end, boolean sort) {
+		int from = lower(start), to = upper(end);
+		if (from >= to) {
+			return new int[0];
+		}
+
+		int[] found = Arrays.copyOfRange(positions, from, to);
+		if (!sort) {
+			Arrays.sort(found);
+		}
+
+		return found;
+	}
+
+	/**
+	 * Get a read only view of elements in range, ordered by value.
+	 *
+	 * @param list  The indexed list.
+	 * @param start From this value.
+	 * @param end   To this value.
+	 * @return The view, it fails with ConcurrentModificationException once the
+	 *         list is changed.
+	 */
+	RangeView view(NumberList<?> list, double start, double end) {
+		int from = lower(start);
+		return new RangeView(list, from, Math.max(from, upper(end)));
+	}
+
+	/**
+	 * First key bigger than or equal to the value.
+	 */
+	private int lower(double value) {
+		int low = 0, high = keys.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (keys[middle] >= value) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+
+		return value == value ? low : keys.length; // NaN bounds match nothing.
+	}
+
+	/**
+	 * First key bigger than the value.
+	 */
+	private int upper(double value) {
+		int low = 0, high = keys.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (keys[middle] > value) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+
+		return value == value ? low : 0;
+	}
+
+	/**
+	 * Stable bottom up merge sort of keys with their positions.
+	 */
+	private static void sort(double[] keys, int[] positions) {
+		int size = keys.length;
+
+		for (int start = 0; start < size; start += INSERTION_SORT) {
+			int end = Math.min(start + INSERTION_SORT, size);
+
+			for (int i = start + 1; i < end; i++) {
+				double key = keys[i];
+				int position = positions[i], j = i - 1;
+
+				for (; j >= start && Double.compare(keys[j], key) > 0; j--) {
+					keys[j + 1] = keys[j];
+					positions[j + 1] = positions[j];
+				}
+
+				keys[j + 1] = key;
+				positions[j + 1] = position;
+			}
+		}
+
+		double[] keyBuffer = new double[size];
+		int[] positionBuffer = new int[size];
+
+		for (int width = INSERTION_SORT; width < size; width <<= 1) {
+			for (int left = 0; left < size; left += width << 1) {
+				int middle = Math.min(left + width, size), right = Math.min(left + (width << 1), size);
+				int i = left, j = middle, k = left;
+
+				while (i < middle && j < right) {
+					if (Double.compare(keys[j], keys[i]) < 0) {
+						keyBuffer[k] = keys[j];
+						positionBuffer[k++] = positions[j++];
+					} else {
+						keyBuffer[k] = keys[i];
+						positionBuffer[k++] = positions[i++];
+					}
+				}
+
+				for (; i < middle; i++, k++) {
+					keyBuffer[k] = keys[i];
+					positionBuffer[k] = positions[i];
+				}
+
+				for (; j < right; j++, k++) {
+					keyBuffer[k] = keys[j];
+					positionBuffer[k] = positions[j];
+				}
+			}
+
+			System.arraycopy(keyBuffer, 0, keys, 0, size);
+			System.arraycopy(positionBuffer, 0, positions, 0, size);
+		}
+	}
+
+	/**
+	 * Read only view of a slice of the index, elements are read from the list
+	 * on access so nothing is copied.
+	 */
+	final class RangeView extends AbstractList<Number> implements RandomAccess {
+		private final NumberList<?> list;
+		private final int from;
+		private final int to;
+
+		RangeView(NumberList<?> list, int from, int to) {
+			this.list = list;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Number get(int index) {
+			if (index < 0 || index >= to - from) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+			} else if (list.modCount != RangeIndex.this.modCount) { // AbstractList has it's own modCount.
+				throw new ConcurrentModificationException();
+			}
+
+			return list.get(positions[from + index]);
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}
@@ -0,0 +1,372 @@
+package org.sdk6.data.structures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sort engine of the lists. Primitive arrays are sorted with an LSD radix sort
+ * which skips the byte passes where all keys share the same digit, Strings
+ * with a multikey quicksort on their characters. Arrays bigger than the
+ * parallel threshold are sorted on the common ForkJoinPool, comparator sorts
+ * are always stable.
+ */
+final class Sorting {
+	private static final int RADIX_MIN = 1 << 8; // smaller arrays are sorted by Arrays.sort.
+	private static final int INSERTION_SORT = 16;
+	private static final int MIN_CHUNK = 1 << 13;
+
+	private Sorting() {
+	}
+
+	/**
+	 * Sort the first elements of an array in ascending order.
+	 *
+	 * @param values    The array.
+	 * @param size      Number of elements to sort.
+	 * @param threshold Minimum number of elements to sort in parallel.
+	 */
+	static void sort(int[] values, int size, int threshold) {
+		if (parallel(size, threshold)) {
+			Arrays.parallelSort(values, 0, size);
+		} else if (size < RADIX_MIN) {
+			Arrays.sort(values, 0, size);
+		} else {
+			int[] counts = new int[4 << 8];
+
+			for (int i = 0; i < size; i++) {
+				int value = values[i];
+
+				counts[value & 0xFF]++;
+				counts[256 + ((value >>> 8) & 0xFF)]++;
+				counts[512 + ((value >>> 16) & 0xFF)]++;
+				counts[768 + ((value >>> 24) ^ 0x80)]++; // sign bit flipped so negatives come first.
+			}
+
+			int[] from = values, to = new int[size];
+
+			for (int pass = 0; pass < 4; pass++) {
+				int shift = pass << 3, offset = pass << 8;
+				int flip = pass == 3 ? 0x80 : 0;
+
+				if (counts[offset + (((from[0] >>> shift) & 0xFF) ^ flip)] == size) {
+					continue; // every key has the same digit.
+				}
+
+				toPositions(counts, offset);
+
+				for (int i = 0; i < size; i++) {
+					int value = from[i];
+					to[counts[offset + (((value >>> shift) & 0xFF) ^ flip)]++] = value;
+				}
+
+				int[] swap = from;
+				from = to;
+				to = swap;
+			}
+
+			if (from != values) {
+				System.arraycopy(from, 0, values, 0, size);
+			}
+		}
+	}
+
+	/**
+	 * Sort the first elements of an array in ascending order.
+	 *
+	 * @param values    The array.
+	 * @param size      Number of elements to sort.
+	 * @param threshold Minimum number of elements to sort in parallel.
+	 */
+	static void sort(long[] values, int size, int threshold) {
+		if (parallel(size, threshold)) {
+			Arrays.parallelSort(values, 0, size);
+		} else if (size < RADIX_MIN) {
+			Arrays.sort(values, 0, size);
+		} else {
+			radixSort(values, size, Long.MIN_VALUE);
+		}
+	}
+
+	/**
+	 * Sort the first elements of an array in the order of
+	 * {@link Arrays#sort(double[])}, -0.0 comes before 0.0 and NaN is last.
+	 *
+	 * @param values    The array.
+	 * @param size      Number of elements to sort.
+	 * @param threshold Minimum number of elements to sort in parallel.
+	 */
+	static void sort(double[] values, int size, int threshold) {
+		if (parallel(size, threshold)) {
+			Arrays.parallelSort(values, 0, size);
+		} else if (size < RADIX_MIN) {
+			Arrays.sort(values, 0, size);
+		} else {
+			long[] keys = new long[size];
+
+			for (int i = 0; i < size; i++) {
+				long bits = Double.doubleToRawLongBits(values[i]);
+				keys[i] = values[i] != values[i] ? -1L : bits ^ ((bits >> 63) | Long.MIN_VALUE); // NaN is last.
+			}
+
+			radixSort(keys, size, 0);
+
+			for (int i = 0; i < size; i++) {
+				long key = keys[i];
+				values[i] = key == -1L ? Double.NaN : Double.longBitsToDouble(key < 0 ? key ^ Long.MIN_VALUE : ~key);
+			}
+		}
+	}
+
+	/**
+	 * Sort Strings in the order of {@link String#compareTo(String)}.
+	 *
+	 * @param values    The array, without null elements.
+	 * @param threshold Minimum number of elements to sort in parallel.
+	 */
+	static void sort(String[] values, int threshold) {
+		if (parallel(values.length, threshold)) {
+			Arrays.parallelSort(values);
+		} else {
+			multikeySort(values, 0, values.length, 0);
+		}
+	}
+
+	/**
+	 * Stable sort of elements with a comparator, equal elements keep their order.
+	 *
+	 * @param values     The array.
+	 * @param comparator Order of the elements.
+	 * @param threshold  Minimum number of elements to sort in parallel.
+	 */
+	static <T> void sort(T[] values, Comparator<? super T> comparator, int threshold) {
+		if (parallel(values.length, threshold)) {
+			T[] buffer = Arrays.copyOf(values, values.length);
+			int chunk = Math.max(MIN_CHUNK, values.length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+
+			ForkJoinPool.commonPool().invoke(new MergeSortTask<>(values, buffer, 0, values.length, chunk, comparator));
+		} else {
+			Arrays.sort(values, comparator);
+		}
+	}
+
+	/**
+	 * LSD radix sort of long keys, the mask is applied to each key to get it's
+	 * unsigned order.
+	 */
+	private static void radixSort(long[] values, int size, long mask) {
+		int[] counts = new int[8 << 8];
+
+		for (int i = 0; i < size; i++) {
+			long value = values[i] ^ mask;
+
+			for (int pass = 0; pass < 8; pass++) {
+				counts[(pass << 8) + (int) ((value >>> (pass << 3)) & 0xFF)]++;
+			}
+		}
+
+		long[] from = values, to = new long[size];
+
+		for (int pass = 0; pass < 8; pass++) {
+			int shift = pass << 3, offset = pass << 8;
+
+			if (counts[offset + (int) (((from[0] ^ mask) >>> shift) & 0xFF)] == size) {
+				continue; // every key has the same digit.
+			}
+
+			toPositions(counts, offset);
+
+			for (int i = 0; i < size; i++) {
+				long value = from[i];
+				to[counts[offset + (int) (((value ^ mask) >>> shift) & 0xFF)]++] = value;
+			}
+
+			long[] swap = from;
+			from = to;
+			to = swap;
+		}
+
+		if (from != values) {
+			System.arraycopy(from, 0, values, 0, size);
+		}
+	}
+
+	/**
+	 * Replace the 256 digit counts at offset with the first position of each
+	 * digit.
+	 */
+	private static void toPositions(int[] counts, int offset) {
+		for (int digit = 0, position = 0; digit < 256; digit++) {
+			int count = counts[offset + digit];
+			counts[offset + digit] = position;
+			position += count;
+		}
+	}
+
+	/**
+	 * Multikey quicksort of Bentley and Sedgewick, elements are split in three
+	 * parts by the character at depth so shared prefixes are compared once. A
+	 * part where every element has the same character skips the whole prefix
+	 * its elements share instead of one character at a time.
+	 */
+	private static void multikeySort(String[] values, int from, int to, int depth) {
+		while (to - from > INSERTION_SORT) {
+			swap(values, from, median(values, from, from + ((to - from) >>> 1), to - 1, depth));
+
+			int pivot = charAt(values[from], depth);
+			int lt = from, gt = to - 1, i = from + 1;
+
+			while (i <= gt) {
+				int c = charAt(values[i], depth);
+
+				if (c < pivot) {
+					swap(values, lt++, i++);
+				} else if (c > pivot) {
+					swap(values, i, gt--);
+				} else {
+					i++;
+				}
+			}
+
+			multikeySort(values, from, lt, depth);
+			multikeySort(values, gt + 1, to, depth);
+
+			if (pivot < 0) {
+				return; // equal part holds whole equal Strings.
+			}
+
+			if (lt == from && gt == to - 1) {
+				depth = commonPrefix(values, from, to, depth + 1); // nothing was split off.
+			} else {
+				from = lt; // continue with the equal part on the next character.
+				to = gt + 1;
+				depth++;
+			}
+		}
+
+		for (int i = from + 1; i < to; i++) {
+			String value = values[i];
+			int j = i - 1;
+
+			for (; j >= from && compare(values[j], value, depth) > 0; j--) {
+				values[j + 1] = values[j];
+			}
+
+			values[j + 1] = value;
+		}
+	}
+
+	/**
+	 * Get the end of the prefix shared by Strings which are equal before depth.
+	 */
+	private static int commonPrefix(String[] values, int from, int to, int depth) {
+		String first = values[from];
+		int end = first.length();
+
+		for (int i = from + 1; i < to && end > depth; i++) {
+			String value = values[i];
+			int length = Math.min(end, value.length());
+			int j = depth;
+
+			while (j < length && value.charAt(j) == first.charAt(j)) {
+				j++;
+			}
+
+			end = j;
+		}
+
+		return end;
+	}
+
+	private static int median(String[] values, int a, int b, int c, int depth) {
+		int x = charAt(values[a], depth), y = charAt(values[b], depth), z = charAt(values[c], depth);
+
+		if (x < y) {
+			return y < z ? b : x < z ? c : a;
+		}
+
+		return y > z ? b : x > z ? c : a;
+	}
+
+	/**
+	 * Compare Strings which are equal before depth.
+	 */
+	private static int compare(String first, String second, int depth) {
+		int length = Math.min(first.length(), second.length());
+
+		for (int i = depth; i < length; i++) {
+			int c = first.charAt(i) - second.charAt(i);
+
+			if (c != 0) {
+				return c;
+			}
+		}
+
+		return first.length() - second.length();
+	}
+
+	private static int charAt(String value, int depth) {
+		return depth < value.length() ? value.charAt(depth) : -1;
+	}
+
+	private static void swap(String[] values, int i, int j) {
+		String temp = values[i];
+		values[i] = values[j];
+		values[j] = temp;
+	}
+
+	private static boolean parallel(int size, int threshold) {
+		return size >= threshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+	/**
+	 * Stable parallel merge sort, chunks are sorted with Arrays.sort and merged
+	 * preferring the left element on ties. Arrays.parallelSort with a comparator
+	 * is not used because it doesn't keep the order of equal elements.
+	 */
+	private static final class MergeSortTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final T[] values;
+		private final T[] buffer;
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final Comparator<? super T> comparator;
+
+		MergeSortTask(T[] values, T[] buffer, int from, int to, int chunk, Comparator<? super T> comparator) {
+			this.values = values;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunk) {
+				Arrays.sort(values, from, to, comparator);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new MergeSortTask<>(values, buffer, from, middle, chunk, comparator),
+					new MergeSortTask<>(values, buffer, middle, to, chunk, comparator));
+
+			if (comparator.compare(values[middle - 1], values[middle]) <= 0) {
+				return; // halves are already in order.
+			}
+
+			System.arraycopy(values, from, buffer, from, middle - from);
+			int i = from, j = middle, k = from;
+
+			while (i < middle && j < to) {
+				values[k++] = comparator.compare(values[j], buffer[i]) < 0 ? values[j++] : buffer[i++];
+			}
+
+			System.arraycopy(buffer, i, values, k, middle - i);
+		}
+	}
+}
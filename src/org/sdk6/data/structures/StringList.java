@@ -1,16 +1,20 @@
 package org.sdk6.data.structures;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 import org.sdk6.data.types.Strings;
 
@@ -19,9 +23,12 @@ import java.util.Comparator;
 public class StringList implements Iterable<String>, Serializable {
 	private ArrayList<String> list;
 	private boolean duplicates;
+	private transient HashSet<String> unique; // index of elements when duplicates are not allowed.
+	private boolean indexed;
+	private transient HashMap<String, int[]> positions; // element positions when indexed, {count, p1, p2, ...}.
+	private int parallelThreshold = Aggregates.DEFAULT_THRESHOLD;
 
 	private static final long serialVersionUID = 1L;
-	private int index; // to iterate over list.
 
 	/**
 	 * Constructor of String list, default duplicates are allowed.
@@ -29,7 +36,6 @@ public class StringList implements Iterable<String>, Serializable {
 	public StringList() {
 		duplicates = true;
 		list = new ArrayList<>();
-		index = 0;
 	}
 
 	/**
@@ -40,7 +46,6 @@ public class StringList implements Iterable<String>, Serializable {
 	public StringList(boolean duplicates) {
 		this.duplicates = duplicates;
 		list = new ArrayList<>();
-		index = 0;
 	}
 
 	/**
@@ -50,22 +55,35 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return Number of duplicate elements.
 	 */
 	public int countDuplicates(String key) {
+		if (indexed) {
+			int[] items = positions().get(key);
+			return items == null ? 0 : items[0];
+		}
+
 		return Collections.frequency(list, key);
 	}
 
 	/**
-	 * Erase duplicate items in the list.
+	 * Erase duplicate items in the list, the first occurrence of each element
+	 * keeps it's position.
 	 * 
 	 * @return True if clear was successful and false if not.
 	 */
 	public boolean eraseDuplicates() {
-		try {
-			list = new ArrayList<>(new HashSet<>(list));
-			return true;
-		} catch (Exception e) {
-			e.printStackTrace();
-			return false;
+		HashSet<String> seen = new HashSet<>();
+		int length = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+			String item = list.get(i);
+			if (seen.add(item)) {
+				list.set(length++, item);
+			}
 		}
+
+		list.subList(length, list.size()).clear();
+		unique = duplicates ? null : seen;
+		positions = null;
+		return true;
 	}
 
 	public String get(int index) {
@@ -73,6 +91,19 @@ public class StringList implements Iterable<String>, Serializable {
 	}
 
 	public void set(String value, int index) {
+		if (!duplicates && !Objects.equals(list.get(index), value)) {
+			if (!unique().add(value)) {
+				return; // value already exists in the list.
+			}
+
+			unique.remove(list.get(index));
+		}
+
+		if (positions != null) {
+			positions.computeIfPresent(list.get(index), (k, items) -> removePosition(items, index));
+			positions.compute(value, (k, items) -> addPosition(items, index));
+		}
+
 		list.set(index, value);
 	}
 
@@ -86,6 +117,8 @@ public class StringList implements Iterable<String>, Serializable {
 
 	public void clear() {
 		list.clear();
+		unique = null;
+		positions = null;
 	}
 
 	public int size() {
@@ -93,6 +126,14 @@ public class StringList implements Iterable<String>, Serializable {
 	}
 
 	public boolean contains(String value) {
+		if (!duplicates) {
+			return unique().contains(value);
+		}
+
+		if (indexed) {
+			return positions().containsKey(value);
+		}
+
 		return list.contains(value);
 	}
 
@@ -103,11 +144,7 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return The current list object.
 	 */
 	public StringList add(Object value) {
-		list.add(value.toString());
-		if (!duplicates) {
-			eraseDuplicates();
-		}
-
+		append(value.toString());
 		return this;
 	}
 
@@ -118,9 +155,14 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return The current list object.
 	 */
 	public StringList add(String[] input) {
-		list.addAll(Arrays.asList(input));
-		if (!duplicates) {
-			eraseDuplicates();
+		if (duplicates && positions == null) {
+			list.addAll(Arrays.asList(input));
+		} else {
+			list.ensureCapacity(list.size() + input.length);
+
+			for (String item : input) {
+				append(item); // dedupe and index in a single pass.
+			}
 		}
 
 		return this;
@@ -133,12 +175,7 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return The current list object.
 	 */
 	public StringList addAll(StringList list) {
-		this.list.addAll(Arrays.asList(list.toArray()));
-		if (!duplicates) {
-			eraseDuplicates();
-		}
-
-		return this;
+		return add(list.toArray());
 	}
 
 	/**
@@ -149,7 +186,14 @@ public class StringList implements Iterable<String>, Serializable {
 	 */
 	public boolean remove(int index) {
 		try {
-			list.remove(index);
+			String removed = list.remove(index);
+
+			if (unique != null) {
+				unique.remove(removed);
+			}
+
+			positions = null; // following positions shift.
+
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -164,14 +208,33 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return True if remove was successful and false if not.
 	 */
 	public boolean remove(String key) {
+		if (!duplicates && !unique().remove(key)) {
+			return false;
+		}
+
+		positions = null; // following positions shift.
 		return list.remove(key);
 	}
 
 	/**
-	 * Sort list in ascending order.
+	 * Sort list in ascending order, with a multikey quicksort or in parallel for
+	 * lists bigger than the parallel threshold.
 	 */
 	public void sort() {
-		Collections.sort(list);
+		String[] array = list.toArray(new String[0]);
+		Sorting.sort(array, parallelThreshold);
+		replace(array);
+	}
+
+	/**
+	 * Sort list with a comparator, equal elements keep their order.
+	 * 
+	 * @param comparator The order of elements.
+	 */
+	public void sort(Comparator<? super String> comparator) {
+		String[] array = list.toArray(new String[0]);
+		Sorting.sort(array, comparator, parallelThreshold);
+		replace(array);
 	}
 
 	/**
@@ -181,6 +244,15 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return The element position.
 	 */
 	public int indexOf(String key) {
+		if (!duplicates && !unique().contains(key)) {
+			return -1;
+		}
+
+		if (indexed) {
+			int[] items = positions().get(key);
+			return items == null ? -1 : items[1];
+		}
+
 		return list.indexOf(key);
 	}
 
@@ -188,7 +260,9 @@ public class StringList implements Iterable<String>, Serializable {
 	 * Reverse all list elements.
 	 */
 	public void reverse() {
-		Collections.reverse(list);
+		String[] array = list.toArray(new String[0]);
+		Collections.reverse(Arrays.asList(array));
+		replace(array);
 	}
 
 	/**
@@ -200,19 +274,7 @@ public class StringList implements Iterable<String>, Serializable {
 	 */
 	public boolean writeToFile(String path, String separator) {
 		try {
-			StringBuilder sb = new StringBuilder();
-
-			for (int i = 0; i < list.size(); i++) {
-				sb.append(list.get(i));
-
-				if (!Objects.isNull(separator)) {
-					if ((i + 1) < list.size()) {
-						sb.append(separator);
-					}
-				}
-			}
-
-			Files.write(Paths.get(path), sb.toString().getBytes());
+			ListFiles.write(Paths.get(path), list.size(), separator, false, (i, out) -> out.append(list.get(i)));
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -228,18 +290,18 @@ public class StringList implements Iterable<String>, Serializable {
 	 * @return True if read was successful and false if not.
 	 */
 	public boolean readFromFile(String path, boolean erase) {
-		try {
-			List<String> lines = Files.readAllLines(Paths.get(path));
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(path))) {
+			String line = reader.readLine();
 
-			if (!lines.isEmpty()) {
+			if (line != null) {
 				if (erase) {
-					list.clear();
+					clear();
 				}
 			}
 
-			lines.forEach(line -> {
+			for (; line != null; line = reader.readLine()) { // stream lines instead of loading the whole file.
 				add(line);
-			});
+			}
 
 			return true;
 		} catch (Exception e) {
@@ -257,19 +319,111 @@ public class StringList implements Iterable<String>, Serializable {
 	 */
 	public boolean appendToFile(String path, String separator) {
 		try {
-			StringBuilder sb = new StringBuilder();
+			ListFiles.write(Paths.get(path), list.size(), separator, true, (i, out) -> out.append(list.get(i)));
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
 
-			for (int i = 0; i < list.size(); i++) {
-				sb.append(list.get(i));
+	/**
+	 * Write all list elements to a file in the compact binary format, lists
+	 * with mostly repeated elements are written with a dictionary.
+	 * 
+	 * @param path     The file path.
+	 * @param checksum Add a checksum to the file to detect corruption on read.
+	 * @return True if write was successful and false if not.
+	 */
+	public boolean writeBinary(String path, boolean checksum) {
+		HashMap<String, Integer> dictionary = new HashMap<>();
+
+		for (int i = 0; i < list.size() && dictionary.size() <= list.size() / 2; i++) {
+			dictionary.putIfAbsent(list.get(i), dictionary.size());
+		}
+
+		boolean compact = dictionary.size() <= list.size() / 2;
+		int kind = compact ? ListBinary.STRINGS_DICTIONARY : ListBinary.STRINGS;
+
+		try (ListBinary.Output out = new ListBinary.Output(Paths.get(path), kind, list.size(), checksum)) {
+			if (compact) {
+				String[] words = new String[dictionary.size()];
+				dictionary.forEach((word, id) -> words[id] = word);
+
+				out.writeVarLong(words.length);
+				for (String word : words) {
+					out.writeBytes(word == null ? null : word.getBytes(StandardCharsets.UTF_8));
+				}
+
+				for (String item : list) {
+					out.writeVarLong(dictionary.get(item));
+				}
+			} else {
+				for (String item : list) {
+					out.writeBytes(item == null ? null : item.getBytes(StandardCharsets.UTF_8));
+				}
+			}
 
-				if (!Objects.isNull(separator)) {
-					if ((i + 1) < list.size()) {
-						sb.append(separator);
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Read a file written by writeBinary and add elements to the list.
+	 * 
+	 * @param path  The file path.
+	 * @param erase Erase current list elements before adding or not.
+	 * @return True if read was successful and false if not.
+	 */
+	public boolean readBinary(String path, boolean erase) {
+		try (ListBinary.Input in = new ListBinary.Input(Paths.get(path))) {
+			if (in.kind() != ListBinary.STRINGS && in.kind() != ListBinary.STRINGS_DICTIONARY) {
+				throw new IOException("File does not contain a string list");
+			}
+
+			// count is not trusted for allocation.
+			ArrayList<String> decoded = new ArrayList<>(Math.min(in.count(), 1 << 20));
+
+			if (in.kind() == ListBinary.STRINGS_DICTIONARY) {
+				long words = in.readVarLong();
+				if (words < 0 || words > in.count()) {
+					throw new IOException("Invalid dictionary size " + words);
+				}
+
+				ArrayList<String> dictionary = new ArrayList<>((int) Math.min(words, 1 << 20));
+				for (long i = 0; i < words; i++) {
+					dictionary.add(readString(in));
+				}
+
+				for (int i = 0; i < in.count(); i++) {
+					long id = in.readVarLong();
+					if (id < 0 || id >= dictionary.size()) {
+						throw new IOException("Invalid dictionary id " + id);
 					}
+
+					decoded.add(dictionary.get((int) id));
+				}
+			} else {
+				for (int i = 0; i < in.count(); i++) {
+					decoded.add(readString(in));
 				}
 			}
 
-			Files.write(Paths.get(path), sb.toString().getBytes(), StandardOpenOption.APPEND);
+			in.verify(); // the list is only changed after the checksum matched.
+
+			if (erase) {
+				clear();
+			}
+
+			list.ensureCapacity(list.size() + decoded.size());
+
+			for (String item : decoded) {
+				append(item);
+			}
+
 			return true;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -320,6 +474,12 @@ public class StringList implements Iterable<String>, Serializable {
 		for (int i = 0; i < list.size(); i++) {
 			list.set(i, list.get(i).toLowerCase());
 		}
+
+		positions = null;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
+		}
 	}
 
 	/**
@@ -329,6 +489,12 @@ public class StringList implements Iterable<String>, Serializable {
 		for (int i = 0; i < list.size(); i++) {
 			list.set(i, list.get(i).toUpperCase());
 		}
+
+		positions = null;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
+		}
 	}
 
 	/**
@@ -344,6 +510,12 @@ public class StringList implements Iterable<String>, Serializable {
 		for (int i = 0; i < list.size(); i++) {
 			list.set(i, list.get(i).concat(value));
 		}
+
+		positions = null;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
+		}
 	}
 
 	/**
@@ -358,7 +530,7 @@ public class StringList implements Iterable<String>, Serializable {
 			return;
 		}
 
-		list.set(index, list.get(index).concat(value));
+		set(list.get(index).concat(value), index);
 	}
 
 	/**
@@ -398,6 +570,12 @@ public class StringList implements Iterable<String>, Serializable {
 		for (int i = 0; i < list.size(); i++) {
 			list.set(i, new Strings().capitalize(list.get(i)));
 		}
+
+		positions = null;
+
+		if (!duplicates) {
+			eraseDuplicates(); // new values may collide.
+		}
 	}
 
 	/**
@@ -456,33 +634,44 @@ public class StringList implements Iterable<String>, Serializable {
 	}
 
 	/**
-	 * Enable list iteration through each element.
+	 * Enable list iteration through each element, each iterator has it's own
+	 * position and fails with ConcurrentModificationException if elements are
+	 * added, removed or reordered during iteration.
 	 * 
 	 * @return The iterator access to move from each element to next.
 	 */
 	@Override
 	public Iterator<String> iterator() {
-		return new Iterator<String>() {
-			/**
-			 * Check to see if this iterator has next element or not.
-			 * 
-			 * @return True if they it has and false if not.
-			 */
-			@Override
-			public boolean hasNext() {
-				return index < list.size();
-			}
+		return Collections.unmodifiableList(list).iterator(); // read only, removing would skip the indexes.
+	}
 
-			/**
-			 * Get the next element from iterator.
-			 * 
-			 * @return The specific element from iterator.
-			 */
-			@Override
-			public String next() {
-				return list.get(index++);
-			}
-		};
+	/**
+	 * Create a sized spliterator over list elements which splits in halves, so
+	 * parallel streams divide the work evenly.
+	 * 
+	 * @return The spliterator of list elements.
+	 */
+	@Override
+	public Spliterator<String> spliterator() {
+		return list.spliterator();
+	}
+
+	/**
+	 * Get a sequential stream of list elements.
+	 * 
+	 * @return The stream of list elements.
+	 */
+	public Stream<String> stream() {
+		return list.stream();
+	}
+
+	/**
+	 * Get a parallel stream of list elements.
+	 * 
+	 * @return The parallel stream of list elements.
+	 */
+	public Stream<String> parallelStream() {
+		return list.parallelStream();
 	}
 
 	public boolean isDuplicates() {
@@ -491,9 +680,162 @@ public class StringList implements Iterable<String>, Serializable {
 
 	public void setDuplicates(boolean duplicates) {
 		this.duplicates = duplicates;
+		unique = null;
+
+		if (!duplicates) {
+			eraseDuplicates();
+		}
 	}
 
+	/**
+	 * Get the backing list of elements. The duplicates and position indexes are
+	 * dropped and rebuilt from the list on next use, so changes made right after
+	 * this call are seen. Changes made later through a kept reference are not,
+	 * they can break indexOf of indexed lists and store duplicates in lists which
+	 * don't allow them, call getList again before changing the list.
+	 * 
+	 * @return The list which holds the elements.
+	 */
 	public ArrayList<String> getList() {
+		unique = null;
+		positions = null;
+
 		return list;
 	}
+
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Set minimum list size to sort in parallel on the common ForkJoinPool,
+	 * smaller lists are sorted in the calling thread.
+	 * 
+	 * @param parallelThreshold Minimum size, Integer.MAX_VALUE disables parallel
+	 *                          sorting.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 1) {
+			throw new IllegalArgumentException("Parallel threshold must be positive");
+		}
+
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	public boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * Enable or disable the position index, indexed lists answer contains,
+	 * indexOf and countDuplicates with a hash lookup instead of a scan. The index
+	 * is updated by add and set, and rebuilt on the next lookup after operations
+	 * that move elements (remove, sort, reverse, case conversions,...).
+	 * 
+	 * @param indexed Enable or disable the index.
+	 */
+	public void setIndexed(boolean indexed) {
+		this.indexed = indexed;
+		positions = null;
+	}
+
+	/**
+	 * Add an item to the end of the list, skipping items already in the list
+	 * when duplicates are not allowed.
+	 */
+	private void append(String item) {
+		if (!duplicates && !unique().add(item)) {
+			return;
+		}
+
+		if (positions != null) {
+			int position = list.size();
+			positions.compute(item, (k, items) -> addPosition(items, position));
+		}
+
+		list.add(item);
+	}
+
+	/**
+	 * Replace list elements with the elements of a reordered array.
+	 */
+	private void replace(String[] array) {
+		// clear and addAll are structural changes, so iterators fail instead of
+		// returning a mix of both orders.
+		list.clear();
+		list.addAll(Arrays.asList(array));
+
+		positions = null;
+	}
+
+	private static String readString(ListBinary.Input in) throws IOException {
+		int length = in.readBytes();
+		return length < 0 ? null : new String(in.scratch(), 0, length, StandardCharsets.UTF_8);
+	}
+
+	private HashMap<String, int[]> positions() {
+		if (positions == null) {
+			positions = new HashMap<>();
+
+			for (int i = 0; i < list.size(); i++) {
+				int position = i;
+				positions.compute(list.get(i), (k, items) -> addPosition(items, position));
+			}
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Insert a position to the sorted positions array of an element.
+	 */
+	private static int[] addPosition(int[] items, int position) {
+		if (items == null) {
+			return new int[] { 1, position };
+		}
+
+		int count = items[0];
+		if (count + 1 == items.length) {
+			items = Arrays.copyOf(items, items.length * 2);
+		}
+
+		int slot = Arrays.binarySearch(items, 1, count + 1, position);
+		if (slot >= 0) {
+			return items;
+		}
+
+		slot = -slot - 1;
+		System.arraycopy(items, slot, items, slot + 1, count + 1 - slot);
+		items[slot] = position;
+		items[0]++;
+
+		return items;
+	}
+
+	/**
+	 * Remove a position from the sorted positions array of an element.
+	 * 
+	 * @return The array or null if no positions remain.
+	 */
+	private static int[] removePosition(int[] items, int position) {
+		int count = items[0];
+		int slot = Arrays.binarySearch(items, 1, count + 1, position);
+
+		if (slot < 0) {
+			return items;
+		}
+
+		System.arraycopy(items, slot + 1, items, slot, count - slot);
+		items[0]--;
+
+		return items[0] == 0 ? null : items;
+	}
+
+	private HashSet<String> unique() {
+		if (unique == null) {
+			unique = new HashSet<>(list);
+		}
+
+		return unique;
+	}
 }
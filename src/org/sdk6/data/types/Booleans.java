@@ -1,5 +1,9 @@
 package org.sdk6.data.types;
 
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 public class Booleans {
 
 	/**
@@ -27,4 +31,204 @@ public class Booleans {
 
 		return numbers;
 	}
+
+	/**
+	 * Pack a boolean array into bits of long words, bit i is stored in word
+	 * i / 64 at position i % 64. Each word holds 64 flags.
+	 * 
+	 * @param array The boolean array.
+	 * @return The packed words.
+	 */
+	public long[] pack(boolean[] array) {
+		long[] words = new long[wordCount(array.length)];
+
+		for (int w = 0; w < words.length; w++) {
+			int from = w << 6, to = Math.min(from + 64, array.length);
+			long word = 0;
+
+			for (int i = from; i < to; i++) {
+				word |= (array[i] ? 1L : 0L) << i; // shift distance is taken mod 64.
+			}
+
+			words[w] = word;
+		}
+
+		return words;
+	}
+
+	/**
+	 * Unpack bits of long words into a boolean array.
+	 * 
+	 * @param words  The packed words.
+	 * @param length Number of flags to unpack.
+	 * @return The boolean array.
+	 */
+	public boolean[] unpack(long[] words, int length) {
+		boolean[] array = new boolean[length];
+
+		for (int i = 0; i < length; i++) {
+			array[i] = (words[i >>> 6] & (1L << i)) != 0;
+		}
+
+		return array;
+	}
+
+	/**
+	 * Get a flag of packed words.
+	 * 
+	 * @param words The packed words.
+	 * @param index The flag position.
+	 * @return The flag value.
+	 */
+	public boolean get(long[] words, int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Change a flag of packed words.
+	 * 
+	 * @param words The packed words.
+	 * @param index The flag position.
+	 * @param flag  The new flag value.
+	 */
+	public void set(long[] words, int index, boolean flag) {
+		if (flag) {
+			words[index >>> 6] |= 1L << index;
+		} else {
+			words[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	/**
+	 * Count the true flags of packed words.
+	 * 
+	 * @param words The packed words.
+	 * @return Number of set bits.
+	 */
+	public long countTrue(long[] words) {
+		long count = 0;
+
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+
+		return count;
+	}
+
+	/**
+	 * And the flags of the target with the source in place, target words after
+	 * the end of the source are cleared.
+	 * 
+	 * @param target The packed words to change.
+	 * @param source The packed words to combine.
+	 */
+	public void and(long[] target, long[] source) {
+		int length = Math.min(target.length, source.length);
+
+		for (int i = 0; i < length; i++) {
+			target[i] &= source[i];
+		}
+
+		Arrays.fill(target, length, target.length, 0L);
+	}
+
+	/**
+	 * Or the flags of the target with the source in place, source words after
+	 * the end of the target are ignored.
+	 * 
+	 * @param target The packed words to change.
+	 * @param source The packed words to combine.
+	 */
+	public void or(long[] target, long[] source) {
+		int length = Math.min(target.length, source.length);
+
+		for (int i = 0; i < length; i++) {
+			target[i] |= source[i];
+		}
+	}
+
+	/**
+	 * Xor the flags of the target with the source in place, source words after
+	 * the end of the target are ignored.
+	 * 
+	 * @param target The packed words to change.
+	 * @param source The packed words to combine.
+	 */
+	public void xor(long[] target, long[] source) {
+		int length = Math.min(target.length, source.length);
+
+		for (int i = 0; i < length; i++) {
+			target[i] ^= source[i];
+		}
+	}
+
+	/**
+	 * Clear the flags of the target which are set in the source, in place.
+	 * 
+	 * @param target The packed words to change.
+	 * @param source The packed words of flags to clear.
+	 */
+	public void andNot(long[] target, long[] source) {
+		int length = Math.min(target.length, source.length);
+
+		for (int i = 0; i < length; i++) {
+			target[i] &= ~source[i];
+		}
+	}
+
+	/**
+	 * Get the position of the next true flag.
+	 * 
+	 * @param words The packed words.
+	 * @param from  The first position to check.
+	 * @return The position or -1 if no flag is set from the position.
+	 */
+	public int nextTrue(long[] words, int from) {
+		int w = from >>> 6;
+		if (from < 0 || w >= words.length) {
+			return -1;
+		}
+
+		long word = words[w] & (-1L << from);
+
+		while (word == 0) {
+			if (++w == words.length) {
+				return -1;
+			}
+
+			word = words[w];
+		}
+
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Visit the positions of all true flags in ascending order.
+	 * 
+	 * @param words  The packed words.
+	 * @param action Receives each position.
+	 */
+	public void forEachTrue(long[] words, IntConsumer action) {
+		for (int w = 0; w < words.length; w++) {
+			for (long word = words[w]; word != 0; word &= word - 1) { // clears the lowest set bit.
+				action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+			}
+		}
+	}
+
+	/**
+	 * Get the positions of all true flags as a stream.
+	 * 
+	 * @param words The packed words.
+	 * @return The ordered stream of positions.
+	 */
+	public IntStream streamTrue(long[] words) {
+		long[] snapshot = words.clone();
+
+		return IntStream.iterate(nextTrue(snapshot, 0), i -> i >= 0, i -> nextTrue(snapshot, i + 1));
+	}
+
+	private static int wordCount(int length) {
+		return (length >>> 6) + ((length & 63) == 0 ? 0 : 1);
+	}
 }
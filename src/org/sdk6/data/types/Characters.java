@@ -1,5 +1,6 @@
 package org.sdk6.data.types;
 
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Objects;
@@ -44,10 +45,39 @@ public class Characters {
 	 * @return The reversed array.
 	 */
 	public char[] reverse(char[] input) {
-		Character[] characters = ArrayUtils.toObject(input);
+		char[] reversed = input.clone();
 
-		Collections.reverse(Arrays.asList(characters));
-		return ArrayUtils.toPrimitive(characters);
+		reverse(reversed, 0, reversed.length);
+		return reversed;
+	}
+
+	/**
+	 * Reverse a range of a character array in place.
+	 * 
+	 * @param input The input array.
+	 * @param from  First index of the range.
+	 * @param to    End of the range, exclusive.
+	 */
+	public void reverse(char[] input, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			char temp = input[i];
+			input[i] = input[j];
+			input[j] = temp;
+		}
+	}
+
+	/**
+	 * Reverse the characters between the position and limit of a buffer in
+	 * place.
+	 * 
+	 * @param buffer The input buffer.
+	 */
+	public void reverse(CharBuffer buffer) {
+		for (int i = buffer.position(), j = buffer.limit() - 1; i < j; i++, j--) {
+			char temp = buffer.get(i);
+			buffer.put(i, buffer.get(j));
+			buffer.put(j, temp);
+		}
 	}
 
 	/**
@@ -73,18 +103,32 @@ public class Characters {
 			return new String();
 		}
 
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < array.length; i++) {
-			sb.append(array[i]);
+		return arrayToString(array, split, new StringBuilder()).toString();
+	}
+
+	/**
+	 * Append a character array separated by user input to a caller supplied
+	 * builder, which can be cleared and reused between calls.
+	 * 
+	 * @param array  Character array.
+	 * @param split  Separate each array element and split into it.
+	 * @param output The builder to append to.
+	 * @return The output builder.
+	 */
+	public StringBuilder arrayToString(char[] array, String split, StringBuilder output) {
+		if (Objects.isNull(split) || split.isEmpty()) {
+			return output.append(array);
+		}
 
-			if (!Objects.isNull(split)) {
-				if (i + 1 < array.length) {
-					sb.append(split);
-				}
+		for (int i = 0; i < array.length; i++) {
+			if (i > 0) {
+				output.append(split);
 			}
+
+			output.append(array[i]);
 		}
 
-		return sb.toString();
+		return output;
 	}
 
 	/**
@@ -96,17 +140,55 @@ public class Characters {
 	 * @return The changed array in the process.
 	 */
 	public char[] replaceCharacters(char[] chars, char oldChar, char newChar) {
-		StringBuilder sb = new StringBuilder();
+		char[] replaced = chars.clone();
+
+		replaceCharacters(replaced, 0, replaced.length, oldChar, newChar);
+		return replaced;
+	}
+
+	/**
+	 * Replace a specific character in a range of the input array in place.
+	 * 
+	 * @param chars   The input array.
+	 * @param from    First index of the range.
+	 * @param to      End of the range, exclusive.
+	 * @param oldChar Old character.
+	 * @param newChar New character to replace.
+	 * @return Number of replaced characters.
+	 */
+	public int replaceCharacters(char[] chars, int from, int to, char oldChar, char newChar) {
+		int count = 0;
+
+		for (int i = from; i < to; i++) {
+			if (chars[i] == oldChar) {
+				chars[i] = newChar;
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Replace a specific character between the position and limit of a buffer
+	 * in place.
+	 * 
+	 * @param buffer  The input buffer.
+	 * @param oldChar Old character.
+	 * @param newChar New character to replace.
+	 * @return Number of replaced characters.
+	 */
+	public int replaceCharacters(CharBuffer buffer, char oldChar, char newChar) {
+		int count = 0;
 
-		for (char ch : chars) {
-			if (ch == oldChar) {
-				sb.append(newChar);
-			} else {
-				sb.append(ch);
+		for (int i = buffer.position(); i < buffer.limit(); i++) {
+			if (buffer.get(i) == oldChar) {
+				buffer.put(i, newChar);
+				count++;
 			}
 		}
 
-		return sb.toString().toCharArray();
+		return count;
 	}
 
 	/**
@@ -0,0 +1,395 @@
+package org.sdk6.data.types;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Aho-Corasick automaton of a set of keys, built once and reused to search any
+ * number of inputs for all keys in a single pass. Substring matching counts
+ * non-overlapping occurrences of each key like StringUtils.countMatches, whole
+ * word matching counts whitespace separated words equal to a key like
+ * splitting the input on \s+.
+ */
+public final class KeyMatcher {
+	private static final int ROOT = 0;
+
+	private final String[] keys;
+	private final int[] sameKey; // next key with the same text, -1 at the end.
+
+	// trie nodes.
+	private final int[] fail;
+	private final int[] output; // first key ending at the node, -1 if none.
+	private final int[] dictionary; // nearest node on the fail chain with an output, -1 if none.
+
+	// trie edges, open addressing table of (node << 16 | char) + 1 to child node.
+	private final long[] edgeKeys;
+	private final int[] edgeTargets;
+
+	/**
+	 * Receives matches found by
+	 * {@link KeyMatcher#find(CharSequence, boolean, MatchConsumer)}.
+	 */
+	public interface MatchConsumer {
+		/**
+		 * Accept a match.
+		 *
+		 * @param key   Index of the matched key.
+		 * @param start Start position of the match in the input.
+		 * @param end   End position of the match, exclusive.
+		 */
+		void accept(int key, int start, int end);
+	}
+
+	/**
+	 * Constructor of KeyMatcher.
+	 *
+	 * @param keys The keys, empty keys never match.
+	 */
+	public KeyMatcher(String... keys) {
+		this.keys = keys.clone();
+		sameKey = new int[keys.length];
+
+		int nodes = 1;
+		for (String key : this.keys) {
+			nodes += Objects.requireNonNull(key, "key").length();
+		}
+
+		int capacity = Integer.highestOneBit(Math.max(nodes, 2) * 2 - 1) << 1;
+		edgeKeys = new long[capacity];
+		edgeTargets = new int[capacity];
+
+		int[] output = new int[nodes];
+		int[] firstChild = new int[nodes], nextSibling = new int[nodes];
+		char[] label = new char[nodes];
+		Arrays.fill(output, -1);
+		Arrays.fill(firstChild, -1);
+
+		int count = 1;
+		for (int k = 0; k < keys.length; k++) {
+			String key = this.keys[k];
+			sameKey[k] = -1;
+
+			if (key.isEmpty()) {
+				continue;
+			}
+
+			int node = ROOT;
+			for (int i = 0; i < key.length(); i++) {
+				char c = key.charAt(i);
+				int child = edge(node, c);
+
+				if (child < 0) {
+					child = count++;
+					label[child] = c;
+					nextSibling[child] = firstChild[node];
+					firstChild[node] = child;
+					putEdge(node, c, child);
+				}
+
+				node = child;
+			}
+
+			if (output[node] < 0) {
+				output[node] = k;
+			} else {
+				int last = output[node];
+				while (sameKey[last] >= 0) {
+					last = sameKey[last];
+				}
+
+				sameKey[last] = k;
+			}
+		}
+
+		this.output = Arrays.copyOf(output, count);
+		fail = new int[count];
+		dictionary = new int[count];
+		dictionary[ROOT] = -1;
+
+		int[] queue = new int[count];
+		int head = 0, tail = 0;
+
+		for (int child = firstChild[ROOT]; child >= 0; child = nextSibling[child]) {
+			dictionary[child] = -1;
+			queue[tail++] = child;
+		}
+
+		while (head < tail) { // breadth first, so fail targets are done before their users.
+			int node = queue[head++];
+
+			for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+				int target = fail[node];
+				char c = label[child];
+
+				while (target != ROOT && edge(target, c) < 0) {
+					target = fail[target];
+				}
+
+				int next = edge(target, c);
+				fail[child] = next >= 0 ? next : ROOT;
+				dictionary[child] = this.output[fail[child]] >= 0 ? fail[child] : dictionary[fail[child]];
+				queue[tail++] = child;
+			}
+		}
+	}
+
+	/**
+	 * Constructor of KeyMatcher.
+	 *
+	 * @param keys The keys, empty keys never match.
+	 */
+	public KeyMatcher(Collection<String> keys) {
+		this(keys.toArray(new String[0]));
+	}
+
+	/**
+	 * Get the number of keys.
+	 *
+	 * @return The number of keys.
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * Get a key by it's index.
+	 *
+	 * @param index Index of the key.
+	 * @return The key.
+	 */
+	public String getKey(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Get the index of the key equal to the text.
+	 *
+	 * @param text The input text.
+	 * @return Index of the first equal key or -1 if no key is equal.
+	 */
+	public int indexOf(CharSequence text) {
+		int node = ROOT;
+
+		for (int i = 0; i < text.length() && node >= 0; i++) {
+			node = edge(node, text.charAt(i));
+		}
+
+		return node > ROOT ? output[node] : -1;
+	}
+
+	/**
+	 * Count matches of all keys in the input.
+	 *
+	 * @param input The input text.
+	 * @param match If true count words equal to a key and false count substrings.
+	 * @return Number of matches of each key, in the order of keys.
+	 */
+	public int[] countMatches(CharSequence input, boolean match) {
+		return counter(match).add(input).getCounts();
+	}
+
+	/**
+	 * Count matches of all keys in the characters of a reader, the reader is not
+	 * closed.
+	 *
+	 * @param reader The input reader.
+	 * @param match  If true count words equal to a key and false count
+	 *               substrings.
+	 * @return Number of matches of each key, in the order of keys.
+	 * @throws IOException If reading fails.
+	 */
+	public int[] countMatches(Reader reader, boolean match) throws IOException {
+		Counter counter = counter(match);
+		char[] buffer = new char[8192];
+
+		for (int count; (count = reader.read(buffer)) != -1;) {
+			for (int i = 0; i < count; i++) {
+				counter.add(buffer[i]);
+			}
+		}
+
+		return counter.getCounts();
+	}
+
+	/**
+	 * Find matches of all keys in the input, matches are reported in the order of
+	 * their end position.
+	 *
+	 * @param input    The input text.
+	 * @param match    If true find words equal to a key and false find
+	 *                 substrings.
+	 * @param consumer Receives each match.
+	 */
+	public void find(CharSequence input, boolean match, MatchConsumer consumer) {
+		Counter counter = new Counter(match, Objects.requireNonNull(consumer));
+
+		counter.add(input);
+		counter.endLine();
+	}
+
+	/**
+	 * Create a counter which is fed with input in parts.
+	 *
+	 * @param match If true count words equal to a key and false count substrings.
+	 * @return The counter.
+	 */
+	public Counter counter(boolean match) {
+		return new Counter(match, null);
+	}
+
+	/**
+	 * Counts matches of input added in parts, the automaton state is kept between
+	 * parts so matches may span them.
+	 */
+	public final class Counter {
+		private final boolean match;
+		private final MatchConsumer consumer;
+		private final int[] counts = new int[keys.length];
+		private final long[] nextStart = new long[keys.length]; // first start of a non overlapping match.
+		private long position;
+		private int state = ROOT;
+		private boolean inWord;
+		private long wordStart;
+
+		private Counter(boolean match, MatchConsumer consumer) {
+			this.match = match;
+			this.consumer = consumer;
+		}
+
+		/**
+		 * Add a part of the input.
+		 *
+		 * @param input The next characters.
+		 * @return The current counter object.
+		 */
+		public Counter add(CharSequence input) {
+			for (int i = 0; i < input.length(); i++) {
+				add(input.charAt(i));
+			}
+
+			return this;
+		}
+
+		/**
+		 * Add a character of the input.
+		 *
+		 * @param c The next character.
+		 * @return The current counter object.
+		 */
+		public Counter add(char c) {
+			if (match) {
+				if (c == ' ' || (c >= '\t' && c <= '\r')) { // \s
+					endWord();
+				} else if (!inWord) {
+					inWord = true;
+					wordStart = position;
+					state = edge(ROOT, c);
+				} else if (state >= 0) {
+					state = edge(state, c); // -1 once the word can't be a key.
+				}
+			} else {
+				int next;
+				while ((next = edge(state, c)) < 0 && state != ROOT) {
+					state = fail[state];
+				}
+
+				state = Math.max(next, ROOT);
+
+				for (int node = output[state] >= 0 ? state : dictionary[state]; node >= 0; node = dictionary[node]) {
+					report(node, position + 1);
+				}
+			}
+
+			position++;
+			return this;
+		}
+
+		/**
+		 * End the current line, matches don't span line ends. The end of line
+		 * isn't a character of the input.
+		 */
+		public void endLine() {
+			if (match) {
+				endWord();
+			} else {
+				state = ROOT;
+			}
+		}
+
+		/**
+		 * Get the number of matches of each key in the input added so far.
+		 *
+		 * @return Number of matches of each key, in the order of keys.
+		 */
+		public int[] getCounts() {
+			int[] result = counts.clone();
+
+			if (match && inWord && state > ROOT) {
+				for (int k = output[state]; k >= 0; k = sameKey[k]) {
+					result[k]++; // the last word is complete unless more input follows.
+				}
+			}
+
+			return result;
+		}
+
+		private void endWord() {
+			if (inWord && state > ROOT) {
+				report(state, position);
+			}
+
+			inWord = false;
+			state = ROOT;
+		}
+
+		private void report(int node, long end) {
+			for (int k = output[node]; k >= 0; k = sameKey[k]) {
+				long start = end - keys[k].length();
+
+				if (start >= nextStart[k] && (!match || start == wordStart)) {
+					counts[k]++;
+					nextStart[k] = end;
+
+					if (consumer != null) {
+						consumer.accept(k, (int) start, (int) end);
+					}
+				}
+			}
+		}
+	}
+
+	private int edge(int node, char c) {
+		long key = ((long) node << 16 | c) + 1;
+		int mask = edgeKeys.length - 1;
+
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+			long found = edgeKeys[slot];
+
+			if (found == key) {
+				return edgeTargets[slot];
+			} else if (found == 0) {
+				return -1;
+			}
+		}
+	}
+
+	private void putEdge(int node, char c, int child) {
+		long key = ((long) node << 16 | c) + 1;
+		int mask = edgeKeys.length - 1;
+		int slot = hash(key) & mask;
+
+		while (edgeKeys[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		edgeKeys[slot] = key;
+		edgeTargets[slot] = child;
+	}
+
+	private static int hash(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+	}
+}
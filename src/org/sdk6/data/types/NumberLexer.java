@@ -0,0 +1,295 @@
+package org.sdk6.data.types;
+
+/**
+ * Hand written lexer of the number formats accepted by Long.parseLong and
+ * Double.parseDouble. Invalid input is rejected without throwing, and values
+ * whose digits fit in 53 bits with small exponents are converted in the same
+ * pass without allocation. Only longer or hexadecimal values are handed to
+ * Double.parseDouble after validation.
+ */
+final class NumberLexer {
+	private static final int MAX_DIGITS = 18; // digits which always fit in a long.
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private NumberLexer() {
+	}
+
+	/**
+	 * Parse a decimal long in the format of Long.parseLong.
+	 *
+	 * @param input  The input text.
+	 * @param result Receives the value if valid.
+	 * @return True if valid and false if not.
+	 */
+	static boolean parseLong(CharSequence input, ParsedNumber result) {
+		int length = input == null ? 0 : input.length();
+		if (length == 0) {
+			return false;
+		}
+
+		int i = 0;
+		char c = input.charAt(0);
+		boolean negative = c == '-';
+
+		if (c == '-' || c == '+') {
+			if (length == 1) {
+				return false;
+			}
+
+			i++;
+		}
+
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long value = 0; // accumulated negatively, Long.MIN_VALUE has no positive counterpart.
+
+		for (; i < length; i++) {
+			int digit = Character.digit(input.charAt(i), 10);
+
+			if (digit < 0 || value < limit / 10) {
+				return false;
+			}
+
+			value *= 10;
+			if (value < limit + digit) {
+				return false; // overflow.
+			}
+
+			value -= digit;
+		}
+
+		result.setLong(negative ? value : -value);
+		return true;
+	}
+
+	/**
+	 * Parse a number in the format of Double.parseDouble, including NaN,
+	 * Infinity, type suffixes and hexadecimal values.
+	 *
+	 * @param input  The input text, surrounding whitespace is ignored.
+	 * @param result Receives the value if valid, null to only validate.
+	 * @return True if valid and false if not.
+	 */
+	static boolean parseDouble(CharSequence input, ParsedNumber result) {
+		if (input == null) {
+			return false;
+		}
+
+		int from = 0, to = input.length();
+
+		while (from < to && input.charAt(from) <= ' ') {
+			from++;
+		}
+
+		while (to > from && input.charAt(to - 1) <= ' ') {
+			to--;
+		}
+
+		if (from == to) {
+			return false;
+		}
+
+		int i = from;
+		char c = input.charAt(i);
+		boolean negative = false;
+
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+
+			if (++i == to) {
+				return false;
+			}
+
+			c = input.charAt(i);
+		}
+
+		if (c == 'N' || c == 'I') {
+			if (!matches(input, i, to, c == 'N' ? "NaN" : "Infinity")) {
+				return false;
+			}
+
+			if (result != null) {
+				result.setDouble(c == 'N' ? Double.NaN : negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+			}
+
+			return true;
+		}
+
+		if (c == '0' && i + 1 < to && (input.charAt(i + 1) == 'x' || input.charAt(i + 1) == 'X')) {
+			return parseHex(input, i + 2, to, result);
+		}
+
+		long mantissa = 0;
+		int significant = 0;
+		int exponent = 0;
+		boolean digits = false;
+		boolean exact = true;
+
+		for (; i < to && isDigit(c = input.charAt(i)); i++) {
+			digits = true;
+
+			if (significant < MAX_DIGITS) {
+				mantissa = mantissa * 10 + (c - '0');
+				significant += mantissa == 0 ? 0 : 1;
+			} else {
+				exponent++;
+				exact &= c == '0';
+			}
+		}
+
+		if (i < to && input.charAt(i) == '.') {
+			for (i++; i < to && isDigit(c = input.charAt(i)); i++) {
+				digits = true;
+
+				if (significant < MAX_DIGITS) {
+					mantissa = mantissa * 10 + (c - '0');
+					significant += mantissa == 0 ? 0 : 1;
+					exponent--;
+				} else {
+					exact &= c == '0';
+				}
+			}
+		}
+
+		if (!digits) {
+			return false;
+		}
+
+		if (i < to && ((c = input.charAt(i)) == 'e' || c == 'E')) {
+			int start = ++i;
+			int power = exponent(input, i, to);
+
+			if (power == Integer.MIN_VALUE) {
+				return false;
+			}
+
+			exponent += power;
+			i = skipExponent(input, start, to);
+		}
+
+		if (i < to && isSuffix(input.charAt(i))) {
+			i++;
+		}
+
+		if (i != to) {
+			return false;
+		}
+
+		if (result != null) {
+			if (mantissa == 0) {
+				result.setDouble(negative ? -0.0 : 0.0);
+			} else if (exact && mantissa < (1L << 53) && Math.abs(exponent) < POWERS_OF_TEN.length) {
+				// both operands are exact doubles, so the result is correctly rounded.
+				double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+				result.setDouble(negative ? -value : value);
+			} else {
+				result.setDouble(Double.parseDouble(input.toString()));
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Validate the part of a hexadecimal value after 0x, which needs at least
+	 * one digit and a binary exponent.
+	 */
+	private static boolean parseHex(CharSequence input, int i, int to, ParsedNumber result) {
+		boolean digits = false;
+		char c;
+
+		for (; i < to && Character.digit(c = input.charAt(i), 16) >= 0 && c < 0x80; i++) {
+			digits = true;
+		}
+
+		if (i < to && input.charAt(i) == '.') {
+			for (i++; i < to && Character.digit(c = input.charAt(i), 16) >= 0 && c < 0x80; i++) {
+				digits = true;
+			}
+		}
+
+		if (!digits || i == to || ((c = input.charAt(i)) != 'p' && c != 'P')
+				|| exponent(input, ++i, to) == Integer.MIN_VALUE) {
+			return false;
+		}
+
+		i = skipExponent(input, i, to);
+
+		if (i < to && isSuffix(input.charAt(i))) {
+			i++;
+		}
+
+		if (i != to) {
+			return false;
+		}
+
+		if (result != null) {
+			result.setDouble(Double.parseDouble(input.toString()));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Read a signed exponent, big values are clamped since they overflow to
+	 * zero or infinity anyway.
+	 *
+	 * @return The exponent or Integer.MIN_VALUE if there are no digits.
+	 */
+	private static int exponent(CharSequence input, int i, int to) {
+		boolean negative = false;
+		char c;
+
+		if (i < to && ((c = input.charAt(i)) == '-' || c == '+')) {
+			negative = c == '-';
+			i++;
+		}
+
+		int start = i, power = 0;
+		for (; i < to && isDigit(c = input.charAt(i)); i++) {
+			power = Math.min(power * 10 + (c - '0'), 100000);
+		}
+
+		if (i == start) {
+			return Integer.MIN_VALUE;
+		}
+
+		return negative ? -power : power;
+	}
+
+	private static int skipExponent(CharSequence input, int i, int to) {
+		char c;
+
+		if (i < to && ((c = input.charAt(i)) == '-' || c == '+')) {
+			i++;
+		}
+
+		while (i < to && isDigit(input.charAt(i))) {
+			i++;
+		}
+
+		return i;
+	}
+
+	private static boolean matches(CharSequence input, int i, int to, String word) {
+		if (to - i != word.length()) {
+			return false;
+		}
+
+		for (int j = 0; j < word.length(); j++) {
+			if (input.charAt(i + j) != word.charAt(j)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isSuffix(char c) {
+		return c == 'd' || c == 'D' || c == 'f' || c == 'F';
+	}
+}
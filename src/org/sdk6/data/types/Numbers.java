@@ -1,6 +1,16 @@
 package org.sdk6.data.types;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.sdk6.data.structures.DoubleList;
+import org.sdk6.data.structures.LongList;
+
 public class Numbers {
+	private static final int RANDOM_CHUNK = 1 << 14; // elements filled by each generator.
 
 	/**
 	 * Generate a random number in range of numbers.
@@ -10,7 +20,207 @@ public class Numbers {
 	 * @return The generated number.
 	 */
 	public long generateRandomNumber(long min, long max) {
-		return (long) ((Math.random() * (max - min)) + min);
+		return (long) ((ThreadLocalRandom.current().nextDouble() * (max - min)) + min);
+	}
+
+	/**
+	 * Fill an array with random numbers, big arrays are filled in parallel and
+	 * each thread uses it's own generator.
+	 * 
+	 * @param array The array to fill.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 */
+	public void fill(long[] array, long min, long max) {
+		checkRange(min, max);
+
+		IntStream.range(0, chunks(array.length)).parallel().forEach(chunk -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+
+			for (int i = chunk * RANDOM_CHUNK, end = Math.min(i + RANDOM_CHUNK, array.length); i < end; i++) {
+				array[i] = random.nextLong(min, max);
+			}
+		});
+	}
+
+	/**
+	 * Fill an array with reproducible random numbers, the same seed always gives
+	 * the same values even though big arrays are filled in parallel.
+	 * 
+	 * @param array The array to fill.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 */
+	public void fill(long[] array, long min, long max, long seed) {
+		checkRange(min, max);
+		SplittableRandom[] randoms = split(seed, array.length);
+
+		IntStream.range(0, randoms.length).parallel().forEach(chunk -> {
+			SplittableRandom random = randoms[chunk];
+
+			for (int i = chunk * RANDOM_CHUNK, end = Math.min(i + RANDOM_CHUNK, array.length); i < end; i++) {
+				array[i] = random.nextLong(min, max);
+			}
+		});
+	}
+
+	/**
+	 * Fill an array with random numbers, big arrays are filled in parallel and
+	 * each thread uses it's own generator.
+	 * 
+	 * @param array The array to fill.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 */
+	public void fill(double[] array, double min, double max) {
+		checkRange(min, max);
+
+		IntStream.range(0, chunks(array.length)).parallel().forEach(chunk -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+
+			for (int i = chunk * RANDOM_CHUNK, end = Math.min(i + RANDOM_CHUNK, array.length); i < end; i++) {
+				array[i] = random.nextDouble(min, max);
+			}
+		});
+	}
+
+	/**
+	 * Fill an array with reproducible random numbers, the same seed always gives
+	 * the same values even though big arrays are filled in parallel.
+	 * 
+	 * @param array The array to fill.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 */
+	public void fill(double[] array, double min, double max, long seed) {
+		checkRange(min, max);
+		SplittableRandom[] randoms = split(seed, array.length);
+
+		IntStream.range(0, randoms.length).parallel().forEach(chunk -> {
+			SplittableRandom random = randoms[chunk];
+
+			for (int i = chunk * RANDOM_CHUNK, end = Math.min(i + RANDOM_CHUNK, array.length); i < end; i++) {
+				array[i] = random.nextDouble(min, max);
+			}
+		});
+	}
+
+	/**
+	 * Get a stream of random numbers, parallel streams use a generator for each
+	 * thread so they don't contend on shared state.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @return The stream.
+	 */
+	public LongStream randomLongs(long count, long min, long max) {
+		return ThreadLocalRandom.current().longs(count, min, max);
+	}
+
+	/**
+	 * Get a stream of reproducible random numbers, parallel streams split the
+	 * generator instead of sharing it.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 * @return The stream.
+	 */
+	public LongStream randomLongs(long count, long min, long max, long seed) {
+		return new SplittableRandom(seed).longs(count, min, max);
+	}
+
+	/**
+	 * Get a stream of random numbers, parallel streams use a generator for each
+	 * thread so they don't contend on shared state.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @return The stream.
+	 */
+	public DoubleStream randomDoubles(long count, double min, double max) {
+		return ThreadLocalRandom.current().doubles(count, min, max);
+	}
+
+	/**
+	 * Get a stream of reproducible random numbers, parallel streams split the
+	 * generator instead of sharing it.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 * @return The stream.
+	 */
+	public DoubleStream randomDoubles(long count, double min, double max, long seed) {
+		return new SplittableRandom(seed).doubles(count, min, max);
+	}
+
+	/**
+	 * Create a list of random numbers.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @return The list.
+	 */
+	public LongList randomLongList(int count, long min, long max) {
+		long[] values = new long[count];
+		fill(values, min, max);
+
+		return new LongList().add(values);
+	}
+
+	/**
+	 * Create a list of reproducible random numbers.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 * @return The list.
+	 */
+	public LongList randomLongList(int count, long min, long max, long seed) {
+		long[] values = new long[count];
+		fill(values, min, max, seed);
+
+		return new LongList().add(values);
+	}
+
+	/**
+	 * Create a list of random numbers.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @return The list.
+	 */
+	public DoubleList randomDoubleList(int count, double min, double max) {
+		double[] values = new double[count];
+		fill(values, min, max);
+
+		return new DoubleList().add(values);
+	}
+
+	/**
+	 * Create a list of reproducible random numbers.
+	 * 
+	 * @param count Number of values.
+	 * @param min   Minimum value.
+	 * @param max   Maximum value, exclusive.
+	 * @param seed  The seed of the generator.
+	 * @return The list.
+	 */
+	public DoubleList randomDoubleList(int count, double min, double max, long seed) {
+		double[] values = new double[count];
+		fill(values, min, max, seed);
+
+		return new DoubleList().add(values);
 	}
 
 	/**
@@ -76,4 +286,35 @@ public class Numbers {
 
 		return true;
 	}
+
+	/**
+	 * Split a generator for each chunk in order, so chunk values don't depend on
+	 * which thread fills them.
+	 */
+	private static SplittableRandom[] split(long seed, int length) {
+		SplittableRandom root = new SplittableRandom(seed);
+		SplittableRandom[] randoms = new SplittableRandom[chunks(length)];
+
+		for (int i = 0; i < randoms.length; i++) {
+			randoms[i] = root.split();
+		}
+
+		return randoms;
+	}
+
+	private static int chunks(int length) {
+		return length / RANDOM_CHUNK + (length % RANDOM_CHUNK == 0 ? 0 : 1);
+	}
+
+	private static void checkRange(long min, long max) {
+		if (min >= max) {
+			throw new IllegalArgumentException("Maximum value must be bigger than minimum value");
+		}
+	}
+
+	private static void checkRange(double min, double max) {
+		if (!(min < max)) {
+			throw new IllegalArgumentException("Maximum value must be bigger than minimum value");
+		}
+	}
 }
@@ -0,0 +1,56 @@
+package org.sdk6.data.types;
+
+/**
+ * Result holder of {@link Strings#tryParseLong(CharSequence, ParsedNumber)}
+ * and {@link Strings#tryParseDouble(CharSequence, ParsedNumber)}, one holder
+ * can be reused for every token of a file so parsing doesn't allocate.
+ */
+public final class ParsedNumber {
+	private long longValue;
+	private double doubleValue;
+	private boolean whole;
+
+	/**
+	 * Get the parsed value as long.
+	 *
+	 * @return The value, only exact when {@link #isWhole()} is true.
+	 */
+	public long getLong() {
+		return longValue;
+	}
+
+	/**
+	 * Get the parsed value as double.
+	 *
+	 * @return The value.
+	 */
+	public double getDouble() {
+		return doubleValue;
+	}
+
+	/**
+	 * Check if the last parsed value is a long.
+	 *
+	 * @return True if parsed by tryParseLong and false if not.
+	 */
+	public boolean isWhole() {
+		return whole;
+	}
+
+	void setLong(long value) {
+		longValue = value;
+		doubleValue = value;
+		whole = true;
+	}
+
+	void setDouble(double value) {
+		longValue = (long) value;
+		doubleValue = value;
+		whole = false;
+	}
+
+	@Override
+	public String toString() {
+		return whole ? String.valueOf(longValue) : String.valueOf(doubleValue);
+	}
+}
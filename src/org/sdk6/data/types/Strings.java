@@ -1,5 +1,7 @@
 package org.sdk6.data.types;
 
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -8,9 +10,6 @@ import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
-
 import org.sdk6.data.structures.StringList;
 import org.sdk6.tools.ExternalTools;
 
@@ -116,6 +115,27 @@ public class Strings {
 		return StringUtils.countMatches(input, key);
 	}
 
+	/**
+	 * Count matches of several keys in the input String in a single pass.
+	 * 
+	 * @param input The input String.
+	 * @param keys  The keys you want to search and count matches.
+	 * @param match If true count whitespace separated items equal to a key and
+	 *              false count substrings in the input.
+	 * @return Number of find matches of each key, -1 for each key if the input
+	 *         is empty.
+	 */
+	public int[] countMatches(String input, KeyMatcher keys, boolean match) {
+		if (isNullOrEmpty(input)) {
+			int[] counts = new int[keys.size()];
+			Arrays.fill(counts, -1);
+
+			return counts;
+		}
+
+		return keys.countMatches(input, match);
+	}
+
 	/**
 	 * Reverse input String
 	 * 
@@ -159,12 +179,31 @@ public class Strings {
 	 * @return True if it's all number and false if not.
 	 */
 	public boolean isNumber(String input) {
-		try {
-			Double.parseDouble(input);
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
+		return NumberLexer.parseDouble(input, null);
+	}
+
+	/**
+	 * Parse a long in the format of Long.parseLong without throwing on invalid
+	 * input.
+	 * 
+	 * @param input  The input text.
+	 * @param result Receives the parsed value, can be reused between calls.
+	 * @return True if the text is a valid long and false if not.
+	 */
+	public boolean tryParseLong(CharSequence input, ParsedNumber result) {
+		return NumberLexer.parseLong(input, Objects.requireNonNull(result));
+	}
+
+	/**
+	 * Parse a number in the format of Double.parseDouble without throwing on
+	 * invalid input.
+	 * 
+	 * @param input  The input text.
+	 * @param result Receives the parsed value, can be reused between calls.
+	 * @return True if the text is a valid number and false if not.
+	 */
+	public boolean tryParseDouble(CharSequence input, ParsedNumber result) {
+		return NumberLexer.parseDouble(input, Objects.requireNonNull(result));
 	}
 
 	/**
@@ -276,11 +315,81 @@ public class Strings {
 	 * @return The new array.
 	 */
 	public String[] split(String input, int length, boolean removeWhiteSpaces) {
-		if (removeWhiteSpaces) {
-			input = input.replace(" ", getEmptyString());
+		CharBuffer output = CharBuffer.allocate(input.length());
+		int[] ends = new int[input.length() / Math.max(length, 1) + 1];
+		int count = split(input, length, removeWhiteSpaces, output, ends);
+
+		if (count == 0) {
+			return new String[] { getEmptyString() };
 		}
 
-		return Iterables.toArray(Splitter.fixedLength(length).split(input), String.class);
+		String[] items = new String[count];
+		for (int i = 0, start = 0; i < count; start = ends[i++]) {
+			items[i] = new String(output.array(), start, ends[i] - start);
+		}
+
+		return items;
+	}
+
+	/**
+	 * Splits a text into parts of fixed length without creating objects, the
+	 * characters are copied to the output buffer and the end of each part is
+	 * written to the ends array. Part i starts at ends[i - 1] (0 for the first
+	 * part) and ends at ends[i], relative to the output position before the
+	 * call.
+	 * 
+	 * @param input             The input text.
+	 * @param length            The length for each part.
+	 * @param removeWhiteSpaces If true spaces are skipped in the same pass.
+	 * @param output            Receives the characters of the parts.
+	 * @param ends              Receives the end of each part.
+	 * @return The number of parts, 0 for an empty text.
+	 * @throws BufferOverflowException If the output or ends array is too small.
+	 */
+	public int split(CharSequence input, int length, boolean removeWhiteSpaces, CharBuffer output, int[] ends) {
+		if (length < 1) {
+			throw new IllegalArgumentException("The length may not be less than 1");
+		}
+
+		int start = output.position(), count = 0, part = 0;
+
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (c == ' ' && removeWhiteSpaces) {
+				continue;
+			}
+
+			output.put(c);
+
+			if (++part == length) {
+				count = end(ends, count, output.position() - start);
+				part = 0;
+			}
+		}
+
+		return part > 0 ? end(ends, count, output.position() - start) : count;
+	}
+
+	/**
+	 * Splits a text into parts of fixed length, the parts are read only views of
+	 * the input so no characters are copied.
+	 * 
+	 * @param input  The input text.
+	 * @param length The length for each part.
+	 * @return The parts, empty for an empty text.
+	 */
+	public CharBuffer[] splitViews(CharSequence input, int length) {
+		if (length < 1) {
+			throw new IllegalArgumentException("The length may not be less than 1");
+		}
+
+		CharBuffer[] views = new CharBuffer[(input.length() + length - 1) / length];
+
+		for (int i = 0; i < views.length; i++) {
+			views[i] = CharBuffer.wrap(input, i * length, Math.min((i + 1) * length, input.length()));
+		}
+
+		return views;
 	}
 
 	/**
@@ -326,24 +435,23 @@ public class Strings {
 				}
 			}
 			
-			if (disableSpaceCheck) {
-				input = input.replace(" ", getEmptyString());
-			}
+			TextStatistics statistics = TextStatistics.of(input, disableSpaceCheck);
+			boolean empty = statistics.getCharacters() == 0; // countMatches returns -1 for empty text.
 
 			if (list.contains("w")) {
-				items.add(input.split("\\s+").length);
+				items.add(statistics.getSplitCount());
 			}
 			
 			if (list.contains("c")) {
-				items.add(input.toCharArray().length);
+				items.add(statistics.getCharacters());
 			}
 			
 			if (list.contains("l")) {
-				items.add(countMatches(input, "\n", null, false));
+				items.add(empty ? -1 : statistics.getNewlines());
 			}
 			
 			if (list.contains("s")) {
-				items.add(countMatches(input, " ", null, false));
+				items.add(empty ? -1 : statistics.getSpaces());
 			}
 
 			return items.toArray();
@@ -352,4 +460,13 @@ public class Strings {
 			return null;
 		}
 	}
+
+	private static int end(int[] ends, int count, int end) {
+		if (count == ends.length) {
+			throw new BufferOverflowException();
+		}
+
+		ends[count] = end;
+		return count + 1;
+	}
 }
@@ -0,0 +1,229 @@
+package org.sdk6.data.types;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Words, characters, lines, spaces and empty lines of a text, computed together
+ * in a single pass over a CharSequence or a Reader. Whitespace is the set of
+ * the \s regex class (space, \t, \n, \x0B, \f and \r) and lines end at \n,
+ * \r or \r\n like BufferedReader.readLine.
+ */
+public final class TextStatistics {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final boolean skipSpaces;
+	private long characters;
+	private long words;
+	private long spaces;
+	private long newlines;
+	private long lines;
+	private long emptyLines;
+	private long lineCharacters;
+	private boolean leadingWhitespace;
+
+	// scanner state.
+	private boolean inWord;
+	private boolean previousReturn;
+	private long lineLength;
+
+	private TextStatistics(boolean skipSpaces) {
+		this.skipSpaces = skipSpaces;
+	}
+
+	/**
+	 * Scan a text.
+	 *
+	 * @param text The input text.
+	 * @return The statistics of the text.
+	 */
+	public static TextStatistics of(CharSequence text) {
+		return of(text, false);
+	}
+
+	/**
+	 * Scan a text.
+	 *
+	 * @param text       The input text.
+	 * @param skipSpaces Scan the text as if all spaces were removed.
+	 * @return The statistics of the text.
+	 */
+	public static TextStatistics of(CharSequence text, boolean skipSpaces) {
+		TextStatistics statistics = new TextStatistics(skipSpaces);
+		int length = text.length();
+
+		for (int i = 0; i < length; i++) {
+			statistics.accept(text.charAt(i));
+		}
+
+		return statistics.finish();
+	}
+
+	/**
+	 * Scan all characters of a reader, the reader is not closed.
+	 *
+	 * @param reader The input reader.
+	 * @return The statistics of the read text.
+	 * @throws IOException If reading fails.
+	 */
+	public static TextStatistics of(Reader reader) throws IOException {
+		return of(reader, false);
+	}
+
+	/**
+	 * Scan all characters of a reader, the reader is not closed.
+	 *
+	 * @param reader     The input reader.
+	 * @param skipSpaces Scan the text as if all spaces were removed.
+	 * @return The statistics of the read text.
+	 * @throws IOException If reading fails.
+	 */
+	public static TextStatistics of(Reader reader, boolean skipSpaces) throws IOException {
+		TextStatistics statistics = new TextStatistics(skipSpaces);
+		char[] buffer = new char[BUFFER_SIZE];
+
+		for (int count; (count = reader.read(buffer)) != -1;) {
+			for (int i = 0; i < count; i++) {
+				statistics.accept(buffer[i]);
+			}
+		}
+
+		return statistics.finish();
+	}
+
+	/**
+	 * Get the number of characters.
+	 *
+	 * @return The number of characters, line separators included.
+	 */
+	public long getCharacters() {
+		return characters;
+	}
+
+	/**
+	 * Get the number of words, a word is a run of characters which are not
+	 * whitespace.
+	 *
+	 * @return The number of words.
+	 */
+	public long getWords() {
+		return words;
+	}
+
+	/**
+	 * Get the length of the array returned by text.split("\\s+"), which counts
+	 * an empty first element when the text starts with whitespace and is 1 for
+	 * an empty text.
+	 *
+	 * @return The number of split elements.
+	 */
+	public long getSplitCount() {
+		if (characters == 0) {
+			return 1;
+		}
+
+		return words == 0 ? 0 : words + (leadingWhitespace ? 1 : 0);
+	}
+
+	/**
+	 * Get the number of space characters.
+	 *
+	 * @return The number of spaces.
+	 */
+	public long getSpaces() {
+		return spaces;
+	}
+
+	/**
+	 * Get the number of \n characters.
+	 *
+	 * @return The number of line feeds.
+	 */
+	public long getNewlines() {
+		return newlines;
+	}
+
+	/**
+	 * Get the number of lines, the last line counts only if it isn't empty.
+	 *
+	 * @return The number of lines.
+	 */
+	public long getLines() {
+		return lines;
+	}
+
+	/**
+	 * Get the number of lines without characters.
+	 *
+	 * @return The number of empty lines.
+	 */
+	public long getEmptyLines() {
+		return emptyLines;
+	}
+
+	/**
+	 * Get the number of characters which are not line separators.
+	 *
+	 * @return The number of characters in lines.
+	 */
+	public long getLineCharacters() {
+		return lineCharacters;
+	}
+
+	@Override
+	public String toString() {
+		return "TextStatistics[characters=" + characters + ", words=" + words + ", spaces=" + spaces + ", lines="
+				+ lines + ", emptyLines=" + emptyLines + "]";
+	}
+
+	private void accept(char c) {
+		if (c == ' ' && skipSpaces) {
+			return;
+		}
+
+		boolean whitespace = c == ' ' || (c >= '\t' && c <= '\r'); // \t, \n, \x0B, \f and \r.
+
+		if (characters++ == 0) {
+			leadingWhitespace = whitespace;
+		}
+
+		if (whitespace) {
+			inWord = false;
+		} else if (!inWord) {
+			inWord = true;
+			words++;
+		}
+
+		if (c == '\n') {
+			newlines++;
+
+			if (!previousReturn) {
+				endLine();
+			}
+
+			previousReturn = false; // \r\n is a single separator.
+		} else if (c == '\r') {
+			endLine();
+			previousReturn = true;
+		} else {
+			spaces += c == ' ' ? 1 : 0;
+			lineLength++;
+			lineCharacters++;
+			previousReturn = false;
+		}
+	}
+
+	private void endLine() {
+		lines++;
+		emptyLines += lineLength == 0 ? 1 : 0;
+		lineLength = 0;
+	}
+
+	private TextStatistics finish() {
+		if (lineLength > 0) {
+			lines++; // last line without separator.
+		}
+
+		return this;
+	}
+}
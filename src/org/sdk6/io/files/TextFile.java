@@ -9,7 +9,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.sdk6.data.types.KeyMatcher;
 import org.sdk6.data.types.Strings;
+import org.sdk6.data.types.TextStatistics;
 
 public class TextFile extends FileUtils {
 
@@ -218,6 +220,44 @@ public class TextFile extends FileUtils {
 		}
 	}
 
+	/**
+	 * Search the file for several keys in a single read.
+	 * 
+	 * @param keys  The keys to search the file.
+	 * @param match If true it will search lines equal to a key.
+	 * @return For each key true if found and false if not.
+	 */
+	public boolean[] search(KeyMatcher keys, boolean match) {
+		boolean[] found = new boolean[keys.size()];
+
+		try (BufferedReader br = new BufferedReader(new FileReader(path.toFile()))) {
+			KeyMatcher.Counter counter = keys.counter(false);
+
+			for (String line; (line = br.readLine()) != null;) {
+				if (match) {
+					int key = keys.indexOf(line);
+					if (key >= 0) {
+						found[key] = true;
+					}
+				} else {
+					counter.add(line).endLine();
+				}
+			}
+
+			int[] counts = counter.getCounts();
+
+			for (int i = 0; i < found.length; i++) {
+				int first = keys.indexOf(keys.getKey(i)); // indexOf only returns the first of equal keys.
+				found[i] = match ? first >= 0 && found[first] : counts[i] > 0;
+			}
+
+			return found;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return found;
+		}
+	}
+
 	/**
 	 * Clear the file content.
 	 * 
@@ -255,7 +295,7 @@ public class TextFile extends FileUtils {
 	 * @return Number of file lines.
 	 */
 	public int countLines() throws IOException {
-		return java.nio.file.Files.readAllLines(path).size();
+		return (int) statistics().getLines();
 	}
 
 	/**
@@ -264,16 +304,7 @@ public class TextFile extends FileUtils {
 	 * @return Number of file empty lines.
 	 */
 	public int countEmptyLines() throws IOException {
-		List<String> content = readAllLines();
-		int count = 0;
-
-		for (String line : content) {
-			if (new Strings().isNullOrEmpty(line) && !line.equals("\n")) {
-				count++;
-			}
-		}
-
-		return count;
+		return (int) statistics().getEmptyLines();
 	}
 
 	/**
@@ -282,7 +313,7 @@ public class TextFile extends FileUtils {
 	 * @return Number of file words.
 	 */
 	public int countWords() throws IOException {
-		return read().split("\\s+").length;
+		return (int) statistics().getSplitCount();
 	}
 
 	/**
@@ -292,21 +323,21 @@ public class TextFile extends FileUtils {
 	 * @return Number of file characters.
 	 */
 	public int countCharacters(boolean empty) throws IOException {
-		int total = read().toCharArray().length;
-
-		if (empty) {
-			return total;
-		} else {
-			char[] content = read().toCharArray();
-			int count = 0;
+		TextStatistics statistics = statistics();
+		long total = statistics.getLineCharacters() + statistics.getLines(); // read() ends each line with \n.
 
-			for (char c : content) {
-				if (String.valueOf(c).equals(" ")) {
-					count++;
-				}
-			}
+		return (int) (empty ? total : total - statistics.getSpaces());
+	}
 
-			return total - count;
+	/**
+	 * Count file words, characters, lines, spaces and empty lines in a single
+	 * read of the file.
+	 * 
+	 * @return The statistics of the file content.
+	 */
+	public TextStatistics statistics() throws IOException {
+		try (BufferedReader br = new BufferedReader(new FileReader(path.toFile()))) {
+			return TextStatistics.of(br);
 		}
 	}
 
@@ -320,4 +351,33 @@ public class TextFile extends FileUtils {
 	public int countMatches(String key, boolean match) throws IOException {
 		return new Strings().countMatches(read(), key, "\\s+", match);
 	}
+
+	/**
+	 * Search the file content and count matches of several keys in a single
+	 * read of the file.
+	 * 
+	 * @param keys  The keys want to search in the file.
+	 * @param match Exact match of words in the file.
+	 * @return Number of matches of each key, -1 for each key if the file is
+	 *         empty.
+	 */
+	public int[] countMatches(KeyMatcher keys, boolean match) throws IOException {
+		try (BufferedReader br = new BufferedReader(new FileReader(path.toFile()))) {
+			KeyMatcher.Counter counter = keys.counter(match);
+			boolean empty = true;
+
+			for (String line; (line = br.readLine()) != null; empty = false) {
+				counter.add(line).add('\n'); // same text as read().
+			}
+
+			if (empty) {
+				int[] counts = new int[keys.size()];
+				Arrays.fill(counts, -1);
+
+				return counts;
+			}
+
+			return counter.getCounts();
+		}
+	}
 }
\ No newline at end of file
@@ -6,20 +6,43 @@ import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
-import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The main Alice API for encryption and decryption of byte arrays and files.
  */
 public class Alice {
+    private static final int MINIMUM_BATCH_RANGE = 64;
+
     private final AliceContext context;
-    private final Cipher cipher;
+    private final InstancePool<Cipher> cipherPool;
+    private final InstancePool<Mac> macPool;
+    private final int macLength;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final AtomicLong clearCount = new AtomicLong();
+    private volatile AliceKeyCache keyCache;
 
     /**
      * Initializes a new {@code Alice} object for encryption and decryption. See
@@ -29,67 +52,61 @@ public class Alice {
      */
     @SuppressWarnings("WeakerAccess")
     public Alice(AliceContext context) {
-        if (context == null ||
-                context.getAlgorithm() == null ||
-                context.getMode() == null ||
-                context.getPadding() == null ||
-                context.getKeyLength() == null ||
-                context.getPbkdf() == null ||
-                context.getMacAlgorithm() == null) {
+        this(context, Runtime.getRuntime().availableProcessors());
+    }
 
+    /**
+     * Initializes a new {@code Alice} object for encryption and decryption. See
+     * {@link com.rockaport.alice.AliceContext} for an explanation of options. An {@code Alice} object can be used by
+     * several threads at once, each operation takes a {@link javax.crypto.Cipher} and {@link javax.crypto.Mac} from a
+     * pool and gives them back when it's done. Instances are initialized with an all-zero key when they are given back,
+     * so idle instances don't keep a derived key or password in memory.
+     *
+     * @param context  an {@link com.rockaport.alice.AliceContext}
+     * @param poolSize the maximum number of idle {@link javax.crypto.Cipher} and {@link javax.crypto.Mac} instances
+     *                 kept for reuse, more are created when more threads need one at the same time
+     */
+    @SuppressWarnings("WeakerAccess")
+    public Alice(final AliceContext context, int poolSize) {
+        if (context == null) {
             throw new IllegalArgumentException("Context, algorithm, mode, or padding is null");
         }
 
-        // Algorithm/mode specific validation
-        switch (context.getAlgorithm()) {
-            case AES:
-                switch (context.getMode()) {
-                    case CBC:
-                    case CTR:
-                        if (context.getIvLength() != 16) {
-                            throw new IllegalArgumentException("CBC or CTR mode is selected but the IV length is not 16");
-                        }
-                        break;
-                    case GCM:
-                        if (context.getGcmTagLength() == null) {
-                            throw new IllegalArgumentException("GCM mode is selected but the tag length is null");
-                        }
-
-                        if (context.getIvLength() <= 0) {
-                            throw new IllegalArgumentException("GCM mode is selected but the IV length is invalid");
-                        }
-                        break;
-                }
-                break;
-            case DES:
-                if (context.getIvLength() != 8) {
-                    throw new IllegalArgumentException("DES algorithm is selected but the IV length is not 8 " +
-                            "(" + context.getIvLength() + ")");
-                }
-                break;
-        }
+        context.validate();
 
-        // PBKDF iterations validation
-        switch (context.getPbkdf()) {
-            case PBKDF_2_WITH_HMAC_SHA_1:
-            case PBKDF_2_WITH_HMAC_SHA_256:
-            case PBKDF_2_WITH_HMAC_SHA_384:
-            case PBKDF_2_WITH_HMAC_SHA_512:
-                if (context.getIterations() <= 0) {
-                    throw new IllegalArgumentException("PBKDF is selected, but the number of iterations is invalid");
-                }
-                break;
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size is invalid");
         }
 
         this.context = context;
+        this.cipherPool = new InstancePool<>(() -> Cipher.getInstance(
+                context.getAlgorithm() + "/" + context.getMode() + "/" + context.getPadding()), this::clearCipher,
+                poolSize);
+        this.macPool = new InstancePool<>(() -> Mac.getInstance(context.getMacAlgorithm().toString()), this::clearMac,
+                poolSize);
 
         try {
-            cipher = Cipher.getInstance(context.getAlgorithm() + "/" + context.getMode() + "/" + context.getPadding());
+            // fail early on unavailable algorithms, the instances stay in the pools
+            cipherPool.release(cipherPool.acquire());
+
+            if (context.getMacAlgorithm() == AliceContext.MacAlgorithm.NONE) {
+                macLength = 0;
+            } else {
+                Mac mac = macPool.acquire();
+
+                macLength = mac.getMacLength();
+                macPool.release(mac);
+            }
         } catch (GeneralSecurityException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @SuppressWarnings("WeakerAccess")
+    public AliceContext getContext() {
+        return context;
+    }
+
     /**
      * Generates an AES, DES, or 3DES key
      *
@@ -135,7 +152,8 @@ public class Alice {
     }
 
     /**
-     * Gets a {@link javax.crypto.Mac} instance
+     * Gets a {@link javax.crypto.Mac} instance from the pool, which should be given back with
+     * {@code macPool.release}
      *
      * @param macAlgorithm the {@link com.rockaport.alice.AliceContext.MacAlgorithm}
      * @param password     a password
@@ -143,13 +161,126 @@ public class Alice {
      * @throws GeneralSecurityException if MAC initialization fails
      */
     private Mac getMac(AliceContext.MacAlgorithm macAlgorithm, char[] password) throws GeneralSecurityException {
-        Mac mac = Mac.getInstance(macAlgorithm.toString());
+        Mac mac = macPool.acquire();
 
-        mac.init(new SecretKeySpec(toBytes(password), macAlgorithm.toString()));
+        try {
+            mac.init(new SecretKeySpec(toBytes(password), macAlgorithm.toString()));
+        } catch (GeneralSecurityException e) {
+            macPool.release(mac);
+            throw e;
+        }
 
         return mac;
     }
 
+    /**
+     * Sets a cache of PBKDF derived keys, which saves the PBKDF iterations when a key is derived again from the same
+     * password and salt, for example when a message is decrypted more than once or when chunks of a container are
+     * decrypted one at a time. Byte array and file encryption use a random salt per message and never hit the cache,
+     * use {@link #openSession(char[])} to derive one key for many messages.
+     *
+     * @param keyCache the {@link AliceKeyCache}, {@code null} disables caching
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void setKeyCache(AliceKeyCache keyCache) {
+        this.keyCache = keyCache;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public AliceKeyCache getKeyCache() {
+        return keyCache;
+    }
+
+    /**
+     * Opens a session which derives the key from the password once and encrypts any number of messages with it, each
+     * with its own random IV. See {@link AliceSession}.
+     *
+     * @param password the password
+     * @return an {@link AliceSession}
+     * @throws GeneralSecurityException if the key derivation fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public AliceSession openSession(char[] password) throws GeneralSecurityException {
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        byte[] salt = generateInitializationVector();
+
+        return new AliceSession(this, password, salt, deriveKey(password, salt).getEncoded());
+    }
+
+    /**
+     * Encrypts many small records with one key derivation, see {@link AliceSession#encrypt(byte[][])}. The records
+     * are in the session message format and can be decrypted one at a time by an {@link AliceSession} with the same
+     * password.
+     *
+     * @param records  the records
+     * @param password the password
+     * @return the encrypted records, in the same order
+     * @throws GeneralSecurityException if the key derivation, initialization or encryption fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[][] encryptBatch(byte[][] records, char[] password) throws GeneralSecurityException {
+        try (AliceSession session = openSession(password)) {
+            return session.encrypt(records);
+        }
+    }
+
+    /**
+     * Encrypts a list of records, see {@link #encryptBatch(byte[][], char[])}
+     *
+     * @param records  the records
+     * @param password the password
+     * @return the encrypted records, in the same order
+     * @throws GeneralSecurityException if the key derivation, initialization or encryption fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public List<byte[]> encryptBatch(List<byte[]> records, char[] password) throws GeneralSecurityException {
+        if (records == null) {
+            throw new IllegalArgumentException("Records are null");
+        }
+
+        return Arrays.asList(encryptBatch(records.toArray(new byte[0][]), password));
+    }
+
+    /**
+     * Decrypts records encrypted by {@link #encryptBatch(byte[][], char[])} or an {@link AliceSession}. The key is
+     * derived once per distinct salt in the batch, so records of the same batch or session share one derivation.
+     *
+     * @param records  the encrypted records
+     * @param password the password
+     * @return the decrypted records, in the same order
+     * @throws GeneralSecurityException if the key derivation, initialization, decryption, or the MAC comparison of any
+     *                                  record fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[][] decryptBatch(byte[][] records, char[] password) throws GeneralSecurityException {
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        return decryptMessages(records, password, null, null);
+    }
+
+    /**
+     * Decrypts a list of records, see {@link #decryptBatch(byte[][], char[])}
+     *
+     * @param records  the encrypted records
+     * @param password the password
+     * @return the decrypted records, in the same order
+     * @throws GeneralSecurityException if the key derivation, initialization, decryption, or the MAC comparison of any
+     *                                  record fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public List<byte[]> decryptBatch(List<byte[]> records, char[] password) throws GeneralSecurityException {
+        if (records == null) {
+            throw new IllegalArgumentException("Records are null");
+        }
+
+        return Arrays.asList(decryptBatch(records.toArray(new byte[0][]), password));
+    }
+
     /**
      * Encrypts a byte array using the supplied password
      *
@@ -160,7 +291,7 @@ public class Alice {
      * @throws IOException if there's a problem constructing the result
      */
     @SuppressWarnings("WeakerAccess")
-    public synchronized byte[] encrypt(byte[] input, char[] password) throws GeneralSecurityException, IOException {
+    public byte[] encrypt(byte[] input, char[] password) throws GeneralSecurityException, IOException {
         if (input == null || input.length == 0) {
             throw new IllegalArgumentException("Input is either null or empty");
         }
@@ -171,24 +302,36 @@ public class Alice {
 
         // generate the initialization vector
         byte[] initializationVector = generateInitializationVector();
+        SecretKey key = deriveKey(password, initializationVector);
+        byte[] encryptedBytes;
 
-        // initialize the cipher
-        cipher.init(Cipher.ENCRYPT_MODE,
-                deriveKey(password, initializationVector),
-                getAlgorithmParameterSpec(context.getMode(), initializationVector));
+        Cipher cipher = cipherPool.acquire();
+
+        try {
+            // initialize the cipher
+            cipher.init(Cipher.ENCRYPT_MODE, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
 
-        // encrypt
-        byte[] encryptedBytes = cipher.doFinal(input);
+            // encrypt
+            encryptedBytes = cipher.doFinal(input);
+        } finally {
+            cipherPool.release(cipher);
+        }
 
         // construct the output (IV || CIPHER)
         ByteArrayOutputStream output = new ByteArrayOutputStream();
 
-        output.write(cipher.getIV());
+        output.write(initializationVector);
         output.write(encryptedBytes);
 
         // compute the MAC if needed and append the MAC (IV || CIPHER || MAC)
         if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
-            output.write(getMac(context.getMacAlgorithm(), password).doFinal(encryptedBytes));
+            Mac mac = getMac(context.getMacAlgorithm(), password);
+
+            try {
+                output.write(mac.doFinal(encryptedBytes));
+            } finally {
+                macPool.release(mac);
+            }
         }
 
         return output.toByteArray();
@@ -204,7 +347,7 @@ public class Alice {
      * @throws IOException              if there's a failure to read/write from/to the input/output file
      */
     @SuppressWarnings("WeakerAccess")
-    public synchronized void encrypt(File input, File output, char[] password)
+    public void encrypt(File input, File output, char[] password)
             throws GeneralSecurityException, IOException {
         if (input == null || !input.exists() || input.length() <= 0) {
             throw new IllegalArgumentException("Input file is either null or does not exist");
@@ -218,344 +361,1558 @@ public class Alice {
             throw new IllegalArgumentException("Password is either null or empty");
         }
 
-        BufferedInputStream bufferedInputStream = null;
-        BufferedOutputStream bufferedOutputStream = null;
+        FileChannel inputChannel = null;
+        FileChannel outputChannel = null;
 
         try {
-            // generate the initialization vector
-            byte[] initializationVector = generateInitializationVector();
-
-            // initialize the cipher
-            cipher.init(Cipher.ENCRYPT_MODE,
-                    deriveKey(password, initializationVector),
-                    getAlgorithmParameterSpec(context.getMode(), initializationVector));
-
-            // initialize the mac if needed
-            Mac mac = null;
-
-            if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
-                mac = getMac(context.getMacAlgorithm(), password);
-            }
-
-            // allocate variables
-            int bytesRead;
-            byte[] encryptedBytes;
-            byte[] inputStreamBuffer = new byte[4096];
-
-            // setup streams
-            bufferedInputStream = new BufferedInputStream(new FileInputStream(input));
-            bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(output));
-
-            // write the initialization vector
-            bufferedOutputStream.write(initializationVector);
-
-            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
-                // encrypt
-                encryptedBytes = cipher.update(inputStreamBuffer, 0, bytesRead);
-
-                bufferedOutputStream.write(encryptedBytes);
-
-                // compute the mac if needed
-                if (mac != null) {
-                    mac.update(encryptedBytes);
-                }
-            }
-
-            // finalize and write the cipher
-            byte[] finaleEncryptedBytes = cipher.doFinal();
-
-            bufferedOutputStream.write(finaleEncryptedBytes);
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+            outputChannel = FileChannel.open(output.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
 
-            // write the mac
-            if (mac != null) {
-                bufferedOutputStream.write(mac.doFinal(finaleEncryptedBytes));
-            }
+            encrypt(inputChannel, outputChannel, password);
         } finally {
-            closeStream(bufferedInputStream);
-            closeStream(bufferedOutputStream);
+            closeStream(inputChannel);
+            closeStream(outputChannel);
         }
     }
 
     /**
-     * Encrypts the input stream using the supplied password
+     * Gets the length of the output of {@link #encrypt(byte[], char[])} or {@link #encrypt(ByteBuffer, ByteBuffer,
+     * char[])} for an input length
      *
-     * @param input    the input file
-     * @param output   the output file
+     * @param inputLength the input length
+     * @return the length of {@code IV || CIPHER || MAC}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public int getEncryptedLength(int inputLength) {
+        return context.getIvLength() + getSealedLength(inputLength);
+    }
+
+    /**
+     * Encrypts the remaining bytes of a buffer into another buffer using the supplied password, in the format of
+     * {@link #encrypt(byte[], char[])}. Direct and memory-mapped buffers are encrypted in place without copies to the
+     * heap. The input position is moved to its limit and the output position past the written bytes.
+     *
+     * @param input    the input buffer
+     * @param output   the output buffer, with at least {@link #getEncryptedLength(int)} bytes remaining
      * @param password the password
-     * @throws GeneralSecurityException if initialization or encryption fails
-     * @throws IOException              if there's a failure to read/write from/to the input/output stream
+     * @return the number of bytes written to the output
+     * @throws GeneralSecurityException if initialization or encryption fails or the output is too small
      */
     @SuppressWarnings("WeakerAccess")
-    public synchronized void encrypt(InputStream input, OutputStream output, char[] password)
-            throws GeneralSecurityException, IOException {
-        if (input == null || output == null) {
-            throw new IllegalArgumentException("Input or output stream is null");
+    public int encrypt(ByteBuffer input, ByteBuffer output, char[] password) throws GeneralSecurityException {
+        if (input == null || !input.hasRemaining()) {
+            throw new IllegalArgumentException("Input is either null or empty");
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("Output is null");
         }
 
         if (password == null || password.length == 0) {
             throw new IllegalArgumentException("Password is either null or empty");
         }
 
-        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
-            throw new IllegalArgumentException("Streaming encryption does not support authenticated encryption");
+        if (output.remaining() < getEncryptedLength(input.remaining())) {
+            throw new ShortBufferException("Output buffer needs " + getEncryptedLength(input.remaining()) + " bytes");
         }
 
-        BufferedInputStream bufferedInputStream = null;
-        BufferedOutputStream bufferedOutputStream = null;
+        // generate the initialization vector
+        byte[] initializationVector = generateInitializationVector();
+        SecretKey key = deriveKey(password, initializationVector);
+        int start = output.position();
 
-        try {
-            // generate the initialization vector
-            byte[] initializationVector = generateInitializationVector();
+        output.put(initializationVector);
 
-            // initialize the cipher
-            cipher.init(Cipher.ENCRYPT_MODE,
-                    deriveKey(password, initializationVector),
-                    getAlgorithmParameterSpec(context.getMode(), initializationVector));
+        ByteBuffer cipherText = output.duplicate();
+        Cipher cipher = cipherPool.acquire();
 
-            // setup streams
-            bufferedInputStream = new BufferedInputStream(input);
-            bufferedOutputStream = new BufferedOutputStream(output);
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+            cipher.doFinal(input, output);
+        } finally {
+            cipherPool.release(cipher);
+        }
 
-            // write the initialization vector
-            bufferedOutputStream.write(initializationVector);
+        // compute the MAC of the cipher text if needed and append it
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            Mac mac = getMac(context.getMacAlgorithm(), password);
 
-            // allocate variables
-            int bytesRead;
-            byte[] inputStreamBuffer = new byte[4096];
-            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
-                // encrypt
-                bufferedOutputStream.write(cipher.update(inputStreamBuffer, 0, bytesRead));
+            try {
+                cipherText.limit(output.position());
+                mac.update(cipherText);
+                output.put(mac.doFinal());
+            } finally {
+                macPool.release(mac);
             }
-
-            // finalize and write the cipher
-            bufferedOutputStream.write(cipher.doFinal());
-        } finally {
-            closeStream(bufferedInputStream);
-            closeStream(bufferedOutputStream);
         }
+
+        return output.position() - start;
     }
 
     /**
-     * Decrypts a byte array using the supplied password
+     * Decrypts the remaining bytes of a buffer, a whole message in the format of {@link #encrypt(byte[], char[])},
+     * into another buffer using the supplied password. The MAC is verified before anything is decrypted. The input
+     * position is moved to its limit and the output position past the written bytes.
      *
-     * @param input    the byte array input
+     * @param input    the input buffer
+     * @param output   the output buffer, with at least as many bytes remaining as the cipher text
      * @param password the password
-     * @return a decrypted byte array
-     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails
+     * @return the number of bytes written to the output
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails or the output is
+     *                                  too small
      */
     @SuppressWarnings("WeakerAccess")
-    public synchronized byte[] decrypt(byte[] input, char[] password) throws GeneralSecurityException {
-        if (input == null || input.length == 0) {
+    public int decrypt(ByteBuffer input, ByteBuffer output, char[] password) throws GeneralSecurityException {
+        if (input == null || !input.hasRemaining()) {
             throw new IllegalArgumentException("Input is either null or empty");
         }
 
+        if (output == null) {
+            throw new IllegalArgumentException("Output is null");
+        }
+
         if (password == null || password.length == 0) {
             throw new IllegalArgumentException("Password is either null or empty");
         }
 
+        int cipherLength = input.remaining() - context.getIvLength() - macLength;
+
+        if (cipherLength < 0) {
+            throw new IllegalArgumentException("Input does not contain sufficient data for decryption");
+        }
+
         // deconstruct the input
-        byte[] initializationVector = Arrays.copyOfRange(input, 0, context.getIvLength());
+        byte[] initializationVector = new byte[context.getIvLength()];
 
-        byte[] cipherText;
+        input.get(initializationVector);
 
-        // extract the MAC if needed
-        if (context.getMacAlgorithm() == AliceContext.MacAlgorithm.NONE) {
-            cipherText = Arrays.copyOfRange(input, context.getIvLength(), input.length);
-        } else {
-            Mac mac = getMac(context.getMacAlgorithm(), password);
+        ByteBuffer cipherText = input.duplicate();
 
-            cipherText = Arrays.copyOfRange(input, context.getIvLength(), input.length - mac.getMacLength());
-            byte[] recMac = Arrays.copyOfRange(input, input.length - mac.getMacLength(), input.length);
+        cipherText.limit(input.position() + cipherLength);
 
-            // compute the mac
-            byte[] macBytes = mac.doFinal(cipherText);
+        // verify the MAC if needed
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            byte[] recMac = new byte[macLength];
+            byte[] macBytes;
 
-            // verify the macs are the same
-            if (!Arrays.equals(recMac, macBytes)) {
+            input.position(cipherText.limit());
+            input.get(recMac);
+
+            Mac mac = getMac(context.getMacAlgorithm(), password);
+
+            try {
+                mac.update(cipherText.duplicate());
+                macBytes = mac.doFinal();
+            } finally {
+                macPool.release(mac);
+            }
+
+            if (!MessageDigest.isEqual(recMac, macBytes)) {
                 throw new GeneralSecurityException("Received mac is different from calculated");
             }
         }
 
-        // initialize the cipher
-        cipher.init(Cipher.DECRYPT_MODE,
-                deriveKey(password, initializationVector),
-                getAlgorithmParameterSpec(context.getMode(), initializationVector));
+        SecretKey key = deriveKey(password, initializationVector);
+        int start = output.position();
+        Cipher cipher = cipherPool.acquire();
+
+        try {
+            initDecryption(cipher, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+            cipher.doFinal(cipherText, output);
+        } finally {
+            cipherPool.release(cipher);
+        }
+
+        input.position(input.limit());
 
-        return cipher.doFinal(cipherText);
+        return output.position() - start;
     }
 
     /**
-     * Decrypts an input file using the supplied password
+     * Encrypts a channel into another channel using the supplied password, in the format of
+     * {@link #encrypt(File, File, char[])}. Data is moved through direct buffers of {@link AliceContext#getChunkSize()}
+     * bytes, so large chunk sizes need few system calls and no copies to the heap. Neither channel is closed.
      *
-     * @param input    the input file
-     * @param output   the output file
+     * @param input    the input channel, read until its end
+     * @param output   the output channel
      * @param password the password
-     * @throws GeneralSecurityException if initialization or decryption fails
-     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     * @throws GeneralSecurityException if initialization or encryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output channel
      */
     @SuppressWarnings("WeakerAccess")
-    public synchronized void decrypt(File input, File output, char[] password)
+    public void encrypt(ReadableByteChannel input, WritableByteChannel output, char[] password)
             throws GeneralSecurityException, IOException {
-        if (input == null || !input.exists() || input.length() <= 0) {
-            throw new IllegalArgumentException("Input file is either null or does not exist");
-        }
-
-        if (output == null) {
-            throw new IllegalArgumentException("Output file is null");
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input or output channel is null");
         }
 
         if (password == null || password.length == 0) {
             throw new IllegalArgumentException("Password is either null or empty");
         }
 
-        BufferedInputStream bufferedInputStream = null;
-        BufferedOutputStream bufferedOutputStream = null;
+        // generate the initialization vector
+        byte[] initializationVector = generateInitializationVector();
+        SecretKey key = deriveKey(password, initializationVector);
+
+        Cipher cipher = cipherPool.acquire();
+        Mac mac = null;
 
         try {
-            // read the mac if needed
-            Mac mac = null;
-            byte[] recMac = null;
+            cipher.init(Cipher.ENCRYPT_MODE, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
 
             if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
                 mac = getMac(context.getMacAlgorithm(), password);
+            }
 
-                recMac = new byte[mac.getMacLength()];
-
-                RandomAccessFile randomAccessFile = new RandomAccessFile(input, "r");
-
-                if (randomAccessFile.length() - mac.getMacLength() <= 0) {
-                    throw new IOException("File does not contain sufficient data for decryption");
-                }
-
-                randomAccessFile.seek(randomAccessFile.length() - mac.getMacLength());
-                randomAccessFile.read(recMac);
+            // write the initialization vector
+            writeFully(output, ByteBuffer.wrap(initializationVector));
 
-                randomAccessFile.close();
-            }
+            ByteBuffer inputBuffer = ByteBuffer.allocateDirect(context.getChunkSize());
+            ByteBuffer outputBuffer = ByteBuffer.allocateDirect(cipher.getOutputSize(context.getChunkSize()));
+            boolean end = false;
 
-            // setup streams
-            bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(output));
-            bufferedInputStream = new BufferedInputStream(new FileInputStream(input));
+            while (!end) {
+                end = !readFully(input, inputBuffer);
+                inputBuffer.flip();
 
-            // read the initialization vector
-            byte[] initializationVector = new byte[context.getIvLength()];
+                outputBuffer = transformBuffer(cipher, inputBuffer, outputBuffer, end);
 
-            int ivBytesRead = bufferedInputStream.read(initializationVector);
+                if (mac != null) {
+                    mac.update(outputBuffer.duplicate());
+                }
 
-            if (ivBytesRead < context.getIvLength()) {
-                throw new IOException("File doesn't contain an IV");
+                writeFully(output, outputBuffer);
+                inputBuffer.clear();
             }
 
-            // initialize the cipher
-            cipher.init(Cipher.DECRYPT_MODE,
-                    deriveKey(password, initializationVector),
-                    getAlgorithmParameterSpec(context.getMode(), initializationVector));
+            // write the mac
+            if (mac != null) {
+                writeFully(output, ByteBuffer.wrap(mac.doFinal()));
+            }
+        } finally {
+            cipherPool.release(cipher);
+            macPool.release(mac);
+        }
+    }
+
+    /**
+     * Decrypts a channel into another channel using the supplied password, in the format of
+     * {@link #decrypt(File, File, char[])}. Data is moved through direct buffers of {@link AliceContext#getChunkSize()}
+     * bytes and the last bytes are held back as the MAC, so the input length doesn't need to be known. As with files,
+     * the MAC is compared after all data is written. Neither channel is closed.
+     *
+     * @param input    the input channel, read until its end
+     * @param output   the output channel
+     * @param password the password
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output channel
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void decrypt(ReadableByteChannel input, WritableByteChannel output, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input or output channel is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        // read the initialization vector
+        ByteBuffer ivBuffer = ByteBuffer.allocate(context.getIvLength());
+
+        if (!readFully(input, ivBuffer)) {
+            throw new IOException("Channel doesn't contain an IV");
+        }
+
+        byte[] initializationVector = ivBuffer.array();
+        SecretKey key = deriveKey(password, initializationVector);
+
+        Cipher cipher = cipherPool.acquire();
+        Mac mac = null;
+
+        try {
+            initDecryption(cipher, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+
+            if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+                mac = getMac(context.getMacAlgorithm(), password);
+            }
+
+            ByteBuffer inputBuffer = ByteBuffer.allocateDirect(context.getChunkSize() + macLength);
+            ByteBuffer outputBuffer = ByteBuffer.allocateDirect(cipher.getOutputSize(context.getChunkSize()));
+            boolean end = false;
+
+            while (!end) {
+                end = !readFully(input, inputBuffer);
+                inputBuffer.flip();
+
+                // the last macLength bytes may be the MAC, so they're kept for the next round
+                if (inputBuffer.remaining() < macLength) {
+                    throw new IOException("Channel does not contain sufficient data for decryption");
+                }
+
+                ByteBuffer cipherText = inputBuffer.duplicate();
+
+                cipherText.limit(inputBuffer.limit() - macLength);
+
+                if (mac != null) {
+                    mac.update(cipherText.duplicate());
+                }
+
+                outputBuffer = transformBuffer(cipher, cipherText, outputBuffer, end);
+
+                writeFully(output, outputBuffer);
+                inputBuffer.position(cipherText.limit());
+                inputBuffer.compact();
+            }
+
+            // compare the mac
+            if (mac != null) {
+                byte[] recMac = new byte[macLength];
+
+                inputBuffer.flip();
+                inputBuffer.get(recMac);
+
+                if (!MessageDigest.isEqual(recMac, mac.doFinal())) {
+                    throw new GeneralSecurityException("Received mac is different from calculated");
+                }
+            }
+        } finally {
+            cipherPool.release(cipher);
+            macPool.release(mac);
+        }
+    }
+
+    /**
+     * Encrypts the input stream using the supplied password. Without a MAC algorithm the output is
+     * {@code IV || CIPHER}, with a MAC algorithm it's the segmented format of
+     * {@link #encryptingStream(OutputStream, char[])}. Both streams are closed. A context with neither GCM,
+     * ChaCha20-Poly1305 nor a MAC algorithm is rejected, since nothing would detect a truncated or modified output.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @throws GeneralSecurityException if initialization or encryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output stream
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void encrypt(InputStream input, OutputStream output, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input or output stream is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        validateAuthentication();
+
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            OutputStream encryptingStream = encryptingStream(output, password);
+
+            try {
+                input.transferTo(encryptingStream);
+
+                // closing seals the last segment, so failures are not ignored
+                encryptingStream.close();
+            } finally {
+                closeStream(input);
+                closeStream(encryptingStream);
+            }
+
+            return;
+        }
+
+        BufferedInputStream bufferedInputStream = null;
+        BufferedOutputStream bufferedOutputStream = null;
+
+        Cipher cipher = null;
+
+        try {
+            // generate the initialization vector
+            byte[] initializationVector = generateInitializationVector();
+
+            // initialize the cipher
+            SecretKey key = deriveKey(password, initializationVector);
+
+            cipher = cipherPool.acquire();
+            cipher.init(Cipher.ENCRYPT_MODE, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+
+            // setup streams
+            bufferedInputStream = new BufferedInputStream(input);
+            bufferedOutputStream = new BufferedOutputStream(output);
+
+            // write the initialization vector
+            bufferedOutputStream.write(initializationVector);
+
+            // allocate variables
+            int bytesRead;
+            byte[] inputStreamBuffer = new byte[4096];
+            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
+                // encrypt
+                bufferedOutputStream.write(cipher.update(inputStreamBuffer, 0, bytesRead));
+            }
+
+            // finalize and write the cipher
+            bufferedOutputStream.write(cipher.doFinal());
+        } finally {
+            closeStream(bufferedInputStream);
+            closeStream(bufferedOutputStream);
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * Wraps an output stream so everything written to it is encrypted in the segmented format, which is the chunked
+     * container format of {@link #encryptChunked(File, File, char[], Executor)} without a known length. Every segment
+     * of {@link AliceContext#getChunkSize()} plaintext bytes carries its own GCM tag and/or MAC and a flag marking the
+     * last segment, so the data can be authenticated while it's streamed. The returned stream must be closed to write
+     * the last segment, which also closes {@code output}. The context needs GCM, ChaCha20-Poly1305 or a MAC algorithm.
+     *
+     * @param output   the output stream
+     * @param password the password
+     * @return a stream which encrypts into {@code output}
+     * @throws GeneralSecurityException if the key derivation fails
+     * @throws IOException              if the header can't be written
+     */
+    @SuppressWarnings("WeakerAccess")
+    public OutputStream encryptingStream(OutputStream output, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (output == null) {
+            throw new IllegalArgumentException("Output stream is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        validateChunkSize();
+
+        ChunkHeader header = new ChunkHeader(context.getChunkSize(), ChunkHeader.STREAMED, generateChunkNonce());
+
+        return new SegmentedOutputStream(output, this, header, deriveKey(password, header.getNonce()), password);
+    }
+
+    /**
+     * Wraps an input stream in the segmented format, or the chunked container format, so reading it returns the
+     * decrypted data. Each segment is authenticated before its plaintext is returned and only one segment is held in
+     * memory. A segment which fails authentication, or a stream which ends before its last segment, makes the read
+     * throw an {@link IOException} caused by a {@link GeneralSecurityException}. The stream has to be written with the
+     * chunk size of this context, the segment buffer is never sized from the header alone. The context needs GCM,
+     * ChaCha20-Poly1305 or a MAC algorithm.
+     *
+     * @param input    the input stream
+     * @param password the password
+     * @return a stream which decrypts {@code input}
+     * @throws GeneralSecurityException if the key derivation fails
+     * @throws IOException              if the header can't be read or its chunk size is not the one of the context
+     */
+    @SuppressWarnings("WeakerAccess")
+    public InputStream decryptingStream(InputStream input, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (input == null) {
+            throw new IllegalArgumentException("Input stream is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        validateAuthentication();
+
+        ChunkHeader header = ChunkHeader.read(input, context.getIvLength());
+
+        if (header.getChunkSize() != context.getChunkSize()) {
+            throw new IOException("Chunk size of the stream does not match the context");
+        }
+
+        return new SegmentedInputStream(input, this, header, deriveKey(password, header.getNonce()), password);
+    }
+
+    /**
+     * Decrypts a byte array using the supplied password
+     *
+     * @param input    the byte array input
+     * @param password the password
+     * @return a decrypted byte array
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[] decrypt(byte[] input, char[] password) throws GeneralSecurityException {
+        if (input == null || input.length == 0) {
+            throw new IllegalArgumentException("Input is either null or empty");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        // deconstruct the input
+        byte[] initializationVector = Arrays.copyOfRange(input, 0, context.getIvLength());
+
+        byte[] cipherText;
+
+        // extract the MAC if needed
+        if (context.getMacAlgorithm() == AliceContext.MacAlgorithm.NONE) {
+            cipherText = Arrays.copyOfRange(input, context.getIvLength(), input.length);
+        } else {
+            cipherText = Arrays.copyOfRange(input, context.getIvLength(), input.length - macLength);
+            byte[] recMac = Arrays.copyOfRange(input, input.length - macLength, input.length);
+
+            // compute the mac
+            byte[] macBytes;
+            Mac mac = getMac(context.getMacAlgorithm(), password);
+
+            try {
+                macBytes = mac.doFinal(cipherText);
+            } finally {
+                macPool.release(mac);
+            }
+
+            // verify the macs are the same
+            if (!MessageDigest.isEqual(recMac, macBytes)) {
+                throw new GeneralSecurityException("Received mac is different from calculated");
+            }
+        }
+
+        SecretKey key = deriveKey(password, initializationVector);
+        Cipher cipher = cipherPool.acquire();
+
+        try {
+            // initialize the cipher
+            initDecryption(cipher, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+
+            return cipher.doFinal(cipherText);
+        } finally {
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * Decrypts an input file using the supplied password
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @throws GeneralSecurityException if initialization or decryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void decrypt(File input, File output, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (input == null || !input.exists() || input.length() <= 0) {
+            throw new IllegalArgumentException("Input file is either null or does not exist");
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("Output file is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        FileChannel inputChannel = null;
+        FileChannel outputChannel = null;
+
+        try {
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+            outputChannel = FileChannel.open(output.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            decrypt(inputChannel, outputChannel, password);
+        } finally {
+            closeStream(inputChannel);
+            closeStream(outputChannel);
+        }
+    }
+
+    /**
+     * Decrypts an input stream using the supplied password. Without a MAC algorithm the input is
+     * {@code IV || CIPHER}, with a MAC algorithm it's the segmented format of
+     * {@link #encryptingStream(OutputStream, char[])} and every segment is verified before it's written to the output.
+     * Both streams are closed. A context with neither GCM, ChaCha20-Poly1305 nor a MAC algorithm is rejected.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @throws GeneralSecurityException if initialization or decryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output stream
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void decrypt(InputStream input, OutputStream output, char[] password)
+            throws GeneralSecurityException, IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input or output stream is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        validateAuthentication();
+
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            InputStream decryptingStream = input;
+
+            try {
+                decryptingStream = decryptingStream(input, password);
+                decryptingStream.transferTo(output);
+                output.flush();
+            } catch (IOException e) {
+                if (e.getCause() instanceof GeneralSecurityException) {
+                    throw (GeneralSecurityException) e.getCause();
+                }
+
+                throw e;
+            } finally {
+                closeStream(decryptingStream);
+                closeStream(output);
+            }
+
+            return;
+        }
+
+        BufferedInputStream bufferedInputStream = null;
+        BufferedOutputStream bufferedOutputStream = null;
+
+        Cipher cipher = null;
+
+        try {
+            // setup streams
+            bufferedOutputStream = new BufferedOutputStream(output);
+            bufferedInputStream = new BufferedInputStream(input);
+
+            // read the initialization vector
+            byte[] initializationVector = new byte[context.getIvLength()];
+
+            int ivBytesRead = bufferedInputStream.read(initializationVector);
+
+            if (ivBytesRead < context.getIvLength()) {
+                throw new IOException("Stream does not contain IV");
+            }
+
+            // initialize the cipher
+            SecretKey key = deriveKey(password, initializationVector);
+
+            cipher = cipherPool.acquire();
+            initDecryption(cipher, key, getAlgorithmParameterSpec(context.getMode(), initializationVector));
+
+            // allocate loop buffers and variables
+            int bytesRead;
+            byte[] inputStreamBuffer = new byte[4096];
+
+            // decrypt
+            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
+                bufferedOutputStream.write(cipher.update(inputStreamBuffer, 0, bytesRead));
+            }
+
+            // finalize the cipher
+            bufferedOutputStream.write(cipher.doFinal());
+        } finally {
+            closeStream(bufferedInputStream);
+            closeStream(bufferedOutputStream);
+            cipherPool.release(cipher);
+        }
+    }
+
+    /**
+     * Encrypts the input file into the chunked container format using the common {@link ForkJoinPool}. See
+     * {@link #encryptChunked(File, File, char[], Executor)}.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @throws GeneralSecurityException if initialization or encryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void encryptChunked(File input, File output, char[] password)
+            throws GeneralSecurityException, IOException {
+        encryptChunked(input, output, password, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Encrypts the input file into the chunked container format. The input is split in chunks of
+     * {@link AliceContext#getChunkSize()} bytes which are encrypted independently on the executor, each with its own
+     * IV derived from a master nonce and the chunk index and its own GCM tag and/or MAC. Chunks have a fixed position
+     * in the output so they're written in order no matter which finishes first, and any chunk can later be decrypted
+     * on its own with {@link #decryptChunk(File, long, char[])}. The context needs GCM, ChaCha20-Poly1305 or a MAC
+     * algorithm, the same holds for decrypting.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @param executor runs the chunk tasks
+     * @throws GeneralSecurityException if initialization or encryption fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void encryptChunked(File input, File output, char[] password, Executor executor)
+            throws GeneralSecurityException, IOException {
+        if (input == null || !input.exists() || input.length() <= 0) {
+            throw new IllegalArgumentException("Input file is either null or does not exist");
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("Output file is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null");
+        }
+
+        validateChunkSize();
+
+        FileChannel inputChannel = null;
+        FileChannel outputChannel = null;
+
+        try {
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+            outputChannel = FileChannel.open(output.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            ChunkHeader header = new ChunkHeader(context.getChunkSize(), inputChannel.size(), generateChunkNonce());
+
+            ChunkHeader.writeFully(outputChannel, ByteBuffer.wrap(header.getEncoded()), 0);
+
+            transferChunks(header, deriveKey(password, header.getNonce()), password,
+                    inputChannel, outputChannel, executor, true);
+        } finally {
+            closeStream(inputChannel);
+            closeStream(outputChannel);
+        }
+    }
+
+    /**
+     * Decrypts a file in the chunked container format using the common {@link ForkJoinPool}. See
+     * {@link #decryptChunked(File, File, char[], Executor)}.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @throws GeneralSecurityException if initialization, decryption, or the authentication of a chunk fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void decryptChunked(File input, File output, char[] password)
+            throws GeneralSecurityException, IOException {
+        decryptChunked(input, output, password, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decrypts a file in the chunked container format written by {@link #encryptChunked(File, File, char[], Executor)}.
+     * Chunks are authenticated and decrypted in parallel on the executor.
+     *
+     * @param input    the input file
+     * @param output   the output file
+     * @param password the password
+     * @param executor runs the chunk tasks
+     * @throws GeneralSecurityException if initialization, decryption, or the authentication of a chunk fails
+     * @throws IOException              if there's a failure to read/write from/to the input/output file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void decryptChunked(File input, File output, char[] password, Executor executor)
+            throws GeneralSecurityException, IOException {
+        if (input == null || !input.exists() || input.length() <= 0) {
+            throw new IllegalArgumentException("Input file is either null or does not exist");
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("Output file is null");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null");
+        }
+
+        validateChunkSize();
+
+        FileChannel inputChannel = null;
+        FileChannel outputChannel = null;
+
+        try {
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+
+            ChunkHeader header = readChunkHeader(inputChannel);
+
+            outputChannel = FileChannel.open(output.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            transferChunks(header, deriveKey(password, header.getNonce()), password,
+                    inputChannel, outputChannel, executor, false);
+        } finally {
+            closeStream(inputChannel);
+            closeStream(outputChannel);
+        }
+    }
+
+    /**
+     * Decrypts a single chunk of a file in the chunked container format, without reading the other chunks
+     *
+     * @param input    the input file
+     * @param index    the chunk index, chunk {@code i} holds the plaintext starting at {@code i * chunk size}
+     * @param password the password
+     * @return the decrypted chunk
+     * @throws GeneralSecurityException if initialization, decryption, or the authentication of the chunk fails
+     * @throws IOException              if there's a failure to read from the input file
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[] decryptChunk(File input, long index, char[] password) throws GeneralSecurityException, IOException {
+        if (input == null || !input.exists() || input.length() <= 0) {
+            throw new IllegalArgumentException("Input file is either null or does not exist");
+        }
+
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("Password is either null or empty");
+        }
+
+        validateChunkSize();
+
+        FileChannel inputChannel = null;
+
+        try {
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+
+            ChunkHeader header = readChunkHeader(inputChannel);
+
+            if (index < 0 || index >= header.getChunkCount()) {
+                throw new IllegalArgumentException("Chunk index is out of range (" + index + ")");
+            }
+
+            ByteBuffer sealed = ByteBuffer.allocate(getSealedLength(header.getPlainLength(index)));
+
+            ChunkHeader.readFully(inputChannel, sealed, getSealedPosition(header, index));
+
+            return openChunk(header, deriveKey(password, header.getNonce()), password, index,
+                    index == header.getChunkCount() - 1, sealed.array(), sealed.capacity());
+        } finally {
+            closeStream(inputChannel);
+        }
+    }
+
+    /**
+     * Gets the number of chunks of a file in the chunked container format
+     *
+     * @param input the input file
+     * @return the number of chunks
+     * @throws IOException if there's a failure to read from the input file or it isn't a chunked container
+     */
+    @SuppressWarnings("WeakerAccess")
+    public long getChunkCount(File input) throws IOException {
+        if (input == null || !input.exists()) {
+            throw new IllegalArgumentException("Input file is either null or does not exist");
+        }
+
+        FileChannel inputChannel = null;
+
+        try {
+            inputChannel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+
+            return readChunkHeader(inputChannel).getChunkCount();
+        } finally {
+            closeStream(inputChannel);
+        }
+    }
+
+    /**
+     * Reads the header of a chunked container and checks the size of the container against it
+     *
+     * @param channel the container
+     * @return the header
+     * @throws IOException if the header is invalid or the container is truncated
+     */
+    private ChunkHeader readChunkHeader(FileChannel channel) throws IOException {
+        ChunkHeader header = ChunkHeader.read(channel, context.getIvLength());
+
+        if (header.getLength() == ChunkHeader.STREAMED) {
+            throw new IOException("File is a streamed container, decrypt it with a stream");
+        }
+
+        long chunkCount = header.getChunkCount();
+        long expectedSize;
+
+        try {
+            expectedSize = chunkCount == 0 ? header.getEncoded().length :
+                    getSealedPosition(header, chunkCount - 1) + getSealedLength(header.getPlainLength(chunkCount - 1));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Chunked container header is corrupted", e);
+        }
+
+        if (channel.size() != expectedSize) {
+            throw new IOException("File size does not match the chunked container header");
+        }
+
+        return header;
+    }
+
+    /**
+     * Encrypts or decrypts all chunks between two channels. At most two tasks per processor are in flight so memory
+     * stays bounded, and all started tasks are finished before returning so the channels can be closed.
+     */
+    private void transferChunks(final ChunkHeader header, final SecretKey key, final char[] password,
+                                final FileChannel input, final FileChannel output, Executor executor,
+                                final boolean encrypt) throws GeneralSecurityException, IOException {
+        int window = Runtime.getRuntime().availableProcessors() * 2;
+        ArrayDeque<CompletableFuture<Void>> pending = new ArrayDeque<>();
+
+        try {
+            for (long index = 0; index < header.getChunkCount(); index++) {
+                if (pending.size() >= window) {
+                    awaitChunk(pending.poll());
+                }
+
+                final long chunk = index;
+
+                pending.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        if (encrypt) {
+                            encryptChunk(header, key, password, chunk, input, output);
+                        } else {
+                            decryptChunk(header, key, password, chunk, input, output);
+                        }
+                    } catch (GeneralSecurityException | IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            while (!pending.isEmpty()) {
+                awaitChunk(pending.poll());
+            }
+        } finally {
+            for (CompletableFuture<Void> future : pending) {
+                try {
+                    future.join();
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+    }
+
+    private void encryptChunk(ChunkHeader header, SecretKey key, char[] password, long index,
+                              FileChannel input, FileChannel output) throws GeneralSecurityException, IOException {
+        ByteBuffer plain = ByteBuffer.allocate(header.getPlainLength(index));
+
+        ChunkHeader.readFully(input, plain, index * header.getChunkSize());
+
+        byte[] sealed = sealChunk(header, key, password, index, index == header.getChunkCount() - 1,
+                plain.array(), plain.capacity());
+
+        ChunkHeader.writeFully(output, ByteBuffer.wrap(sealed), getSealedPosition(header, index));
+    }
+
+    private void decryptChunk(ChunkHeader header, SecretKey key, char[] password, long index,
+                              FileChannel input, FileChannel output) throws GeneralSecurityException, IOException {
+        ByteBuffer sealed = ByteBuffer.allocate(getSealedLength(header.getPlainLength(index)));
+
+        ChunkHeader.readFully(input, sealed, getSealedPosition(header, index));
+
+        byte[] plain = openChunk(header, key, password, index, index == header.getChunkCount() - 1,
+                sealed.array(), sealed.capacity());
+
+        ChunkHeader.writeFully(output, ByteBuffer.wrap(plain), index * header.getChunkSize());
+    }
+
+    /**
+     * Encrypts a chunk, the result is {@code CIPHER || MAC} where the GCM tag is part of the cipher text
+     *
+     * @param header   the container header
+     * @param key      the derived key
+     * @param password the password, used as MAC key
+     * @param index    the chunk index
+     * @param last     whether it's the last chunk
+     * @param input    the plaintext
+     * @param length   the plaintext length
+     * @return the sealed chunk
+     * @throws GeneralSecurityException if initialization or encryption fails
+     */
+    byte[] sealChunk(ChunkHeader header, SecretKey key, char[] password, long index, boolean last,
+                     byte[] input, int length) throws GeneralSecurityException {
+        byte[] associatedData = header.getAssociatedData(index, last);
+        byte[] sealed = new byte[getSealedLength(length)];
+
+        AlgorithmParameterSpec parameterSpec =
+                getAlgorithmParameterSpec(context.getMode(), getChunkInitializationVector(header, key, index));
+        int cipherLength;
+
+        Cipher chunkCipher = cipherPool.acquire();
+
+        try {
+            chunkCipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
+
+            if (isAuthenticatedCipher()) {
+                chunkCipher.updateAAD(associatedData);
+            }
+
+            cipherLength = chunkCipher.doFinal(input, 0, length, sealed, 0);
+        } finally {
+            cipherPool.release(chunkCipher);
+        }
+
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            Mac mac = getMac(context.getMacAlgorithm(), password);
+
+            try {
+                mac.update(associatedData);
+                mac.update(sealed, 0, cipherLength);
+                mac.doFinal(sealed, cipherLength);
+            } finally {
+                macPool.release(mac);
+            }
+        }
+
+        return sealed;
+    }
+
+    /**
+     * Verifies and decrypts a chunk sealed by
+     * {@link #sealChunk(ChunkHeader, SecretKey, char[], long, boolean, byte[], int)}
+     *
+     * @param header   the container header
+     * @param key      the derived key
+     * @param password the password, used as MAC key
+     * @param index    the chunk index
+     * @param last     whether it's the last chunk
+     * @param input    the sealed chunk
+     * @param length   the sealed chunk length
+     * @return the plaintext
+     * @throws GeneralSecurityException if the chunk is not authentic or decryption fails
+     */
+    byte[] openChunk(ChunkHeader header, SecretKey key, char[] password, long index, boolean last,
+                     byte[] input, int length) throws GeneralSecurityException {
+        byte[] associatedData = header.getAssociatedData(index, last);
+        int cipherLength = length - macLength;
+
+        if (cipherLength < 0) {
+            throw new GeneralSecurityException("Chunk " + index + " is too short");
+        }
+
+        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
+            byte[] macBytes;
+
+            Mac mac = getMac(context.getMacAlgorithm(), password);
+
+            try {
+                mac.update(associatedData);
+                mac.update(input, 0, cipherLength);
+                macBytes = mac.doFinal();
+            } finally {
+                macPool.release(mac);
+            }
+
+            if (!MessageDigest.isEqual(macBytes, Arrays.copyOfRange(input, cipherLength, length))) {
+                throw new GeneralSecurityException("Received mac of chunk " + index + " is different from calculated");
+            }
+        }
+
+        AlgorithmParameterSpec parameterSpec =
+                getAlgorithmParameterSpec(context.getMode(), getChunkInitializationVector(header, key, index));
+
+        Cipher chunkCipher = cipherPool.acquire();
+
+        try {
+            initDecryption(chunkCipher, key, parameterSpec);
+
+            if (isAuthenticatedCipher()) {
+                chunkCipher.updateAAD(associatedData);
+            }
+
+            return chunkCipher.doFinal(input, 0, cipherLength);
+        } finally {
+            cipherPool.release(chunkCipher);
+        }
+    }
+
+    /**
+     * Derives the IV of a chunk by XORing the chunk index into the master nonce, which gives every chunk a distinct
+     * IV. In CTR mode the last 4 bytes of the nonce are zero and left alone so the block counter of one chunk never
+     * runs into the IV of the next. In CBC mode the result is encrypted with the key, as recommended in appendix C of
+     * NIST SP 800-38A, so the IVs are unpredictable.
+     *
+     * @param header the container header
+     * @param key    the derived key
+     * @param index  the chunk index
+     * @return the IV of the chunk
+     * @throws GeneralSecurityException if the encryption of a CBC IV fails
+     */
+    private byte[] getChunkInitializationVector(ChunkHeader header, SecretKey key, long index)
+            throws GeneralSecurityException {
+        byte[] initializationVector = header.getNonce();
+        int end = initializationVector.length - (context.getMode() == AliceContext.Mode.CTR ? 4 : 0);
+
+        if (end < Long.BYTES && end > 0 && (index >>> (end * 8)) != 0) {
+            throw new IllegalArgumentException("Too many chunks for the IV length");
+        }
+
+        for (int i = end - 1, shift = 0; i >= 0 && shift < Long.SIZE; i--, shift += 8) {
+            initializationVector[i] ^= (byte) (index >>> shift);
+        }
+
+        if (context.getMode() == AliceContext.Mode.CBC) {
+            Cipher blockCipher = Cipher.getInstance(context.getAlgorithm() + "/ECB/NoPadding");
+
+            blockCipher.init(Cipher.ENCRYPT_MODE, key);
+
+            return blockCipher.doFinal(initializationVector);
+        }
+
+        return initializationVector;
+    }
+
+    /**
+     * Initializes a cipher for decryption. A ChaCha20-Poly1305 cipher refuses the key and nonce it was last
+     * initialized with, which is harmless for decryption and happens when a pooled cipher decrypts a message it has
+     * just encrypted or decrypted, so the cipher is moved to another nonce first.
+     */
+    private void initDecryption(Cipher cipher, SecretKey key, AlgorithmParameterSpec parameterSpec)
+            throws GeneralSecurityException {
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+        } catch (InvalidKeyException e) {
+            if (context.getAlgorithm() != AliceContext.Algorithm.CHACHA20_POLY1305) {
+                throw e;
+            }
+
+            byte[] nonce = ((IvParameterSpec) parameterSpec).getIV();
+
+            nonce[0] ^= 1;
+
+            cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(nonce));
+            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+        }
+    }
+
+    /**
+     * @return whether the cipher authenticates the data itself and takes associated data, GCM and ChaCha20-Poly1305
+     */
+    private boolean isAuthenticatedCipher() {
+        return context.getMode() == AliceContext.Mode.GCM ||
+                context.getAlgorithm() == AliceContext.Algorithm.CHACHA20_POLY1305;
+    }
+
+    /**
+     * Streamed and chunked data is written and returned piece by piece, so without a GCM or Poly1305 tag and without a
+     * MAC a truncated or modified input would be decrypted without any error
+     */
+    private void validateAuthentication() {
+        if (!isAuthenticatedCipher() && context.getMacAlgorithm() == AliceContext.MacAlgorithm.NONE) {
+            throw new IllegalArgumentException("Neither an authenticated cipher (GCM or ChaCha20-Poly1305) nor a MAC " +
+                    "algorithm is selected");
+        }
+    }
 
-            // allocate loop buffers and variables
-            int bytesRead;
-            int numBytesToProcess;
-            byte[] inputStreamBuffer = new byte[4096];
-            long bytesLeft = input.length() - context.getIvLength();
+    /**
+     * Validates the context before any segmented or chunked operation, see {@link #validateAuthentication()}
+     */
+    private void validateChunkSize() {
+        validateAuthentication();
+
+        if (context.getMode() == AliceContext.Mode.CBC &&
+                context.getPadding() == AliceContext.Padding.NO_PADDING &&
+                context.getChunkSize() % context.getIvLength() != 0) {
+            throw new IllegalArgumentException("CBC mode without padding is selected but the chunk size is not a " +
+                    "multiple of the block size");
+        }
+    }
 
-            // subtract the mac length if enabled
-            if (mac != null) {
-                bytesLeft -= mac.getMacLength();
-            }
+    /**
+     * Generates the master nonce of a chunked container
+     *
+     * @return a byte array
+     */
+    private byte[] generateChunkNonce() {
+        byte[] nonce = generateInitializationVector();
 
-            // decrypt
-            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
-                numBytesToProcess = (bytesRead < bytesLeft) ? bytesRead : (int) bytesLeft;
+        if (context.getMode() == AliceContext.Mode.CTR) {
+            Arrays.fill(nonce, Math.max(0, nonce.length - 4), nonce.length, (byte) 0);
+        }
+
+        return nonce;
+    }
+
+    /**
+     * Gets the length of a sealed chunk
+     *
+     * @param plainLength the plaintext length of the chunk
+     * @return the length of the cipher text, GCM tag and MAC
+     * @throws IllegalArgumentException if the sealed chunk doesn't fit in an array
+     */
+    int getSealedLength(int plainLength) {
+        long sealedLength = plainLength;
 
-                if (numBytesToProcess <= 0) {
-                    break;
+        switch (context.getMode()) {
+            case CBC:
+                if (context.getPadding() == AliceContext.Padding.PKCS5_PADDING) {
+                    // the IV length is the block size in CBC mode
+                    sealedLength = (plainLength / context.getIvLength() + 1L) * context.getIvLength();
                 }
+                break;
+            case GCM:
+                sealedLength += context.getGcmTagLength().bits() / 8;
+                break;
+            case NONE:
+                // the Poly1305 tag of ChaCha20-Poly1305
+                sealedLength += 16;
+                break;
+        }
 
-                bufferedOutputStream.write(cipher.update(inputStreamBuffer, 0, numBytesToProcess));
+        sealedLength += macLength;
 
-                // reduce the number of bytes left
-                bytesLeft -= numBytesToProcess;
+        // computed in long, a chunk size near Integer.MAX_VALUE would overflow into a negative array size
+        if (sealedLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Chunk size is too large");
+        }
 
-                // compute the mac if needed
-                if (mac != null) {
-                    mac.update(inputStreamBuffer, 0, numBytesToProcess);
-                }
+        return (int) sealedLength;
+    }
+
+    private long getSealedPosition(ChunkHeader header, long index) {
+        return header.getEncoded().length + index * getSealedLength(header.getChunkSize());
+    }
+
+    private static void awaitChunk(CompletableFuture<Void> future) throws GeneralSecurityException, IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) e.getCause();
+            } else if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
 
-            // finalize the cipher
-            byte[] finalDecBytes = cipher.doFinal();
+            throw e;
+        }
+    }
+
+    /**
+     * Encrypts a session message, the result is {@code SALT || IV || CIPHER || MAC} where the MAC covers everything
+     * before it
+     *
+     * @param input    the byte array input
+     * @param password the password, used as MAC key
+     * @param salt     the salt the key was derived with
+     * @param key      the derived key
+     * @return an encrypted byte array
+     * @throws GeneralSecurityException if initialization or encryption fails
+     */
+    byte[] encryptMessage(byte[] input, char[] password, byte[] salt, SecretKey key) throws GeneralSecurityException {
+        byte[] initializationVector = generateInitializationVector();
 
-            bufferedOutputStream.write(finalDecBytes);
+        Cipher messageCipher = cipherPool.acquire();
+        Mac mac = null;
 
-            // compare the mac
-            if (mac != null && !Arrays.equals(recMac, mac.doFinal())) {
-                throw new GeneralSecurityException("Received mac is different from calculated");
+        try {
+            mac = macLength > 0 ? getMac(context.getMacAlgorithm(), password) : null;
+
+            return sealMessage(messageCipher, mac, input, salt, key, initializationVector, 0);
+        } finally {
+            // the session holds the key until it's closed, clearing here would only cost a key setup per message
+            cipherPool.release(messageCipher, false);
+            macPool.release(mac, false);
+        }
+    }
+
+    /**
+     * Decrypts a session message written by {@link #encryptMessage(byte[], char[], byte[], SecretKey)}
+     *
+     * @param input    the byte array input
+     * @param password the password
+     * @param salt     the salt the key was derived with
+     * @param key      the derived key, used when the message has the same salt
+     * @return a decrypted byte array
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails
+     */
+    byte[] decryptMessage(byte[] input, char[] password, byte[] salt, SecretKey key) throws GeneralSecurityException {
+        int ivLength = context.getIvLength();
+
+        if (input.length < 2 * ivLength + macLength) {
+            throw new IllegalArgumentException("Input does not contain sufficient data for decryption");
+        }
+
+        byte[] messageSalt = Arrays.copyOfRange(input, 0, ivLength);
+
+        Cipher messageCipher = cipherPool.acquire();
+        Mac mac = null;
+
+        try {
+            mac = macLength > 0 ? getMac(context.getMacAlgorithm(), password) : null;
+
+            if (Arrays.equals(messageSalt, salt)) {
+                return openMessage(messageCipher, mac, input, key);
             }
+
+            // an unknown salt costs a key derivation, so the MAC is checked first
+            verifyMessage(mac, input);
+
+            return openMessage(messageCipher, null, input, deriveKey(password, messageSalt));
         } finally {
-            closeStream(bufferedInputStream);
-            closeStream(bufferedOutputStream);
+            cipherPool.release(messageCipher, false);
+            macPool.release(mac, false);
         }
     }
 
     /**
-     * Decrypts an input stream using the supplied password
+     * Encrypts a batch of session messages, see {@link #encryptMessage(byte[], char[], byte[], SecretKey)}. The IVs of
+     * the whole batch come from one call to the random number generator and the records are split into ranges which
+     * are encrypted on the common {@link ForkJoinPool}, each with one {@link javax.crypto.Cipher} and
+     * {@link javax.crypto.Mac} for all its records.
      *
-     * @param input    the input file
-     * @param output   the output file
+     * @param inputs   the records
+     * @param password the password, used as MAC key
+     * @param salt     the salt the key was derived with
+     * @param key      the derived key
+     * @return the encrypted records, in the same order
+     * @throws GeneralSecurityException if initialization or encryption fails
+     */
+    byte[][] encryptMessages(final byte[][] inputs, final char[] password, final byte[] salt, final SecretKey key)
+            throws GeneralSecurityException {
+        validateRecords(inputs);
+
+        final int ivLength = context.getIvLength();
+        final byte[] initializationVectors = new byte[inputs.length * ivLength];
+        final byte[][] outputs = new byte[inputs.length][];
+
+        secureRandom.nextBytes(initializationVectors);
+
+        forEachRange(inputs.length, (from, to) -> {
+            Cipher messageCipher = cipherPool.acquire();
+            Mac mac = null;
+
+            try {
+                mac = macLength > 0 ? getMac(context.getMacAlgorithm(), password) : null;
+
+                for (int i = from; i < to; i++) {
+                    outputs[i] = sealMessage(messageCipher, mac, inputs[i], salt, key, initializationVectors,
+                            i * ivLength);
+                }
+            } finally {
+                cipherPool.release(messageCipher);
+                macPool.release(mac);
+            }
+        });
+
+        return outputs;
+    }
+
+    /**
+     * Decrypts a batch of session messages, see {@link #decryptMessage(byte[], char[], byte[], SecretKey)}. The MACs
+     * of all records are checked first, an unknown salt costs a key derivation so a forged record must not get that
+     * far. Then the key is derived once for every distinct salt in the batch, records of one session share a single
+     * derivation. Both passes run in ranges like {@link #encryptMessages(byte[][], char[], byte[], SecretKey)} does.
+     * Without a MAC algorithm the records can only be authenticated after their key is derived.
+     *
+     * @param inputs   the records
      * @param password the password
-     * @throws GeneralSecurityException if initialization or decryption fails
-     * @throws IOException              if there's a failure to read/write from/to the input/output stream
+     * @param salt     the salt the key was derived with, {@code null} if there's no key yet
+     * @param key      the derived key, {@code null} if there's no key yet
+     * @return the decrypted records, in the same order
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison of any record fails
      */
-    @SuppressWarnings("WeakerAccess")
-    public synchronized void decrypt(InputStream input, OutputStream output, char[] password)
-            throws GeneralSecurityException, IOException {
-        if (input == null || output == null) {
-            throw new IllegalArgumentException("Input or output stream is null");
+    byte[][] decryptMessages(final byte[][] inputs, final char[] password, byte[] salt, SecretKey key)
+            throws GeneralSecurityException {
+        validateRecords(inputs);
+
+        final int ivLength = context.getIvLength();
+        final Map<ByteBuffer, SecretKey> keys = new HashMap<>();
+        final byte[][] outputs = new byte[inputs.length][];
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i].length < 2 * ivLength + macLength) {
+                throw new IllegalArgumentException("Record " + i + " does not contain sufficient data for decryption");
+            }
         }
 
-        if (password == null || password.length == 0) {
-            throw new IllegalArgumentException("Password is either null or empty");
+        if (macLength > 0) {
+            // the MAC is keyed with the password, so it's checked before any key is derived or looked up
+            forEachRange(inputs.length, (from, to) -> {
+                Mac mac = getMac(context.getMacAlgorithm(), password);
+
+                try {
+                    for (int i = from; i < to && !failed.get(); i++) {
+                        try {
+                            verifyMessage(mac, inputs[i]);
+                        } catch (GeneralSecurityException e) {
+                            failed.set(true);
+                            throw new GeneralSecurityException("Record " + i + " can't be decrypted", e);
+                        }
+                    }
+                } finally {
+                    macPool.release(mac);
+                }
+            });
         }
 
-        if (context.getMacAlgorithm() != AliceContext.MacAlgorithm.NONE) {
-            throw new IllegalArgumentException("Streaming decryption does not support authenticated encryption");
+        if (salt != null) {
+            keys.put(ByteBuffer.wrap(salt), key);
         }
 
-        BufferedInputStream bufferedInputStream = null;
-        BufferedOutputStream bufferedOutputStream = null;
+        for (byte[] input : inputs) {
+            ByteBuffer messageSalt = ByteBuffer.wrap(input, 0, ivLength);
 
-        try {
-            // setup streams
-            bufferedOutputStream = new BufferedOutputStream(output);
-            bufferedInputStream = new BufferedInputStream(input);
+            if (!keys.containsKey(messageSalt)) {
+                keys.put(messageSalt, deriveKey(password, Arrays.copyOfRange(input, 0, ivLength)));
+            }
+        }
 
-            // read the initialization vector
-            byte[] initializationVector = new byte[context.getIvLength()];
+        forEachRange(inputs.length, (from, to) -> {
+            Cipher messageCipher = cipherPool.acquire();
 
-            int ivBytesRead = bufferedInputStream.read(initializationVector);
+            try {
+                for (int i = from; i < to && !failed.get(); i++) {
+                    try {
+                        outputs[i] = openMessage(messageCipher, null, inputs[i],
+                                keys.get(ByteBuffer.wrap(inputs[i], 0, ivLength)));
+                    } catch (GeneralSecurityException e) {
+                        failed.set(true);
+                        throw new GeneralSecurityException("Record " + i + " can't be decrypted", e);
+                    }
+                }
+            } finally {
+                cipherPool.release(messageCipher);
+            }
+        });
 
-            if (ivBytesRead < context.getIvLength()) {
-                throw new IOException("Stream does not contain IV");
+        return outputs;
+    }
+
+    /**
+     * Encrypts one session message with an initialized MAC and a cipher that's initialized here
+     *
+     * @param offset where the IV starts in {@code initializationVectors}
+     */
+    private byte[] sealMessage(Cipher messageCipher, Mac mac, byte[] input, byte[] salt, SecretKey key,
+                               byte[] initializationVectors, int offset) throws GeneralSecurityException {
+        int ivLength = context.getIvLength();
+        int headerLength = salt.length + ivLength;
+
+        messageCipher.init(Cipher.ENCRYPT_MODE, key, getAlgorithmParameterSpec(context.getMode(),
+                Arrays.copyOfRange(initializationVectors, offset, offset + ivLength)));
+
+        byte[] output = new byte[headerLength + messageCipher.getOutputSize(input.length) + macLength];
+
+        System.arraycopy(salt, 0, output, 0, salt.length);
+        System.arraycopy(initializationVectors, offset, output, salt.length, ivLength);
+
+        int length = headerLength + messageCipher.doFinal(input, 0, input.length, output, headerLength);
+
+        if (mac != null) {
+            mac.update(output, 0, length);
+            mac.doFinal(output, length);
+        }
+
+        return length + macLength == output.length ? output : Arrays.copyOf(output, length + macLength);
+    }
+
+    /**
+     * Checks the MAC of one session message and decrypts it, a {@code null} MAC means it was checked already
+     */
+    private byte[] openMessage(Cipher messageCipher, Mac mac, byte[] input, SecretKey key)
+            throws GeneralSecurityException {
+        int ivLength = context.getIvLength();
+
+        verifyMessage(mac, input);
+
+        initDecryption(messageCipher, key, getAlgorithmParameterSpec(context.getMode(),
+                Arrays.copyOfRange(input, ivLength, 2 * ivLength)));
+
+        return messageCipher.doFinal(input, 2 * ivLength, input.length - 2 * ivLength - macLength);
+    }
+
+    private void verifyMessage(Mac mac, byte[] input) throws GeneralSecurityException {
+        if (mac == null) {
+            return;
+        }
+
+        mac.update(input, 0, input.length - macLength);
+
+        if (!MessageDigest.isEqual(mac.doFinal(), Arrays.copyOfRange(input, input.length - macLength, input.length))) {
+            throw new GeneralSecurityException("Received mac is different from calculated");
+        }
+    }
+
+    private static void validateRecords(byte[][] inputs) {
+        if (inputs == null) {
+            throw new IllegalArgumentException("Records are null");
+        }
+
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i] == null || inputs[i].length == 0) {
+                throw new IllegalArgumentException("Record " + i + " is either null or empty");
             }
+        }
+    }
 
-            // initialize the cipher
-            cipher.init(Cipher.DECRYPT_MODE,
-                    deriveKey(password, initializationVector),
-                    getAlgorithmParameterSpec(context.getMode(), initializationVector));
+    /**
+     * A range of batch records, processed by one thread
+     */
+    private interface RecordRange {
+        void run(int from, int to) throws GeneralSecurityException;
+    }
 
-            // allocate loop buffers and variables
-            int bytesRead;
-            byte[] inputStreamBuffer = new byte[4096];
+    /**
+     * Splits {@code size} records into ranges of at least {@link #MINIMUM_BATCH_RANGE} and runs them on the common
+     * {@link ForkJoinPool}, the calling thread takes the first range. Small batches run on the calling thread only.
+     */
+    private static void forEachRange(int size, RecordRange range) throws GeneralSecurityException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
 
-            // decrypt
-            while ((bytesRead = bufferedInputStream.read(inputStreamBuffer)) > 0) {
-                bufferedOutputStream.write(cipher.update(inputStreamBuffer, 0, bytesRead));
+        if (size < 2 * MINIMUM_BATCH_RANGE || parallelism < 2) {
+            range.run(0, size);
+            return;
+        }
+
+        final int rangeSize = Math.max(MINIMUM_BATCH_RANGE, (size + 4 * parallelism - 1) / (4 * parallelism));
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        for (int from = rangeSize; from < size; from += rangeSize) {
+            final int start = from;
+
+            pending.add(CompletableFuture.runAsync(() -> {
+                try {
+                    range.run(start, Math.min(start + rangeSize, size));
+                } catch (GeneralSecurityException e) {
+                    throw new CompletionException(e);
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+
+        GeneralSecurityException failure = null;
+
+        try {
+            range.run(0, rangeSize);
+        } catch (GeneralSecurityException e) {
+            failure = e;
+        }
+
+        // every range has to finish before the caller sees the result or reuses the password
+        for (CompletableFuture<Void> future : pending) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof GeneralSecurityException)) {
+                    throw e;
+                }
+
+                if (failure == null) {
+                    failure = (GeneralSecurityException) e.getCause();
+                }
             }
+        }
 
-            // finalize the cipher
-            bufferedOutputStream.write(cipher.doFinal());
-        } finally {
-            closeStream(bufferedInputStream);
-            closeStream(bufferedOutputStream);
+        if (failure != null) {
+            throw failure;
         }
     }
 
@@ -585,11 +1942,34 @@ public class Alice {
             case PBKDF_2_WITH_HMAC_SHA_256:
             case PBKDF_2_WITH_HMAC_SHA_384:
             case PBKDF_2_WITH_HMAC_SHA_512:
-                key = derivePbkdfKeyBytes(password, initializationVector);
+            case SCRYPT:
+                key = getCachedPbkdfKeyBytes(password, initializationVector);
                 break;
         }
 
-        return new SecretKeySpec(key, context.getAlgorithm().toString());
+        SecretKey secretKey = new SecretKeySpec(key, context.getAlgorithm().toString());
+
+        Arrays.fill(key, (byte) 0);
+
+        return secretKey;
+    }
+
+    private byte[] getCachedPbkdfKeyBytes(char[] password, byte[] salt) throws GeneralSecurityException {
+        AliceKeyCache cache = keyCache;
+
+        if (cache == null) {
+            return derivePbkdfKeyBytes(password, salt);
+        }
+
+        byte[] key = cache.get(context, password, salt);
+
+        if (key == null) {
+            key = derivePbkdfKeyBytes(password, salt);
+
+            cache.put(context, password, salt, key);
+        }
+
+        return key;
     }
 
     private byte[] deriveKeyBytes(char[] password) {
@@ -616,7 +1996,12 @@ public class Alice {
     }
 
     private byte[] derivePbkdfKeyBytes(char[] password, byte[] initializationVector)
-            throws InvalidKeySpecException, NoSuchAlgorithmException {
+            throws GeneralSecurityException {
+        if (context.getPbkdf() == AliceContext.Pbkdf.SCRYPT) {
+            return Scrypt.derive(password, initializationVector, context.getScryptCost(),
+                    context.getScryptBlockSize(), context.getScryptParallelization(), context.getKeyLength().bytes());
+        }
+
         return SecretKeyFactory.getInstance(context.getPbkdf().toString())
                 .generateSecret(
                         new PBEKeySpec(
@@ -631,6 +2016,7 @@ public class Alice {
         switch (mode) {
             case CBC:
             case CTR:
+            case NONE:
                 return new IvParameterSpec(initializationVector);
             case GCM:
                 return new GCMParameterSpec(context.getGcmTagLength().bits(), initializationVector);
@@ -640,18 +2026,111 @@ public class Alice {
     }
 
     /**
-     * Generates an initialization vector using {@link java.security.SecureRandom} as the number generator
+     * Clears the idle {@link Cipher} and {@link Mac} instances, called when a session is closed since single session
+     * messages release their instances without clearing
+     */
+    void clearPools() {
+        cipherPool.clearIdle();
+        macPool.clearIdle();
+    }
+
+    /**
+     * Initializes a released cipher with an all-zero key, so its key schedule is not the one of the last caller. The
+     * IV is a counter because GCM and ChaCha20-Poly1305 refuse to be initialized with the key and IV they already have.
+     *
+     * @param cipher the released cipher
+     * @throws GeneralSecurityException if initialization fails, the cipher is dropped then
+     */
+    private void clearCipher(Cipher cipher) throws GeneralSecurityException {
+        byte[] initializationVector = new byte[context.getIvLength()];
+        long count = clearCount.incrementAndGet();
+
+        for (int i = 0; i < Math.min(Long.BYTES, initializationVector.length); i++) {
+            initializationVector[i] = (byte) (count >>> (i * 8));
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE,
+                new SecretKeySpec(new byte[context.getKeyLength().bytes()], context.getAlgorithm().toString()),
+                getAlgorithmParameterSpec(context.getMode(), initializationVector));
+    }
+
+    /**
+     * Initializes a released MAC with an all-zero key, so it doesn't keep the password of the last caller
+     *
+     * @param mac the released MAC
+     * @throws GeneralSecurityException if initialization fails, the MAC is dropped then
+     */
+    private void clearMac(Mac mac) throws GeneralSecurityException {
+        mac.init(new SecretKeySpec(new byte[1], context.getMacAlgorithm().toString()));
+    }
+
+    /**
+     * Generates an initialization vector using {@link java.security.SecureRandom} as the number generator. The
+     * generator is shared, seeding a new one for every IV is slow and draws on the system entropy source.
      *
      * @return a byte array
      */
     private byte[] generateInitializationVector() {
         byte[] initializationVector = new byte[context.getIvLength()];
 
-        new SecureRandom().nextBytes(initializationVector);
+        secureRandom.nextBytes(initializationVector);
 
         return initializationVector;
     }
 
+    /**
+     * Passes a buffer through a cipher. The output buffer is replaced by a bigger one when the cipher returns more
+     * than it holds, which happens when GCM decryption releases all plaintext at the end. Updates are tried before
+     * growing because {@link Cipher#getOutputSize(int)} counts data the cipher holds back.
+     *
+     * @return the output buffer, flipped for reading
+     */
+    private static ByteBuffer transformBuffer(Cipher cipher, ByteBuffer input, ByteBuffer output, boolean last)
+            throws GeneralSecurityException {
+        if (last && output.capacity() < cipher.getOutputSize(input.remaining())) {
+            output = ByteBuffer.allocateDirect(cipher.getOutputSize(input.remaining()));
+        }
+
+        output.clear();
+
+        if (last) {
+            cipher.doFinal(input, output);
+        } else {
+            try {
+                cipher.update(input, output);
+            } catch (ShortBufferException e) {
+                // the cipher state is unchanged, retry with room for everything
+                output = ByteBuffer.allocateDirect(cipher.getOutputSize(input.remaining()));
+                cipher.update(input, output);
+            }
+        }
+
+        output.flip();
+
+        return output;
+    }
+
+    /**
+     * Reads until the buffer is full or the channel ends
+     *
+     * @return {@code false} if the channel ended
+     */
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
     private void closeStream(Closeable stream) {
         if (stream != null) {
             try {
@@ -1,6 +1,23 @@
 package org.sdk6.security;
 
 public class AliceContext {
+    /**
+     * Default plaintext size of a chunk in the chunked container format, 1 MiB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * Default scrypt CPU/memory cost, 2^15 which takes 32 MiB with the default block size
+     */
+    public static final int DEFAULT_SCRYPT_COST = 1 << 15;
+    /**
+     * Default scrypt block size
+     */
+    public static final int DEFAULT_SCRYPT_BLOCK_SIZE = 8;
+    /**
+     * Default scrypt parallelization
+     */
+    public static final int DEFAULT_SCRYPT_PARALLELIZATION = 1;
+
     private Algorithm algorithm;
     private Mode mode;
     private Padding padding;
@@ -10,6 +27,10 @@ public class AliceContext {
     private int ivLength;
     private GcmTagLength gcmTagLength;
     private int iterations;
+    private int chunkSize;
+    private int scryptCost;
+    private int scryptBlockSize;
+    private int scryptParallelization;
 
     /**
      * Initializes a new {@code AliceContext} for use with {@link com.rockaport.alice.Alice}. Most of the inputs are
@@ -44,6 +65,77 @@ public class AliceContext {
         this.ivLength = ivLength;
         this.gcmTagLength = gcmTagLength;
         this.iterations = iterations;
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+        this.scryptCost = DEFAULT_SCRYPT_COST;
+        this.scryptBlockSize = DEFAULT_SCRYPT_BLOCK_SIZE;
+        this.scryptParallelization = DEFAULT_SCRYPT_PARALLELIZATION;
+    }
+
+    /**
+     * Initializes a new {@code AliceContext} for use with {@link com.rockaport.alice.Alice} with the plaintext size of
+     * a chunk used by the chunked container format.
+     *
+     * @param algorithm    the {@link Algorithm}
+     * @param mode         the {@link Mode}
+     * @param padding      the {@link Padding}
+     * @param keyLength    the {@link KeyLength}
+     * @param pbkdf        the {@link Pbkdf}
+     * @param macAlgorithm the {@link MacAlgorithm}
+     * @param ivLength     the length of the initialization vector
+     * @param gcmTagLength the {@link GcmTagLength}
+     * @param iterations   the number of iterations used for PBKDF modes
+     * @param chunkSize    the plaintext size of a chunk in bytes
+     */
+    @SuppressWarnings("WeakerAccess")
+    public AliceContext(Algorithm algorithm,
+                        Mode mode,
+                        Padding padding,
+                        KeyLength keyLength,
+                        Pbkdf pbkdf,
+                        MacAlgorithm macAlgorithm,
+                        int ivLength, GcmTagLength gcmTagLength,
+                        int iterations,
+                        int chunkSize) {
+        this(algorithm, mode, padding, keyLength, pbkdf, macAlgorithm, ivLength, gcmTagLength, iterations);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Initializes a new {@code AliceContext} for use with {@link com.rockaport.alice.Alice} with the chunk size and
+     * the cost parameters of {@link Pbkdf#SCRYPT}, see <a href="https://www.rfc-editor.org/rfc/rfc7914.txt">RFC
+     * 7914</a>. The memory needed by one derivation is {@code 128 * scryptBlockSize * scryptCost} bytes.
+     *
+     * @param algorithm             the {@link Algorithm}
+     * @param mode                  the {@link Mode}
+     * @param padding               the {@link Padding}
+     * @param keyLength             the {@link KeyLength}
+     * @param pbkdf                 the {@link Pbkdf}
+     * @param macAlgorithm          the {@link MacAlgorithm}
+     * @param ivLength              the length of the initialization vector
+     * @param gcmTagLength          the {@link GcmTagLength}
+     * @param iterations            the number of iterations used for PBKDF modes
+     * @param chunkSize             the plaintext size of a chunk in bytes
+     * @param scryptCost            the scrypt CPU/memory cost {@code N}, a power of 2
+     * @param scryptBlockSize       the scrypt block size {@code r}
+     * @param scryptParallelization the scrypt parallelization {@code p}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public AliceContext(Algorithm algorithm,
+                        Mode mode,
+                        Padding padding,
+                        KeyLength keyLength,
+                        Pbkdf pbkdf,
+                        MacAlgorithm macAlgorithm,
+                        int ivLength, GcmTagLength gcmTagLength,
+                        int iterations,
+                        int chunkSize,
+                        int scryptCost,
+                        int scryptBlockSize,
+                        int scryptParallelization) {
+        this(algorithm, mode, padding, keyLength, pbkdf, macAlgorithm, ivLength, gcmTagLength, iterations, chunkSize);
+        this.scryptCost = scryptCost;
+        this.scryptBlockSize = scryptBlockSize;
+        this.scryptParallelization = scryptParallelization;
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -91,6 +183,121 @@ public class AliceContext {
         return iterations;
     }
 
+    @SuppressWarnings("WeakerAccess")
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public int getScryptCost() {
+        return scryptCost;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public int getScryptBlockSize() {
+        return scryptBlockSize;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public int getScryptParallelization() {
+        return scryptParallelization;
+    }
+
+    /**
+     * Checks that the options of this context can be used together
+     *
+     * @throws IllegalArgumentException if an option is missing or doesn't fit the others
+     */
+    void validate() {
+        if (algorithm == null ||
+                mode == null ||
+                padding == null ||
+                keyLength == null ||
+                pbkdf == null ||
+                macAlgorithm == null) {
+
+            throw new IllegalArgumentException("Context, algorithm, mode, or padding is null");
+        }
+
+        // Algorithm/mode specific validation
+        switch (algorithm) {
+            case AES:
+                switch (mode) {
+                    case CBC:
+                    case CTR:
+                        if (ivLength != 16) {
+                            throw new IllegalArgumentException("CBC or CTR mode is selected but the IV length is not 16");
+                        }
+                        break;
+                    case GCM:
+                        if (gcmTagLength == null) {
+                            throw new IllegalArgumentException("GCM mode is selected but the tag length is null");
+                        }
+
+                        if (ivLength <= 0) {
+                            throw new IllegalArgumentException("GCM mode is selected but the IV length is invalid");
+                        }
+                        break;
+                }
+                break;
+            case DES:
+                if (ivLength != 8) {
+                    throw new IllegalArgumentException("DES algorithm is selected but the IV length is not 8 " +
+                            "(" + ivLength + ")");
+                }
+                break;
+            case CHACHA20_POLY1305:
+                if (mode != Mode.NONE || padding != Padding.NO_PADDING) {
+                    throw new IllegalArgumentException("ChaCha20-Poly1305 is selected but the mode is not None or " +
+                            "the padding is not NoPadding");
+                }
+
+                if (keyLength != KeyLength.BITS_256) {
+                    throw new IllegalArgumentException("ChaCha20-Poly1305 is selected but the key length is not 256");
+                }
+
+                if (ivLength != 12) {
+                    throw new IllegalArgumentException("ChaCha20-Poly1305 is selected but the IV length is not 12");
+                }
+                break;
+        }
+
+        if (mode == Mode.NONE && algorithm != Algorithm.CHACHA20_POLY1305) {
+            throw new IllegalArgumentException("Mode None is only supported by ChaCha20-Poly1305");
+        }
+
+        // PBKDF iterations validation
+        switch (pbkdf) {
+            case PBKDF_2_WITH_HMAC_SHA_1:
+            case PBKDF_2_WITH_HMAC_SHA_256:
+            case PBKDF_2_WITH_HMAC_SHA_384:
+            case PBKDF_2_WITH_HMAC_SHA_512:
+                if (iterations <= 0) {
+                    throw new IllegalArgumentException("PBKDF is selected, but the number of iterations is invalid");
+                }
+                break;
+            case SCRYPT:
+                if (scryptCost < 2 || Integer.bitCount(scryptCost) != 1) {
+                    throw new IllegalArgumentException("Scrypt is selected, but the cost is not a power of 2");
+                }
+
+                if (scryptBlockSize <= 0 || scryptParallelization <= 0 ||
+                        (long) scryptBlockSize * scryptParallelization >= 1 << 30) {
+                    throw new IllegalArgumentException("Scrypt is selected, but the block size or parallelization " +
+                            "is invalid");
+                }
+
+                if (128L * scryptBlockSize * scryptCost > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Scrypt is selected, but the cost needs too much memory");
+                }
+                break;
+        }
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size is invalid");
+        }
+    }
+
     /**
      * Algorithm used for the {@link javax.crypto.Cipher}
      */
@@ -111,7 +318,14 @@ public class AliceContext {
          * algorithm three separate times. It is first encrypted using the first subkey, then decrypted with the second
          * subkey, and encrypted with the third subkey.
          */
-        DESede("DESede");
+        DESede("DESede"),
+        /**
+         * The ChaCha20 stream cipher with the Poly1305 authenticator as defined in
+         * <a href="https://www.rfc-editor.org/rfc/rfc8439.txt">RFC 8439</a>. It is fast in software, a good choice where
+         * the processor has no AES instructions. Requires {@link Mode#NONE}, {@link Padding#NO_PADDING}, a 256-bit key
+         * and a 12-byte IV, and adds a 16-byte tag. Needs Java 11 or newer.
+         */
+        CHACHA20_POLY1305("ChaCha20-Poly1305");
 
         private String value;
 
@@ -143,7 +357,11 @@ public class AliceContext {
          * Galois/Counter Mode, as defined in
          * <a href="http://csrc.nist.gov/publications/nistpubs/800-38D/SP-800-38D.pdf">NIST Special Publication SP 800-38D</a>.
          */
-        GCM("GCM");
+        GCM("GCM"),
+        /**
+         * No mode of operation, for {@link Algorithm#CHACHA20_POLY1305} which is not a block cipher
+         */
+        NONE("None");
 
         private String value;
 
@@ -254,7 +472,14 @@ public class AliceContext {
          * Password-based key-derivation algorithm found in <a href="http://www.rfc-editor.org/rfc/rfc2898.txt">PKCS #5 2.0</a>
          * using the specified pseudo-random function
          */
-        PBKDF_2_WITH_HMAC_SHA_512("PBKDF2WithHmacSHA512");
+        PBKDF_2_WITH_HMAC_SHA_512("PBKDF2WithHmacSHA512"),
+        /**
+         * The memory-hard password-based key derivation function found in
+         * <a href="https://www.rfc-editor.org/rfc/rfc7914.txt">RFC 7914</a>, tuned with
+         * {@link AliceContext#getScryptCost()}, {@link AliceContext#getScryptBlockSize()} and
+         * {@link AliceContext#getScryptParallelization()}
+         */
+        SCRYPT("scrypt");
 
         private final String value;
 
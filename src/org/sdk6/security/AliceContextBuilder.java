@@ -10,9 +10,14 @@ public class AliceContextBuilder {
     private int ivLength = 16;
     private AliceContext.GcmTagLength gcmTagLength = AliceContext.GcmTagLength.BITS_128;
     private int iterations = 10000;
+    private int chunkSize = AliceContext.DEFAULT_CHUNK_SIZE;
+    private int scryptCost = AliceContext.DEFAULT_SCRYPT_COST;
+    private int scryptBlockSize = AliceContext.DEFAULT_SCRYPT_BLOCK_SIZE;
+    private int scryptParallelization = AliceContext.DEFAULT_SCRYPT_PARALLELIZATION;
 
     /**
-     * Sets the cipher algorithm. Defaults to {@code AES} and is the only supported algorithm
+     * Sets the cipher algorithm. Defaults to {@code AES}. {@code ChaCha20-Poly1305} needs the mode set to {@code None}
+     * and the IV length set to {@code 12}
      *
      * @param algorithm the {@link com.rockaport.alice.AliceContext.Algorithm}
      * @return {@link com.rockaport.alice.AliceContextBuilder}
@@ -111,12 +116,62 @@ public class AliceContextBuilder {
         return this;
     }
 
+    /**
+     * Sets the plaintext size of a chunk for the chunked container format. Defaults to {@code 1048576}
+     *
+     * @param chunkSize the plaintext size of a chunk in bytes
+     * @return {@link com.rockaport.alice.AliceContextBuilder}
+     */
+    public AliceContextBuilder setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the scrypt CPU/memory cost, a power of 2. Defaults to {@code 32768}
+     *
+     * @param scryptCost the cost used with the scrypt Pbkdf algorithm
+     * @return {@link com.rockaport.alice.AliceContextBuilder}
+     */
+    public AliceContextBuilder setScryptCost(int scryptCost) {
+        this.scryptCost = scryptCost;
+        return this;
+    }
+
+    /**
+     * Sets the scrypt block size. Defaults to {@code 8}
+     *
+     * @param scryptBlockSize the block size used with the scrypt Pbkdf algorithm
+     * @return {@link com.rockaport.alice.AliceContextBuilder}
+     */
+    public AliceContextBuilder setScryptBlockSize(int scryptBlockSize) {
+        this.scryptBlockSize = scryptBlockSize;
+        return this;
+    }
+
+    /**
+     * Sets the scrypt parallelization. Defaults to {@code 1}
+     *
+     * @param scryptParallelization the parallelization used with the scrypt Pbkdf algorithm
+     * @return {@link com.rockaport.alice.AliceContextBuilder}
+     */
+    public AliceContextBuilder setScryptParallelization(int scryptParallelization) {
+        this.scryptParallelization = scryptParallelization;
+        return this;
+    }
+
     /**
      * Creates an {@link com.rockaport.alice.AliceContext} with the arguments supplied to this builder.
      *
      * @return {@link com.rockaport.alice.AliceContext}
+     * @throws IllegalArgumentException if the arguments can't be used together
      */
     public AliceContext build() {
-        return new AliceContext(algorithm, mode, padding, keyLength, pbkdf, macAlgorithm, ivLength, gcmTagLength, iterations);
+        AliceContext context = new AliceContext(algorithm, mode, padding, keyLength, pbkdf, macAlgorithm, ivLength,
+                gcmTagLength, iterations, chunkSize, scryptCost, scryptBlockSize, scryptParallelization);
+
+        context.validate();
+
+        return context;
     }
 }
\ No newline at end of file
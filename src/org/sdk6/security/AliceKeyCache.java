@@ -0,0 +1,221 @@
+package org.sdk6.security;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of derived keys for {@link Alice}, see {@link Alice#setKeyCache(AliceKeyCache)}. Entries are keyed
+ * on a SHA-256 hash of the password, the salt and the key derivation settings of the context, so one cache can be
+ * shared by several {@code Alice} objects. The least recently used entry is evicted when the cache is full and entries
+ * expire a fixed time after they were derived. Evicted and expired key bytes are overwritten with zeros.
+ */
+public final class AliceKeyCache {
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LinkedHashMap<CacheKey, DerivedKey> entries;
+    private long nextSweep;
+
+    /**
+     * Initializes a new {@code AliceKeyCache}
+     *
+     * @param maximumSize the maximum number of keys
+     * @param timeToLive  how long a derived key stays in the cache
+     * @param unit        the unit of {@code timeToLive}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public AliceKeyCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size is invalid");
+        }
+
+        if (timeToLive <= 0 || unit == null) {
+            throw new IllegalArgumentException("Time to live is invalid");
+        }
+
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.nextSweep = System.nanoTime() + timeToLiveNanos;
+        this.entries = new LinkedHashMap<CacheKey, DerivedKey>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, DerivedKey> eldest) {
+                if (size() > AliceKeyCache.this.maximumSize) {
+                    eldest.getValue().zeroize();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public long getTimeToLive(TimeUnit unit) {
+        return unit.convert(timeToLiveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of keys in the cache, expired keys included until they're evicted
+     */
+    @SuppressWarnings("WeakerAccess")
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all keys from the cache and overwrites them with zeros
+     */
+    @SuppressWarnings("WeakerAccess")
+    public synchronized void clear() {
+        for (DerivedKey key : entries.values()) {
+            key.zeroize();
+        }
+
+        entries.clear();
+    }
+
+    /**
+     * Looks up a derived key
+     *
+     * @param context  the context the key was derived with
+     * @param password the password
+     * @param salt     the salt
+     * @return a copy of the key bytes or {@code null} if there's no valid entry
+     */
+    byte[] get(AliceContext context, char[] password, byte[] salt) {
+        CacheKey cacheKey = new CacheKey(context, password, salt);
+
+        synchronized (this) {
+            long now = System.nanoTime();
+
+            if (now - nextSweep >= 0) {
+                evictExpired(now);
+            }
+
+            DerivedKey key = entries.get(cacheKey);
+
+            if (key == null) {
+                return null;
+            } else if (key.isExpired(now)) {
+                entries.remove(cacheKey).zeroize();
+                return null;
+            }
+
+            return key.bytes.clone();
+        }
+    }
+
+    /**
+     * Stores a derived key
+     *
+     * @param context  the context the key was derived with
+     * @param password the password
+     * @param salt     the salt
+     * @param key      the key bytes, the cache keeps a copy
+     */
+    void put(AliceContext context, char[] password, byte[] salt, byte[] key) {
+        CacheKey cacheKey = new CacheKey(context, password, salt);
+        DerivedKey derivedKey = new DerivedKey(key.clone(), System.nanoTime() + timeToLiveNanos);
+
+        synchronized (this) {
+            DerivedKey previous = entries.put(cacheKey, derivedKey);
+
+            if (previous != null) {
+                previous.zeroize();
+            }
+        }
+    }
+
+    /**
+     * Removes all expired keys. Access order is not expiry order, so this walks the whole cache and runs at most a few
+     * times per time to live, lookups check the expiry of the key they find.
+     */
+    private void evictExpired(long now) {
+        for (Iterator<DerivedKey> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            DerivedKey key = iterator.next();
+
+            if (key.isExpired(now)) {
+                key.zeroize();
+                iterator.remove();
+            }
+        }
+
+        nextSweep = now + Math.max(timeToLiveNanos / 4, 1);
+    }
+
+    /**
+     * Cached key bytes and their expiry time
+     */
+    private static final class DerivedKey {
+        private final byte[] bytes;
+        private final long expiresAt;
+
+        DerivedKey(byte[] bytes, long expiresAt) {
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        void zeroize() {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Cache key, the hash of the password, the salt and the settings which change the derived key
+     */
+    private static final class CacheKey {
+        private final byte[] digest;
+        private final int hashCode;
+
+        CacheKey(AliceContext context, char[] password, byte[] salt) {
+            MessageDigest messageDigest;
+
+            try {
+                messageDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(password.length * 2);
+
+            buffer.asCharBuffer().put(password);
+            messageDigest.update(buffer.array());
+            Arrays.fill(buffer.array(), (byte) 0);
+
+            messageDigest.update((context.getAlgorithm() + "/" + context.getKeyLength() + "/" +
+                    context.getPbkdf() + "/" + context.getIterations() + "/" + context.getScryptCost() + "/" +
+                    context.getScryptBlockSize() + "/" + context.getScryptParallelization()).getBytes());
+            messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(salt.length).array());
+            messageDigest.update(salt);
+
+            this.digest = messageDigest.digest();
+            this.hashCode = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CacheKey && MessageDigest.isEqual(digest, ((CacheKey) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.sdk6.security;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Encrypts and decrypts many messages with one key derived from a password, so the PBKDF runs once per session
+ * instead of once per message. Created by {@link Alice#openSession(char[])}. Every message gets its own random IV and
+ * carries the session salt so it can be decrypted later by any session with the same password. Messages are
+ * {@code SALT || IV || CIPHER || MAC}, which is not the format of {@link Alice#encrypt(byte[], char[])}. A session can
+ * be used from several threads at once. Closing it waits for the operations in progress, then overwrites the password
+ * and key with zeros and clears the idle pooled {@link javax.crypto.Cipher} and {@link javax.crypto.Mac} instances,
+ * which single messages leave keyed for speed.
+ */
+public final class AliceSession implements AutoCloseable {
+    private final Alice alice;
+    private final char[] password;
+    private final byte[] salt;
+    private final byte[] key;
+    private final String algorithm;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    AliceSession(Alice alice, char[] password, byte[] salt, byte[] key) {
+        this.alice = alice;
+        this.password = password.clone();
+        this.salt = salt;
+        this.key = key;
+        this.algorithm = alice.getContext().getAlgorithm().toString();
+    }
+
+    /**
+     * @return the salt the session key was derived with
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[] getSalt() {
+        return salt.clone();
+    }
+
+    /**
+     * Encrypts a byte array with the session key
+     *
+     * @param input the byte array input
+     * @return an encrypted byte array
+     * @throws GeneralSecurityException if initialization or encryption fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[] encrypt(byte[] input) throws GeneralSecurityException {
+        if (input == null || input.length == 0) {
+            throw new IllegalArgumentException("Input is either null or empty");
+        }
+
+        return withKey(key -> alice.encryptMessage(input, password, salt, key));
+    }
+
+    /**
+     * Decrypts a byte array encrypted by a session. Messages of a session with another salt need their own key
+     * derivation, which goes through the key cache of the {@link Alice} object if there is one.
+     *
+     * @param input the byte array input
+     * @return a decrypted byte array
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[] decrypt(byte[] input) throws GeneralSecurityException {
+        if (input == null || input.length == 0) {
+            throw new IllegalArgumentException("Input is either null or empty");
+        }
+
+        return withKey(key -> alice.decryptMessage(input, password, salt, key));
+    }
+
+    /**
+     * Encrypts a batch of records with the session key. Each record is a message of its own, as if it was passed to
+     * {@link #encrypt(byte[])}, but the IVs are generated together and large batches are split over the common
+     * {@link java.util.concurrent.ForkJoinPool}, reusing one cipher per thread.
+     *
+     * @param records the records
+     * @return the encrypted records, in the same order
+     * @throws GeneralSecurityException if initialization or encryption fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[][] encrypt(byte[][] records) throws GeneralSecurityException {
+        return withKey(key -> alice.encryptMessages(records, password, salt, key));
+    }
+
+    /**
+     * Decrypts a batch of records encrypted by a session, see {@link #decrypt(byte[])}. Records of other sessions
+     * need one key derivation per distinct salt.
+     *
+     * @param records the records
+     * @return the decrypted records, in the same order
+     * @throws GeneralSecurityException if initialization, decryption, or the MAC comparison of any record fails
+     */
+    @SuppressWarnings("WeakerAccess")
+    public byte[][] decrypt(byte[][] records) throws GeneralSecurityException {
+        return withKey(key -> alice.decryptMessages(records, password, salt, key));
+    }
+
+    /**
+     * Waits for the operations in progress and overwrites the password and the key with zeros, the session can't be
+     * used afterwards. The idle pooled instances are cleared as well.
+     */
+    @Override
+    public void close() {
+        Lock writeLock = lock.writeLock();
+
+        writeLock.lock();
+
+        try {
+            closed = true;
+
+            Arrays.fill(password, '\0');
+            Arrays.fill(key, (byte) 0);
+
+            alice.clearPools();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs an operation with the session key, the password and key can't be overwritten by {@link #close()} until
+     * it's done
+     */
+    private <T> T withKey(KeyOperation<T> operation) throws GeneralSecurityException {
+        Lock readLock = lock.readLock();
+
+        readLock.lock();
+
+        try {
+            if (closed) {
+                throw new IllegalStateException("Session is closed");
+            }
+
+            return operation.apply(new SecretKeySpec(key, algorithm));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private interface KeyOperation<T> {
+        T apply(SecretKey key) throws GeneralSecurityException;
+    }
+}
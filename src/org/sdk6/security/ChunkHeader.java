@@ -0,0 +1,220 @@
+package org.sdk6.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Header of the chunked container format written by {@link Alice#encryptChunked(java.io.File, java.io.File, char[])}.
+ * The container is {@code MAGIC || VERSION || CHUNK SIZE || LENGTH || NONCE} followed by the sealed chunks in order.
+ * Every chunk except the last holds {@code CHUNK SIZE} plaintext bytes, so the position of any chunk can be computed
+ * from the header alone. Streams are written in the same format with a length of {@link #STREAMED}, their last chunk
+ * is found by the end of the stream and verified by the final flag of its associated data.
+ */
+final class ChunkHeader {
+    private static final byte[] MAGIC = {'A', 'L', 'C'};
+    private static final byte VERSION = 1;
+    private static final int FIXED_LENGTH = MAGIC.length + 1 + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Length of a container written by a stream, which doesn't know the plaintext length in advance
+     */
+    static final long STREAMED = -1;
+
+    private final int chunkSize;
+    private final long length;
+    private final byte[] nonce;
+    private final byte[] encoded;
+
+    /**
+     * Initializes a new {@code ChunkHeader}
+     *
+     * @param chunkSize the plaintext size of a chunk
+     * @param length    the plaintext length or {@link #STREAMED}
+     * @param nonce     the master nonce, also used as PBKDF salt
+     */
+    ChunkHeader(int chunkSize, long length, byte[] nonce) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size is invalid");
+        }
+
+        this.chunkSize = chunkSize;
+        this.length = length;
+        this.nonce = nonce.clone();
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_LENGTH + nonce.length);
+
+        buffer.put(MAGIC).put(VERSION).putInt(chunkSize).putLong(length).put(nonce);
+
+        encoded = buffer.array();
+    }
+
+    /**
+     * Reads the header at the start of a container
+     *
+     * @param channel     the container
+     * @param nonceLength the length of the master nonce
+     * @return the header
+     * @throws IOException if the channel can't be read or doesn't start with a valid header
+     */
+    static ChunkHeader read(FileChannel channel, int nonceLength) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_LENGTH + nonceLength);
+
+        readFully(channel, buffer, 0);
+        buffer.flip();
+
+        return decode(buffer, nonceLength);
+    }
+
+    /**
+     * Reads the header at the start of a stream
+     *
+     * @param input       the stream
+     * @param nonceLength the length of the master nonce
+     * @return the header
+     * @throws IOException if the stream can't be read or doesn't start with a valid header
+     */
+    static ChunkHeader read(InputStream input, int nonceLength) throws IOException {
+        byte[] encoded = new byte[FIXED_LENGTH + nonceLength];
+
+        if (readFully(input, encoded, 0, encoded.length) < encoded.length) {
+            throw new IOException("Stream does not contain a chunked container header");
+        }
+
+        return decode(ByteBuffer.wrap(encoded), nonceLength);
+    }
+
+    private static ChunkHeader decode(ByteBuffer buffer, int nonceLength) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+
+        buffer.get(magic);
+
+        if (!Arrays.equals(magic, MAGIC) || buffer.get() != VERSION) {
+            throw new IOException("File is not a chunked container");
+        }
+
+        int chunkSize = buffer.getInt();
+        long length = buffer.getLong();
+        byte[] nonce = new byte[nonceLength];
+
+        buffer.get(nonce);
+
+        if (chunkSize <= 0 || length < STREAMED) {
+            throw new IOException("Chunked container header is corrupted");
+        }
+
+        return new ChunkHeader(chunkSize, length, nonce);
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    byte[] getNonce() {
+        return nonce.clone();
+    }
+
+    /**
+     * @return the encoded header
+     */
+    byte[] getEncoded() {
+        return encoded.clone();
+    }
+
+    /**
+     * @return the number of chunks
+     */
+    long getChunkCount() {
+        return (length + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * @param index the chunk index
+     * @return the plaintext length of the chunk
+     */
+    int getPlainLength(long index) {
+        return (int) Math.min(chunkSize, length - index * chunkSize);
+    }
+
+    /**
+     * Builds the data authenticated with a chunk, {@code HEADER || INDEX || FINAL}. Binding the header and index
+     * prevents chunks from being reordered or moved to another container, the final flag prevents truncation.
+     *
+     * @param index the chunk index
+     * @param last  whether it's the last chunk
+     * @return the associated data
+     */
+    byte[] getAssociatedData(long index, boolean last) {
+        return ByteBuffer.allocate(encoded.length + Long.BYTES + 1)
+                .put(encoded)
+                .putLong(index)
+                .put((byte) (last ? 1 : 0))
+                .array();
+    }
+
+    /**
+     * Reads until the range is full or the stream ends
+     *
+     * @param input  the stream
+     * @param buffer the buffer
+     * @param offset the start of the range
+     * @param length the length of the range
+     * @return the number of bytes read, less than {@code length} only at the end of the stream
+     * @throws IOException if reading fails
+     */
+    static int readFully(InputStream input, byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+
+        while (total < length) {
+            int bytesRead = input.read(buffer, offset + total, length - total);
+
+            if (bytesRead < 0) {
+                break;
+            }
+
+            total += bytesRead;
+        }
+
+        return total;
+    }
+
+    /**
+     * Reads until the buffer is full
+     *
+     * @param channel  the channel
+     * @param buffer   the buffer
+     * @param position the position in the channel
+     * @throws IOException if the channel ends before the buffer is full
+     */
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position);
+
+            if (bytesRead < 0) {
+                throw new IOException("File does not contain sufficient data for decryption");
+            }
+
+            position += bytesRead;
+        }
+    }
+
+    /**
+     * Writes the whole buffer
+     *
+     * @param channel  the channel
+     * @param buffer   the buffer
+     * @param position the position in the channel
+     * @throws IOException if writing fails
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.sdk6.security;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of reusable {@link javax.crypto.Cipher} or {@link javax.crypto.Mac} instances, which are expensive to
+ * look up but cheap to initialize again. Callers never wait: when the pool is empty a new instance is created, and
+ * released instances beyond the maximum are dropped. Instances are re-initialized by every caller, so their state
+ * after a failed operation doesn't matter. A released instance is cleared before it goes idle, so an idle instance
+ * doesn't keep the key schedule of its last caller in memory, and an instance which can't be cleared is dropped.
+ * Clearing costs a key setup on the next use, so callers which keep the key in memory anyway, like sessions, may
+ * release without clearing and call {@link #clearIdle()} once they drop the key.
+ *
+ * @param <T> the pooled type
+ */
+final class InstancePool<T> {
+    private final Factory<T> factory;
+    private final Cleaner<T> cleaner;
+    private final int maximumIdle;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Creates pool instances
+     *
+     * @param <T> the pooled type
+     */
+    interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    /**
+     * Replaces the key of released instances
+     *
+     * @param <T> the pooled type
+     */
+    interface Cleaner<T> {
+        void clear(T instance) throws GeneralSecurityException;
+    }
+
+    /**
+     * Initializes a new {@code InstancePool}
+     *
+     * @param factory     creates instances
+     * @param cleaner     clears released instances
+     * @param maximumIdle the maximum number of instances kept for reuse
+     */
+    InstancePool(Factory<T> factory, Cleaner<T> cleaner, int maximumIdle) {
+        this.factory = factory;
+        this.cleaner = cleaner;
+        this.maximumIdle = maximumIdle;
+    }
+
+    /**
+     * Takes an idle instance or creates one
+     *
+     * @return an instance, which should be given back with {@link #release(Object)}
+     * @throws GeneralSecurityException if a new instance can't be created
+     */
+    T acquire() throws GeneralSecurityException {
+        T instance = idle.poll();
+
+        if (instance == null) {
+            return factory.create();
+        }
+
+        idleCount.decrementAndGet();
+
+        return instance;
+    }
+
+    /**
+     * Clears an instance and gives it back to the pool
+     *
+     * @param instance the instance, {@code null} is ignored
+     */
+    void release(T instance) {
+        release(instance, true);
+    }
+
+    /**
+     * Gives an instance back to the pool
+     *
+     * @param instance the instance, {@code null} is ignored
+     * @param clear    whether the instance is cleared, only false when the caller's key stays in memory anyway
+     */
+    void release(T instance, boolean clear) {
+        if (instance == null) {
+            return;
+        }
+
+        if (idleCount.incrementAndGet() <= maximumIdle) {
+            try {
+                if (clear) {
+                    cleaner.clear(instance);
+                }
+
+                idle.offer(instance);
+
+                return;
+            } catch (GeneralSecurityException e) {
+                // dropped, it may still hold the key of its last caller
+            }
+        }
+
+        idleCount.decrementAndGet();
+    }
+
+    /**
+     * Clears the idle instances, which may have been released without clearing
+     */
+    void clearIdle() {
+        for (int i = idleCount.get(); i > 0; i--) {
+            T instance = idle.poll();
+
+            if (instance == null) {
+                return;
+            }
+
+            idleCount.decrementAndGet();
+            release(instance);
+        }
+    }
+}
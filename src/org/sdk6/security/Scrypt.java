@@ -0,0 +1,202 @@
+package org.sdk6.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * The scrypt password-based key derivation function as defined in
+ * <a href="https://www.rfc-editor.org/rfc/rfc7914.txt">RFC 7914</a>, used for {@link AliceContext.Pbkdf#SCRYPT}. The
+ * JDK has no scrypt, so the Salsa20/8 core and the sequential memory-hard mixing are implemented here on top of
+ * PBKDF2-HMAC-SHA256 from {@link Mac}. Blocks are kept as little-endian {@code int} words, so the mixing loops run on
+ * int arrays without byte conversions.
+ */
+final class Scrypt {
+    private Scrypt() {
+    }
+
+    /**
+     * Derives a key
+     *
+     * @param password        the password, encoded as UTF-8
+     * @param salt            the salt
+     * @param cost            the CPU/memory cost {@code N}, a power of 2
+     * @param blockSize       the block size {@code r}
+     * @param parallelization the parallelization {@code p}
+     * @param length          the key length in bytes
+     * @return the key bytes
+     * @throws GeneralSecurityException if HMAC-SHA256 is not available
+     */
+    static byte[] derive(char[] password, byte[] salt, int cost, int blockSize, int parallelization, int length)
+            throws GeneralSecurityException {
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        byte[] passwordBytes = new byte[encoded.remaining()];
+
+        encoded.get(passwordBytes);
+        Arrays.fill(encoded.array(), (byte) 0);
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+
+        mac.init(new SecretKeySpec(passwordBytes, "HmacSHA256"));
+        Arrays.fill(passwordBytes, (byte) 0);
+
+        int words = 32 * blockSize;
+        byte[] blocks = pbkdf2(mac, salt, parallelization * 4 * words);
+        int[] x = new int[words];
+        int[] y = new int[words];
+        int[] v = new int[words * cost];
+        int[] t = new int[16];
+        int[] scratch = new int[16];
+
+        try {
+            for (int i = 0; i < parallelization; i++) {
+                romix(blocks, i * 4 * words, x, y, v, t, scratch, blockSize, cost);
+            }
+
+            return pbkdf2(mac, blocks, length);
+        } finally {
+            Arrays.fill(blocks, (byte) 0);
+            Arrays.fill(x, 0);
+            Arrays.fill(y, 0);
+            Arrays.fill(v, 0);
+            Arrays.fill(t, 0);
+            Arrays.fill(scratch, 0);
+        }
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 with a single iteration, all scrypt needs
+     */
+    private static byte[] pbkdf2(Mac mac, byte[] salt, int length) {
+        byte[] output = new byte[length];
+        byte[] counter = new byte[Integer.BYTES];
+
+        for (int offset = 0, block = 1; offset < length; offset += mac.getMacLength(), block++) {
+            counter[0] = (byte) (block >>> 24);
+            counter[1] = (byte) (block >>> 16);
+            counter[2] = (byte) (block >>> 8);
+            counter[3] = (byte) block;
+
+            mac.update(salt);
+            mac.update(counter);
+
+            byte[] u = mac.doFinal();
+
+            System.arraycopy(u, 0, output, offset, Math.min(u.length, length - offset));
+        }
+
+        return output;
+    }
+
+    /**
+     * scryptROMix, mixes one block of {@code 128 * blockSize} bytes in place
+     */
+    private static void romix(byte[] blocks, int offset, int[] x, int[] y, int[] v, int[] t, int[] scratch,
+                              int blockSize, int cost) {
+        int words = x.length;
+
+        for (int i = 0; i < words; i++) {
+            int position = offset + i * 4;
+
+            x[i] = (blocks[position] & 0xFF) | (blocks[position + 1] & 0xFF) << 8 |
+                    (blocks[position + 2] & 0xFF) << 16 | (blocks[position + 3] & 0xFF) << 24;
+        }
+
+        for (int i = 0; i < cost; i++) {
+            System.arraycopy(x, 0, v, i * words, words);
+            blockMix(x, y, t, scratch, blockSize);
+        }
+
+        for (int i = 0; i < cost; i++) {
+            // Integerify, the cost is a power of 2 so the low word of the last 64-byte block is enough
+            int j = x[words - 16] & (cost - 1);
+
+            for (int k = 0; k < words; k++) {
+                x[k] ^= v[j * words + k];
+            }
+
+            blockMix(x, y, t, scratch, blockSize);
+        }
+
+        for (int i = 0; i < words; i++) {
+            int position = offset + i * 4;
+
+            blocks[position] = (byte) x[i];
+            blocks[position + 1] = (byte) (x[i] >>> 8);
+            blocks[position + 2] = (byte) (x[i] >>> 16);
+            blocks[position + 3] = (byte) (x[i] >>> 24);
+        }
+    }
+
+    /**
+     * scryptBlockMix, the even 64-byte blocks of the output go to the first half and the odd ones to the second
+     */
+    private static void blockMix(int[] b, int[] y, int[] t, int[] scratch, int blockSize) {
+        System.arraycopy(b, b.length - 16, t, 0, 16);
+
+        for (int i = 0; i < 2 * blockSize; i++) {
+            for (int k = 0; k < 16; k++) {
+                t[k] ^= b[i * 16 + k];
+            }
+
+            salsa208(t, scratch);
+
+            System.arraycopy(t, 0, y, ((i & 1) * blockSize + (i >> 1)) * 16, 16);
+        }
+
+        System.arraycopy(y, 0, b, 0, b.length);
+    }
+
+    /**
+     * The Salsa20/8 core, applied in place
+     */
+    private static void salsa208(int[] b, int[] x) {
+        System.arraycopy(b, 0, x, 0, 16);
+
+        for (int i = 0; i < 8; i += 2) {
+            // columns
+            x[4] ^= Integer.rotateLeft(x[0] + x[12], 7);
+            x[8] ^= Integer.rotateLeft(x[4] + x[0], 9);
+            x[12] ^= Integer.rotateLeft(x[8] + x[4], 13);
+            x[0] ^= Integer.rotateLeft(x[12] + x[8], 18);
+            x[9] ^= Integer.rotateLeft(x[5] + x[1], 7);
+            x[13] ^= Integer.rotateLeft(x[9] + x[5], 9);
+            x[1] ^= Integer.rotateLeft(x[13] + x[9], 13);
+            x[5] ^= Integer.rotateLeft(x[1] + x[13], 18);
+            x[14] ^= Integer.rotateLeft(x[10] + x[6], 7);
+            x[2] ^= Integer.rotateLeft(x[14] + x[10], 9);
+            x[6] ^= Integer.rotateLeft(x[2] + x[14], 13);
+            x[10] ^= Integer.rotateLeft(x[6] + x[2], 18);
+            x[3] ^= Integer.rotateLeft(x[15] + x[11], 7);
+            x[7] ^= Integer.rotateLeft(x[3] + x[15], 9);
+            x[11] ^= Integer.rotateLeft(x[7] + x[3], 13);
+            x[15] ^= Integer.rotateLeft(x[11] + x[7], 18);
+
+            // rows
+            x[1] ^= Integer.rotateLeft(x[0] + x[3], 7);
+            x[2] ^= Integer.rotateLeft(x[1] + x[0], 9);
+            x[3] ^= Integer.rotateLeft(x[2] + x[1], 13);
+            x[0] ^= Integer.rotateLeft(x[3] + x[2], 18);
+            x[6] ^= Integer.rotateLeft(x[5] + x[4], 7);
+            x[7] ^= Integer.rotateLeft(x[6] + x[5], 9);
+            x[4] ^= Integer.rotateLeft(x[7] + x[6], 13);
+            x[5] ^= Integer.rotateLeft(x[4] + x[7], 18);
+            x[11] ^= Integer.rotateLeft(x[10] + x[9], 7);
+            x[8] ^= Integer.rotateLeft(x[11] + x[10], 9);
+            x[9] ^= Integer.rotateLeft(x[8] + x[11], 13);
+            x[10] ^= Integer.rotateLeft(x[9] + x[8], 18);
+            x[12] ^= Integer.rotateLeft(x[15] + x[14], 7);
+            x[13] ^= Integer.rotateLeft(x[12] + x[15], 9);
+            x[14] ^= Integer.rotateLeft(x[13] + x[12], 13);
+            x[15] ^= Integer.rotateLeft(x[14] + x[13], 18);
+        }
+
+        for (int i = 0; i < 16; i++) {
+            b[i] += x[i];
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.sdk6.security;
+
+import javax.crypto.SecretKey;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Decrypts a chunked container while it's read, one segment at a time. Every segment is authenticated before any of
+ * its plaintext is released, so at most one segment is held in memory. The segment followed by the end of the stream
+ * has to be the one sealed as last, which detects truncated streams. Created by
+ * {@link Alice#decryptingStream(InputStream, char[])}, authentication failures are thrown as {@link IOException}s
+ * caused by a {@link GeneralSecurityException}.
+ */
+final class SegmentedInputStream extends FilterInputStream {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Alice alice;
+    private final ChunkHeader header;
+    private final SecretKey key;
+    private final char[] password;
+    private final byte[] sealed;
+    private byte[] segment = EMPTY;
+    private int position;
+    private long index;
+    private boolean finished;
+    private IOException failure;
+
+    SegmentedInputStream(InputStream input, Alice alice, ChunkHeader header, SecretKey key, char[] password) {
+        super(new PushbackInputStream(input, 1));
+
+        this.alice = alice;
+        this.header = header;
+        this.key = key;
+        this.password = password.clone();
+        this.sealed = new byte[alice.getSealedLength(header.getChunkSize())];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        while (position == segment.length) {
+            if (finished) {
+                return -1;
+            }
+
+            readSegment();
+        }
+
+        int bytesCopied = Math.min(len, segment.length - position);
+
+        System.arraycopy(segment, position, b, off, bytesCopied);
+        position += bytesCopied;
+
+        return bytesCopied;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+
+        // skipping the underlying stream would skip cipher text, so the plaintext is read and dropped
+        while (skipped < n) {
+            if (position == segment.length) {
+                if (finished) {
+                    break;
+                }
+
+                readSegment();
+                continue;
+            }
+
+            int bytesSkipped = (int) Math.min(n - skipped, segment.length - position);
+
+            position += bytesSkipped;
+            skipped += bytesSkipped;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return segment.length - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("Mark and reset are not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(segment, (byte) 0);
+        Arrays.fill(password, '\0');
+        finished = true;
+        segment = EMPTY;
+        position = 0;
+
+        in.close();
+    }
+
+    /**
+     * Reads and opens the next segment, a full segment is the last one if the stream ends right after it
+     *
+     * @throws IOException if reading fails or the segment is not authentic
+     */
+    private void readSegment() throws IOException {
+        if (failure != null) {
+            throw failure; // the stream can't continue after a segment that failed
+        }
+
+        int length = ChunkHeader.readFully(in, sealed, 0, sealed.length);
+        boolean last = length < sealed.length;
+
+        if (!last) {
+            int next = in.read();
+
+            if (next < 0) {
+                last = true;
+            } else {
+                ((PushbackInputStream) in).unread(next);
+            }
+        }
+
+        try {
+            Arrays.fill(segment, (byte) 0);
+
+            segment = alice.openChunk(header, key, password, index++, last, sealed, length);
+            position = 0;
+            finished = last;
+        } catch (GeneralSecurityException e) {
+            failure = new IOException(e);
+            throw failure;
+        }
+    }
+}
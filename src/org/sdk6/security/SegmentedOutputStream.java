@@ -0,0 +1,101 @@
+package org.sdk6.security;
+
+import javax.crypto.SecretKey;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Encrypts everything written to it into the chunked container format, one authenticated segment per
+ * {@link AliceContext#getChunkSize()} bytes of plaintext. A full segment is only sealed once more data arrives, so the
+ * segment sealed by {@link #close()} is always the one marked as last. Created by
+ * {@link Alice#encryptingStream(OutputStream, char[])}.
+ */
+final class SegmentedOutputStream extends FilterOutputStream {
+    private final Alice alice;
+    private final ChunkHeader header;
+    private final SecretKey key;
+    private final char[] password;
+    private final byte[] segment;
+    private int count;
+    private long index;
+    private boolean closed;
+
+    SegmentedOutputStream(OutputStream output, Alice alice, ChunkHeader header, SecretKey key, char[] password)
+            throws IOException {
+        super(output);
+
+        this.alice = alice;
+        this.header = header;
+        this.key = key;
+        this.password = password.clone();
+        this.segment = new byte[header.getChunkSize()];
+
+        out.write(header.getEncoded());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        while (len > 0) {
+            if (count == segment.length) {
+                writeSegment(false);
+            }
+
+            int bytesCopied = Math.min(len, segment.length - count);
+
+            System.arraycopy(b, off, segment, count, bytesCopied);
+
+            count += bytesCopied;
+            off += bytesCopied;
+            len -= bytesCopied;
+        }
+    }
+
+    /**
+     * Seals the buffered plaintext as the last segment and closes the underlying stream
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            writeSegment(true);
+            out.flush();
+        } finally {
+            Arrays.fill(segment, (byte) 0);
+            Arrays.fill(password, '\0');
+            out.close();
+        }
+    }
+
+    private void writeSegment(boolean last) throws IOException {
+        try {
+            out.write(alice.sealChunk(header, key, password, index++, last, segment, count));
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+
+        count = 0;
+    }
+}